@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * Creates in-memory HSQLDB databases with authors, blogs and posts, and session factories using them.
+ */
+public final class BenchmarkDatabase {
+
+  public static final String DRIVER = "org.hsqldb.jdbcDriver";
+  public static final int AUTHORS = 100;
+  public static final int POSTS_PER_BLOG = 10;
+
+  private static final String MAPPER = "org/apache/ibatis/benchmarks/BenchmarkMapper.xml";
+  private static final AtomicInteger DATABASES = new AtomicInteger();
+
+  private BenchmarkDatabase() {
+  }
+
+  /**
+   * @return the url of a new, empty in-memory database
+   */
+  public static String newUrl() {
+    return "jdbc:hsqldb:mem:benchmark" + DATABASES.incrementAndGet();
+  }
+
+  public static SqlSessionFactory newSqlSessionFactory(LocalCacheScope localCacheScope) throws SQLException, IOException {
+    PooledDataSource dataSource = new PooledDataSource(DRIVER, newUrl(), "sa", "");
+    populate(dataSource);
+    Configuration configuration = new Configuration(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.setLocalCacheScope(localCacheScope);
+    configuration.setMapUnderscoreToCamelCase(true);
+    try (InputStream inputStream = Resources.getResourceAsStream(MAPPER)) {
+      new XMLMapperBuilder(inputStream, configuration, MAPPER, configuration.getSqlFragments()).parse();
+    }
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  public static void shutdown(SqlSessionFactory sqlSessionFactory) throws SQLException {
+    DataSource dataSource = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      statement.execute("shutdown");
+    }
+    ((PooledDataSource) dataSource).forceCloseAll();
+  }
+
+  private static void populate(DataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("create table author (id int primary key, username varchar(32), email varchar(64), bio varchar(255))");
+        statement.execute("create table blog (id int primary key, author_id int, title varchar(255))");
+        statement.execute("create table post (id int primary key, blog_id int, subject varchar(255), body varchar(1024))");
+      }
+      try (PreparedStatement author = connection.prepareStatement("insert into author values (?, ?, ?, ?)");
+          PreparedStatement blog = connection.prepareStatement("insert into blog values (?, ?, ?)");
+          PreparedStatement post = connection.prepareStatement("insert into post values (?, ?, ?, ?)")) {
+        for (int id = 1; id <= AUTHORS; id++) {
+          author.setInt(1, id);
+          author.setString(2, "author" + id);
+          author.setString(3, "author" + id + "@example.org");
+          author.setString(4, "Bio of author " + id);
+          author.addBatch();
+          blog.setInt(1, id);
+          blog.setInt(2, id);
+          blog.setString(3, "Blog " + id);
+          blog.addBatch();
+          for (int i = 0; i < POSTS_PER_BLOG; i++) {
+            int postId = id * POSTS_PER_BLOG + i;
+            post.setInt(1, postId);
+            post.setInt(2, id);
+            post.setString(3, "Post " + postId);
+            post.setString(4, "Body of post " + postId);
+            post.addBatch();
+          }
+        }
+        author.executeBatch();
+        blog.executeBatch();
+        post.executeBatch();
+      }
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+    }
+  }
+
+}
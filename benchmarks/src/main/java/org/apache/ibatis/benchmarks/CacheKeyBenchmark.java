@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CompactCacheKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link CacheKey} with {@link CompactCacheKey} on the key shapes MyBatis builds: one statement key per
+ * query, and one row key per row of a nested result map. Each benchmark builds a key and looks it up in a map
+ * holding an equal key, so hashing and equality are measured along with allocation. Run it with
+ * {@code -prof gc} to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheKeyBenchmark {
+
+  private static final String STATEMENT_ID = "org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogsWithAuthor";
+  private static final String SQL = "select b.id, b.title, a.id as author_id, a.username from blog b"
+      + " join author a on b.author_id = a.id where b.author_id = ? and b.title like ? limit ?";
+  private static final String RESULT_MAP_ID = "org.apache.ibatis.domain.blog.mappers.BlogMapper.blogWithAuthor";
+
+  @Param({ "false", "true" })
+  public boolean compact;
+
+  private Object[] parameters;
+  private final Map<CacheKey, Object> statementKeys = new HashMap<>();
+  private final Map<CacheKey, Object> rowKeys = new HashMap<>();
+  private long rowId;
+
+  @Setup
+  public void setup() {
+    parameters = new Object[] { 101, "%mybatis%", 20L };
+    statementKeys.put(statementKey(), Boolean.TRUE);
+    for (long id = 0; id < 1024; id++) {
+      rowKeys.put(rowKey(id), Boolean.TRUE);
+    }
+  }
+
+  @Benchmark
+  public Object statementKeyLookup() {
+    return statementKeys.get(statementKey());
+  }
+
+  @Benchmark
+  public Object rowKeyLookup() {
+    return rowKeys.get(rowKey(rowId++ & 1023));
+  }
+
+  @Benchmark
+  public CacheKey combinedRowKey() throws CloneNotSupportedException {
+    CacheKey combined = rowKey(rowId++ & 1023).clone();
+    combined.update(rowKey(rowId & 1023));
+    return combined;
+  }
+
+  // mirrors BaseExecutor.createCacheKey
+  private CacheKey statementKey() {
+    CacheKey key = newKey();
+    key.update(STATEMENT_ID);
+    key.updateInt(0);
+    key.updateInt(Integer.MAX_VALUE);
+    key.update(SQL);
+    for (Object parameter : parameters) {
+      key.update(parameter);
+    }
+    key.update("development");
+    return key;
+  }
+
+  // mirrors DefaultResultSetHandler.createRowKey with an id and an association id
+  private CacheKey rowKey(long id) {
+    CacheKey key = newKey();
+    key.update(RESULT_MAP_ID);
+    key.update("id");
+    key.updateLong(id);
+    key.update("author_id");
+    key.updateLong(id % 7);
+    return key;
+  }
+
+  private CacheKey newKey() {
+    return compact ? new CompactCacheKey() : new CacheKey();
+  }
+
+}
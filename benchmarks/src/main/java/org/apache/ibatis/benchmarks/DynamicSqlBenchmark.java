@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MappedStatement#getBoundSql(Object)} for a statement with {@code <where>}, {@code <if>} and a
+ * {@code <foreach>} over {@code size} ids. No SQL is executed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DynamicSqlBenchmark {
+
+  @Param({ "1", "10", "100" })
+  public int size;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private MappedStatement mappedStatement;
+  private ParamMap<Object> withSubject;
+  private ParamMap<Object> withoutSubject;
+
+  @Setup
+  public void setup() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.newSqlSessionFactory(LocalCacheScope.SESSION);
+    mappedStatement = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.benchmarks.BenchmarkMapper.selectPosts");
+    List<Integer> blogIds = new ArrayList<>();
+    for (int i = 1; i <= size; i++) {
+      blogIds.add(i);
+    }
+    withSubject = params("Post 1%", blogIds);
+    withoutSubject = params(null, blogIds);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    BenchmarkDatabase.shutdown(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public BoundSql ifAndForeach() {
+    return mappedStatement.getBoundSql(withSubject);
+  }
+
+  @Benchmark
+  public BoundSql foreachOnly() {
+    return mappedStatement.getBoundSql(withoutSubject);
+  }
+
+  private static ParamMap<Object> params(String subject, List<Integer> blogIds) {
+    // what MapperMethod passes for selectPosts(subject, blogIds)
+    ParamMap<Object> params = new ParamMap<>();
+    params.put("subject", subject);
+    params.put("blogIds", blogIds);
+    params.put("param1", subject);
+    params.put("param2", blogIds);
+    return params;
+  }
+
+}
@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.benchmarks.domain.Author;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a mapper call that is answered by the local cache: the mapper proxy, the parameter
+ * conversion, the executor and the cache key, without JDBC. {@code selectOne} is the same call without the proxy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperProxyBenchmark {
+
+  private static final String STATEMENT = "org.apache.ibatis.benchmarks.BenchmarkMapper.selectAuthor";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlSession sqlSession;
+  private BenchmarkMapper mapper;
+
+  @Setup
+  public void setup() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.newSqlSessionFactory(LocalCacheScope.SESSION);
+    sqlSession = sqlSessionFactory.openSession();
+    mapper = sqlSession.getMapper(BenchmarkMapper.class);
+    mapper.selectAuthor(1);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    sqlSession.close();
+    BenchmarkDatabase.shutdown(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public Author mapperMethod() {
+    return mapper.selectAuthor(1);
+  }
+
+  @Benchmark
+  public Author selectOne() {
+    return sqlSession.selectOne(STATEMENT, 1);
+  }
+
+  @Benchmark
+  public Author getMapperAndCall() {
+    return sqlSession.getMapper(BenchmarkMapper.class).selectAuthor(1);
+  }
+
+}
@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.benchmarks.domain.Author;
+import org.apache.ibatis.benchmarks.domain.Blog;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures result mapping. {@code simple} auto-maps {@value BenchmarkDatabase#AUTHORS} flat rows; {@code nested}
+ * maps as many blogs, each with an author and {@value BenchmarkDatabase#POSTS_PER_BLOG} posts, from one joined
+ * result set. The local cache is scoped to the statement, so every call runs the query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultMappingBenchmark {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlSession sqlSession;
+  private BenchmarkMapper mapper;
+
+  @Setup
+  public void setup() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.newSqlSessionFactory(LocalCacheScope.STATEMENT);
+    sqlSession = sqlSessionFactory.openSession();
+    mapper = sqlSession.getMapper(BenchmarkMapper.class);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    sqlSession.close();
+    BenchmarkDatabase.shutdown(sqlSessionFactory);
+  }
+
+  @Benchmark
+  public List<Author> simple() {
+    return mapper.selectAuthors();
+  }
+
+  @Benchmark
+  public List<Blog> nested() {
+    return mapper.selectBlogsWithPosts();
+  }
+
+}
@@ -24,6 +24,7 @@ import java.lang.annotation.Target;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.serializer.Serializer;
 
 /**
  * The annotation that specify to use cache on namespace(e.g. mapper interface).
@@ -97,6 +98,15 @@ public @interface CacheNamespace {
    */
   boolean blocking() default false;
 
+  /**
+   * Returns the serializer type that copies the results of a read/write cache.
+   *
+   * @return the serializer type, {@link Serializer} itself means the default serializer of the configuration
+   * @since 3.5.4
+   * 序列化器
+   */
+  Class<? extends Serializer> serializer() default Serializer.class;
+
   /**
    * Returns property values for a implementation object.
    *
@@ -0,0 +1,278 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+
+/**
+ * The {@link ParamMap} a mapper method passes for several parameters. It reads the named and generic parameters from
+ * the argument array through a {@link Layout} resolved with the method, so a call allocates no map entries.
+ * <p>
+ * Looking a parameter up does not copy the arguments. Any other use of the map (iterating, writing, comparing...)
+ * copies them into the underlying {@link HashMap} first, which keeps the behaviour of a {@link ParamMap}.
+ *
+ * @since 3.5.4
+ */
+// 按下标读取方法参数的 ParamMap，只有读取以外的操作才会把参数复制到 HashMap 中
+public class IndexedParamMap extends ParamMap<Object> {
+
+  private static final long serialVersionUID = 4125349722839218351L;
+
+  private final transient Layout layout;
+  private final transient Object[] args;
+  // 参数是否已复制到 HashMap 中
+  private boolean copied;
+
+  public IndexedParamMap(Layout layout, Object[] args) {
+    this.layout = layout;
+    this.args = args;
+  }
+
+  public Layout getLayout() {
+    return layout;
+  }
+
+  /**
+   * @return the value of the parameter at the index of {@link Layout#indexOf(String)}
+   */
+  public Object getArgument(int index) {
+    return copied ? super.get(layout.keys[index]) : args[layout.argIndexes[index]];
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (!copied) {
+      Integer index = layout.indexes.get(key);
+      if (index != null) {
+        return args[layout.argIndexes[index]];
+      }
+    }
+    // 不存在的参数由 ParamMap 抛出异常
+    copy();
+    return super.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (!copied) {
+      return layout.indexes.containsKey(key);
+    }
+    return super.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return copied ? super.size() : layout.keys.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    copy();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public Object getOrDefault(Object key, Object defaultValue) {
+    copy();
+    return super.getOrDefault(key, defaultValue);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    copy();
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ?> m) {
+    copy();
+    super.putAll(m);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    copy();
+    return super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    copy();
+    super.clear();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    copy();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    copy();
+    return super.values();
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    copy();
+    return super.entrySet();
+  }
+
+  @Override
+  public Object putIfAbsent(String key, Object value) {
+    copy();
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    copy();
+    return super.remove(key, value);
+  }
+
+  @Override
+  public boolean replace(String key, Object oldValue, Object newValue) {
+    copy();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public Object replace(String key, Object value) {
+    copy();
+    return super.replace(key, value);
+  }
+
+  @Override
+  public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+    copy();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Override
+  public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    copy();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @Override
+  public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+    copy();
+    return super.compute(key, remappingFunction);
+  }
+
+  @Override
+  public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+    copy();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Object> action) {
+    copy();
+    super.forEach(action);
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+    copy();
+    super.replaceAll(function);
+  }
+
+  @Override
+  public Object clone() {
+    copy();
+    return super.clone();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    copy();
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    copy();
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    copy();
+    return super.toString();
+  }
+
+  // 序列化为普通的 ParamMap
+  protected Object writeReplace() {
+    ParamMap<Object> paramMap = new ParamMap<>();
+    paramMap.putAll(this);
+    return paramMap;
+  }
+
+  private void copy() {
+    if (!copied) {
+      copied = true;
+      for (int i = 0; i < layout.keys.length; i++) {
+        super.put(layout.keys[i], args[layout.argIndexes[i]]);
+      }
+    }
+  }
+
+  /**
+   * The parameter names of a mapper method and the indexes of their arguments.
+   */
+  public static final class Layout {
+
+    // 参数名，包括 param1、param2 ... 这样的通用名
+    private final String[] keys;
+    // 每个参数名对应的方法参数下标
+    private final int[] argIndexes;
+    // 参数名与 keys 下标的映射
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    public Layout(String[] keys, int[] argIndexes) {
+      this.keys = keys;
+      this.argIndexes = argIndexes;
+      for (int i = 0; i < keys.length; i++) {
+        indexes.put(keys[i], i);
+      }
+    }
+
+    /**
+     * @return the index of the parameter for {@link IndexedParamMap#getArgument(int)}, or -1 if there is none
+     */
+    public int indexOf(String key) {
+      Integer index = indexes.get(key);
+      return index == null ? -1 : index;
+    }
+
+  }
+
+}
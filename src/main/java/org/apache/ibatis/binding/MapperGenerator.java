@@ -0,0 +1,253 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.TypeParameterResolver;
+
+/**
+ * Generates the Java source of mapper implementations, to be compiled with the application at build time.
+ * <p>
+ * A generated class implements each abstract method of the mapper interface by calling its {@link MapperMethod}
+ * directly. {@link MapperProxyFactory} creates mappers from the generated class instead of a JDK dynamic proxy when it
+ * finds one for the interface, named by {@link #getImplementationName(Class)}, that implements all its methods.
+ * <p>
+ * Run it after compiling the mapper interfaces, with the output directory followed by the interface names:
+ *
+ * <pre>
+ * java -cp ... org.apache.ibatis.binding.MapperGenerator target/generated-sources/mybatis com.example.BlogMapper
+ * </pre>
+ *
+ * @since 3.5.4
+ */
+// 生成 mapper 接口实现类的源码，替代 JDK 动态代理
+public final class MapperGenerator {
+
+  private static final String SUFFIX = "_MapperImpl";
+
+  private MapperGenerator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static void main(String... args) throws IOException, ClassNotFoundException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: MapperGenerator <output directory> <mapper interface>...");
+    }
+    Path outputDirectory = Paths.get(args[0]);
+    for (int i = 1; i < args.length; i++) {
+      Class<?> mapperInterface = Class.forName(args[i]);
+      Path file = outputDirectory.resolve(getImplementationName(mapperInterface).replace('.', '/') + ".java");
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        writer.write(generate(mapperInterface));
+      }
+    }
+  }
+
+  /**
+   * @return the name of the class generated for the mapper interface, in the package of the interface
+   */
+  public static String getImplementationName(Class<?> mapperInterface) {
+    String packageName = getPackageName(mapperInterface);
+    String simpleName = mapperInterface.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+    return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + SUFFIX;
+  }
+
+  /**
+   * @return the methods a generated class implements, in the order of their indexes
+   */
+  public static List<Method> getMethods(Class<?> mapperInterface) {
+    Map<String, Method> methods = new LinkedHashMap<>();
+    Method[] candidates = mapperInterface.getMethods();
+    Arrays.sort(candidates, Comparator.comparing(Method::getName).thenComparing(Method::toGenericString));
+    for (Method method : candidates) {
+      if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+        continue;
+      }
+      // 父接口中被覆盖的方法（参数相同）只实现一次，使用返回类型最具体的那个
+      String key = method.getName() + Arrays.toString(getParameterTypes(mapperInterface, method));
+      Method existing = methods.get(key);
+      if (existing == null || isMoreSpecific(mapperInterface, method, existing)) {
+        methods.put(key, method);
+      }
+    }
+    return new ArrayList<>(methods.values());
+  }
+
+  /**
+   * @return the source of the implementation of the mapper interface
+   */
+  public static String generate(Class<?> mapperInterface) {
+    if (!mapperInterface.isInterface() || Modifier.isPrivate(mapperInterface.getModifiers())
+        || mapperInterface.getCanonicalName() == null) {
+      throw new BindingException("Cannot generate an implementation of " + mapperInterface
+          + ", it must be a non-private interface with a canonical name.");
+    }
+    String packageName = getPackageName(mapperInterface);
+    String className = getImplementationName(mapperInterface).substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+    String interfaceName = mapperInterface.getCanonicalName();
+    List<Method> methods = getMethods(mapperInterface);
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("/**\n");
+    source.append(" * Generated by {@link org.apache.ibatis.binding.MapperGenerator} from {@link ").append(interfaceName).append("}. Do not edit.\n");
+    source.append(" */\n");
+    source.append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n");
+    source.append("public final class ").append(className).append(" implements ").append(interfaceName).append(" {\n\n");
+
+    source.append("  public static final java.util.List<java.lang.reflect.Method> METHODS;\n\n");
+    source.append("  static {\n");
+    if (methods.isEmpty()) {
+      source.append("    METHODS = java.util.Collections.emptyList();\n");
+    } else {
+      source.append("    try {\n");
+      source.append("      METHODS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(\n");
+      for (int i = 0; i < methods.size(); i++) {
+        Method method = methods.get(i);
+        source.append("          ").append(interfaceName).append(".class.getMethod(\"").append(method.getName()).append('"');
+        for (Class<?> parameterType : method.getParameterTypes()) {
+          source.append(", ").append(getTypeName(parameterType)).append(".class");
+        }
+        source.append(i + 1 < methods.size() ? "),\n" : ")));\n");
+      }
+      source.append("    } catch (NoSuchMethodException e) {\n");
+      source.append("      throw new ExceptionInInitializerError(e);\n");
+      source.append("    }\n");
+    }
+    source.append("  }\n\n");
+
+    source.append("  private final org.apache.ibatis.session.SqlSession sqlSession;\n");
+    source.append("  private final org.apache.ibatis.binding.MapperMethodTable methods;\n\n");
+    source.append("  public ").append(className)
+        .append("(org.apache.ibatis.session.SqlSession sqlSession, org.apache.ibatis.binding.MapperMethodTable methods) {\n");
+    source.append("    this.sqlSession = sqlSession;\n");
+    source.append("    this.methods = methods;\n");
+    source.append("  }\n");
+
+    for (int i = 0; i < methods.size(); i++) {
+      appendMethod(source, mapperInterface, methods.get(i), i);
+    }
+    source.append("\n}\n");
+    return source.toString();
+  }
+
+  private static void appendMethod(StringBuilder source, Class<?> mapperInterface, Method method, int index) {
+    // 覆盖方法使用解析了接口泛型后的类型的擦除
+    String returnType = getTypeName(erase(TypeParameterResolver.resolveReturnType(method, mapperInterface)));
+    Class<?>[] parameterTypes = getParameterTypes(mapperInterface, method);
+    source.append("\n  @Override\n");
+    source.append("  public ").append(returnType).append(' ').append(method.getName()).append('(');
+    for (int i = 0; i < parameterTypes.length; i++) {
+      source.append(i == 0 ? "" : ", ").append(getTypeName(parameterTypes[i])).append(" arg").append(i);
+    }
+    source.append(") {\n    ");
+    if (method.getReturnType() != void.class) {
+      source.append("return (").append(returnType).append(") ");
+    }
+    source.append("methods.get(").append(index).append(", sqlSession).execute(sqlSession, ");
+    if (parameterTypes.length == 0) {
+      // 和 JDK 动态代理一样，没有参数时传入 null
+      source.append("null");
+    } else {
+      source.append("new Object[] { ");
+      for (int i = 0; i < parameterTypes.length; i++) {
+        source.append(i == 0 ? "" : ", ").append("arg").append(i);
+      }
+      source.append(" }");
+    }
+    source.append(");\n  }\n");
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isMoreSpecific(Class<?> mapperInterface, Method method, Method existing) {
+    Class<?> returnType = erase(TypeParameterResolver.resolveReturnType(method, mapperInterface));
+    Class<?> existingReturnType = erase(TypeParameterResolver.resolveReturnType(existing, mapperInterface));
+    if (returnType != existingReturnType) {
+      return existingReturnType.isAssignableFrom(returnType);
+    }
+    return existing.getDeclaringClass().isAssignableFrom(method.getDeclaringClass());
+  }
+
+  private static Class<?>[] getParameterTypes(Class<?> mapperInterface, Method method) {
+    Type[] types = TypeParameterResolver.resolveParamTypes(method, mapperInterface);
+    Class<?>[] parameterTypes = new Class<?>[types.length];
+    for (int i = 0; i < types.length; i++) {
+      parameterTypes[i] = erase(types[i]);
+    }
+    return parameterTypes;
+  }
+
+  private static Class<?> erase(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    } else if (type instanceof GenericArrayType) {
+      return Array.newInstance(erase(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+    } else if (type instanceof TypeVariable) {
+      return erase(((TypeVariable<?>) type).getBounds()[0]);
+    } else if (type instanceof WildcardType) {
+      return erase(((WildcardType) type).getUpperBounds()[0]);
+    }
+    return Object.class;
+  }
+
+  private static String getTypeName(Class<?> type) {
+    String name = type.getCanonicalName();
+    if (name == null) {
+      throw new BindingException("Cannot generate a mapper implementation using " + type + ", it has no canonical name.");
+    }
+    return name;
+  }
+
+  private static String getPackageName(Class<?> type) {
+    String name = type.getName();
+    int dot = name.lastIndexOf('.');
+    return dot < 0 ? "" : name.substring(0, dot);
+  }
+
+}
@@ -37,6 +37,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
 import org.omg.CORBA.UNKNOWN;
 
 /**
@@ -65,19 +66,22 @@ public class MapperMethod {
       // 新增
       case INSERT: {
         Object param = method.convertArgsToSqlCommandParam(args);
-        result = rowCountResult(sqlSession.insert(command.getName(), param));
+        result = rowCountResult(isDirect(sqlSession) ? ((DefaultSqlSession) sqlSession).update(command.getMappedStatement(), param)
+            : sqlSession.insert(command.getName(), param));
         break;
       }
       //  更新
       case UPDATE: {
         Object param = method.convertArgsToSqlCommandParam(args);
-        result = rowCountResult(sqlSession.update(command.getName(), param));
+        result = rowCountResult(isDirect(sqlSession) ? ((DefaultSqlSession) sqlSession).update(command.getMappedStatement(), param)
+            : sqlSession.update(command.getName(), param));
         break;
       }
       //  删除
       case DELETE: {
         Object param = method.convertArgsToSqlCommandParam(args);
-        result = rowCountResult(sqlSession.delete(command.getName(), param));
+        result = rowCountResult(isDirect(sqlSession) ? ((DefaultSqlSession) sqlSession).update(command.getMappedStatement(), param)
+            : sqlSession.delete(command.getName(), param));
         break;
       }
       //  查询
@@ -93,7 +97,8 @@ public class MapperMethod {
           result = executeForCursor(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
-          result = sqlSession.selectOne(command.getName(), param);
+          result = isDirect(sqlSession) ? ((DefaultSqlSession) sqlSession).selectOne(command.getMappedStatement(), param)
+              : sqlSession.selectOne(command.getName(), param);
           if (method.returnsOptional()
               && (result == null || !method.getReturnType().equals(result.getClass()))) {
             result = Optional.ofNullable(result);
@@ -113,6 +118,11 @@ public class MapperMethod {
     return result;
   }
 
+  // DefaultSqlSession 直接使用解析好的 MappedStatement，不再按 id 查找。子类可能重写了按 id 执行的方法
+  private boolean isDirect(SqlSession sqlSession) {
+    return sqlSession.getClass() == DefaultSqlSession.class && command.getMappedStatement() != null;
+  }
+
   // 转换 row 操作
   private Object rowCountResult(int rowCount) {
     final Object result;
@@ -132,7 +142,8 @@ public class MapperMethod {
 
   // sqlSession.select 的封装
   private void executeWithResultHandler(SqlSession sqlSession, Object[] args) {
-    MappedStatement ms = sqlSession.getConfiguration().getMappedStatement(command.getName());
+    MappedStatement ms = isDirect(sqlSession) ? command.getMappedStatement()
+        : sqlSession.getConfiguration().getMappedStatement(command.getName());
     if (!StatementType.CALLABLE.equals(ms.getStatementType())
         && void.class.equals(ms.getResultMaps().get(0).getType())) {
       throw new BindingException("method " + command.getName()
@@ -140,7 +151,10 @@ public class MapperMethod {
           + " or a resultType attribute in XML so a ResultHandler can be used as a parameter.");
     }
     Object param = method.convertArgsToSqlCommandParam(args);
-    if (method.hasRowBounds()) {
+    if (isDirect(sqlSession)) {
+      RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+      ((DefaultSqlSession) sqlSession).select(ms, param, rowBounds, method.extractResultHandler(args));
+    } else if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
       sqlSession.select(command.getName(), param, rowBounds, method.extractResultHandler(args));
     } else {
@@ -152,7 +166,10 @@ public class MapperMethod {
   private <E> Object executeForMany(SqlSession sqlSession, Object[] args) {
     List<E> result;
     Object param = method.convertArgsToSqlCommandParam(args);
-    if (method.hasRowBounds()) {
+    if (isDirect(sqlSession)) {
+      RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+      result = ((DefaultSqlSession) sqlSession).selectList(command.getMappedStatement(), param, rowBounds);
+    } else if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
       result = sqlSession.selectList(command.getName(), param, rowBounds);
     } else {
@@ -173,7 +190,10 @@ public class MapperMethod {
   private <T> Cursor<T> executeForCursor(SqlSession sqlSession, Object[] args) {
     Cursor<T> result;
     Object param = method.convertArgsToSqlCommandParam(args);
-    if (method.hasRowBounds()) {
+    if (isDirect(sqlSession)) {
+      RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+      result = ((DefaultSqlSession) sqlSession).selectCursor(command.getMappedStatement(), param, rowBounds);
+    } else if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
       result = sqlSession.selectCursor(command.getName(), param, rowBounds);
     } else {
@@ -207,7 +227,10 @@ public class MapperMethod {
   private <K, V> Map<K, V> executeForMap(SqlSession sqlSession, Object[] args) {
     Map<K, V> result;
     Object param = method.convertArgsToSqlCommandParam(args);
-    if (method.hasRowBounds()) {
+    if (isDirect(sqlSession)) {
+      RowBounds rowBounds = method.hasRowBounds() ? method.extractRowBounds(args) : RowBounds.DEFAULT;
+      result = ((DefaultSqlSession) sqlSession).selectMap(command.getMappedStatement(), param, method.getMapKey(), rowBounds);
+    } else if (method.hasRowBounds()) {
       RowBounds rowBounds = method.extractRowBounds(args);
       result = sqlSession.selectMap(command.getName(), param, method.getMapKey(), rowBounds);
     } else {
@@ -236,6 +259,8 @@ public class MapperMethod {
     private final String name;
     // 类型有 UNKNOWN, INSERT, UPDATE, DELETE, SELECT, FLUSH
     private final SqlCommandType type;
+    // 解析好的 MappedStatement，FLUSH 时为 null
+    private final MappedStatement mappedStatement;
 
     public SqlCommand(Configuration configuration, Class<?> mapperInterface, Method method) {
       final String methodName = method.getName();
@@ -249,6 +274,7 @@ public class MapperMethod {
         if (method.getAnnotation(Flush.class) != null) {
           name = null;
           type = SqlCommandType.FLUSH;
+          mappedStatement = null;
         } else {
           // 没有Fluash注解，抛出binding异常
           throw new BindingException("Invalid bound statement (not found): "
@@ -259,6 +285,7 @@ public class MapperMethod {
         // 设置name 和 type , name 就是 MappedStatement 的ID type就是SqlCommandType
         name = ms.getId();
         type = ms.getSqlCommandType();
+        mappedStatement = ms;
         if (type == SqlCommandType.UNKNOWN) {
           throw new BindingException("Unknown execution method for: " + name);
         }
@@ -273,6 +300,13 @@ public class MapperMethod {
       return type;
     }
 
+    /**
+     * @since 3.5.4
+     */
+    public MappedStatement getMappedStatement() {
+      return mappedStatement;
+    }
+
     // 获得 MappedStatement 对象
     private MappedStatement resolveMappedStatement(Class<?> mapperInterface, String methodName,
         Class<?> declaringClass, Configuration configuration) {
@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * The {@link MapperMethod}s of a mapper implementation generated by {@link MapperGenerator}, looked up by the index
+ * the generator gave each method.
+ *
+ * @since 3.5.4
+ */
+// 生成的 mapper 实现类使用的 MapperMethod 表，按下标懒加载
+public final class MapperMethodTable {
+
+  private final Class<?> mapperInterface;
+  // 与 MapperProxy 共享的方法与 MapperMethod 的映射
+  private final Map<Method, MapperMethod> methodCache;
+  private final List<Method> methods;
+  private final MapperMethod[] mapperMethods;
+
+  MapperMethodTable(Class<?> mapperInterface, Map<Method, MapperMethod> methodCache, List<Method> methods) {
+    this.mapperInterface = mapperInterface;
+    this.methodCache = methodCache;
+    this.methods = methods;
+    this.mapperMethods = new MapperMethod[methods.size()];
+  }
+
+  public MapperMethod get(int index, SqlSession sqlSession) {
+    MapperMethod mapperMethod = mapperMethods[index];
+    if (mapperMethod == null) {
+      // 和 MapperProxy 一样在第一次调用时创建，MapperMethod 不可变，并发时重复赋值也没有问题
+      mapperMethod = methodCache.computeIfAbsent(methods.get(index),
+          k -> new MapperMethod(mapperInterface, k, sqlSession.getConfiguration()));
+      mapperMethods[index] = mapperMethod;
+    }
+    return mapperMethod;
+  }
+
+}
@@ -15,11 +15,16 @@
  */
 package org.apache.ibatis.binding;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -28,13 +33,33 @@ import org.apache.ibatis.session.SqlSession;
 // MapperProxyFactory Mapper Proxy 的工厂类
 public class MapperProxyFactory<T> {
 
+  private static final Log log = LogFactory.getLog(MapperProxyFactory.class);
+
   // Mapper 接口
   private final Class<T> mapperInterface;
   // 方法与 MapperMethod 的映射
   private final Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<>();
+  // MapperGenerator 生成的实现类的构造方法，没有时使用 JDK 动态代理
+  private final Constructor<? extends T> generatedConstructor;
+  // 生成的实现类使用的 MapperMethod 表
+  private final MapperMethodTable methodTable;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
+    Class<? extends T> generatedType = findGeneratedType(mapperInterface);
+    if (generatedType == null) {
+      this.generatedConstructor = null;
+      this.methodTable = null;
+    } else {
+      try {
+        this.generatedConstructor = generatedType.getConstructor(SqlSession.class, MapperMethodTable.class);
+        @SuppressWarnings("unchecked")
+        List<Method> methods = (List<Method>) generatedType.getField("METHODS").get(null);
+        this.methodTable = new MapperMethodTable(mapperInterface, methodCache, methods);
+      } catch (ReflectiveOperationException e) {
+        throw new BindingException("Invalid generated mapper implementation " + generatedType.getName() + ". Cause: " + e, e);
+      }
+    }
   }
 
   public Class<T> getMapperInterface() {
@@ -52,8 +77,52 @@ public class MapperProxyFactory<T> {
   }
 
   public T newInstance(SqlSession sqlSession) {
+    if (generatedConstructor != null) {
+      // 有生成的实现类时，直接创建它
+      try {
+        return generatedConstructor.newInstance(sqlSession, methodTable);
+      } catch (ReflectiveOperationException e) {
+        throw new BindingException("Error creating generated mapper implementation " + generatedConstructor.getName() + ". Cause: " + e, e);
+      }
+    }
     final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
   }
 
+  /**
+   * @return the class {@link MapperGenerator} generated for the interface, or {@code null} when there is none or it
+   *         does not implement all methods of the interface (it was generated from an older version)
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Class<? extends T> findGeneratedType(Class<T> mapperInterface) {
+    String name = MapperGenerator.getImplementationName(mapperInterface);
+    Class<?> type;
+    try {
+      type = Class.forName(name, true, mapperInterface.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (LinkageError e) {
+      log.warn("Could not load generated mapper implementation " + name + ", using a proxy. Cause: " + e);
+      return null;
+    }
+    if (!mapperInterface.isAssignableFrom(type)) {
+      return null;
+    }
+    for (Method method : mapperInterface.getMethods()) {
+      if (Modifier.isAbstract(method.getModifiers()) && !isImplemented(type, method)) {
+        log.warn("Generated mapper implementation " + name + " does not implement " + method + ", using a proxy.");
+        return null;
+      }
+    }
+    return (Class<? extends T>) type;
+  }
+
+  private static boolean isImplemented(Class<?> type, Method method) {
+    try {
+      return !Modifier.isAbstract(type.getMethod(method.getName(), method.getParameterTypes()).getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
 }
@@ -15,14 +15,19 @@
  */
 package org.apache.ibatis.binding;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperDocuments;
 import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
@@ -37,7 +42,7 @@ public class MapperRegistry {
   //Configuration 配置对象
   private final Configuration config;
   // Mapper接口  和 MapperProxyFactory 的映射表   Class<T> -->  MapperProxyFactory<?>
-  private final Map<Class<?>, MapperProxyFactory<?>> knownMappers = new HashMap<>();
+  private final Map<Class<?>, MapperProxyFactory<?>> knownMappers = new ConcurrentHashMap<>();
 
   public MapperRegistry(Configuration config) {
     this.config = config;
@@ -46,6 +51,8 @@ public class MapperRegistry {
   // 获取Mapper Proxy 对象
   @SuppressWarnings("unchecked")
   public <T> T getMapper(Class<T> type, SqlSession sqlSession) {
+    // 命名空间为该接口的 mapper XML 可能还没有构建
+    config.buildLazyMapper(type.getName());
     // 从 knownMappers 中 获取 MapperProxyFactory 对象
     final MapperProxyFactory<T> mapperProxyFactory = (MapperProxyFactory<T>) knownMappers.get(type);
     // 找不到，抛异常
@@ -63,11 +70,16 @@ public class MapperRegistry {
 
   // 看看这个映射表是不是存在这个类型
   public <T> boolean hasMapper(Class<T> type) {
+    config.buildLazyMapper(type.getName());
     return knownMappers.containsKey(type);
   }
 
   // 添加多个类到映射表的逻辑
   public <T> void addMapper(Class<T> type) {
+    addMapper(type, null);
+  }
+
+  private <T> void addMapper(Class<T> type, XPathParser xmlDocument) {
     // 添加的类的类型只能是接口
     if (type.isInterface()) {
       // 首先先去映射表中找这个Class<T> type 是不是存在
@@ -84,7 +96,7 @@ public class MapperRegistry {
         // otherwise the binding may automatically be attempted by the
         // mapper parser. If the type is already known, it won't try.
         // 解析Mapper
-        MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type);
+        MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type, xmlDocument);
         parser.parse();
         loadCompleted = true;
       } finally {
@@ -113,9 +125,23 @@ public class MapperRegistry {
     resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
     // 去重，然后将所有找到的类，添加到注册表中
     Set<Class<? extends Class<?>>> mapperSet = resolverUtil.getClasses();
+    // 开启 parallelMapperParsing 时，先并行解析接口对应的 XML
+    Map<Class<?>, XPathParser> documents = config.isParallelMapperParsing()
+        ? parseXmlResources(mapperSet) : Collections.emptyMap();
     for (Class<?> mapperClass : mapperSet) {
-      addMapper(mapperClass);
+      addMapper(mapperClass, documents.get(mapperClass));
+    }
+  }
+
+  private Map<Class<?>, XPathParser> parseXmlResources(Set<Class<? extends Class<?>>> mapperSet) {
+    Map<Class<?>, Callable<InputStream>> sources = new LinkedHashMap<>();
+    for (Class<?> mapperClass : mapperSet) {
+      if (mapperClass.isInterface() && !hasMapper(mapperClass)
+          && !config.isResourceLoaded("namespace:" + mapperClass.getName())) {
+        sources.put(mapperClass, () -> MapperAnnotationBuilder.openXmlResource(mapperClass));
+      }
     }
+    return XMLMapperDocuments.parse(config, sources);
   }
 
   /**
@@ -52,7 +52,7 @@ public class SqlSourceBuilder extends BaseBuilder {
    */
   public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters) {
     // ParameterMappingTokenHandler 创建
-    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
+    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(parameterType, additionalParameters);
     // 创建 GenericTokenParser
     GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
     // 解析原始Sql
@@ -61,8 +61,93 @@ public class SqlSourceBuilder extends BaseBuilder {
     return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
   }
 
+  /**
+   * Builds the {@link ParameterMapping} of a {@code #{}} placeholder whose content has already been parsed by
+   * {@link #parseParameterMapping(String)}.
+   *
+   * @param content the content of the placeholder, used in error messages
+   * @param property the property to bind, which may differ from the parsed one (e.g. an itemized foreach item)
+   * @param propertiesMap the parsed content
+   * @param parameterType the type of the parameter object
+   * @param metaParameters the additional parameters
+   * @since 3.5.4
+   */
+  public ParameterMapping buildParameterMapping(String content, String property, Map<String, String> propertiesMap,
+      Class<?> parameterType, MetaObject metaParameters) {
+    // 类型
+    Class<?> propertyType;
+    if (metaParameters.hasGetter(property)) { // issue #448 get type from additional params
+      propertyType = metaParameters.getGetterType(property);
+    } else if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
+      propertyType = parameterType;
+    } else if (JdbcType.CURSOR.name().equals(propertiesMap.get("jdbcType"))) {
+      propertyType = java.sql.ResultSet.class;
+    } else if (property == null || Map.class.isAssignableFrom(parameterType)) {
+      propertyType = Object.class;
+    } else {
+      MetaClass metaClass = MetaClass.forClass(parameterType, configuration.getReflectorFactory());
+      if (metaClass.hasGetter(property)) {
+        propertyType = metaClass.getGetterType(property);
+      } else {
+        propertyType = Object.class;
+      }
+    }
+    // 创建 ParameterMapping.Builder 对象
+    ParameterMapping.Builder builder = new ParameterMapping.Builder(configuration, property, propertyType);
+    // 初始化 ParameterMapping.Builder 对象的属性
+    Class<?> javaType = propertyType;
+    String typeHandlerAlias = null;
+    for (Map.Entry<String, String> entry : propertiesMap.entrySet()) {
+      String name = entry.getKey();
+      String value = entry.getValue();
+      if ("javaType".equals(name)) {
+        javaType = resolveClass(value);
+        builder.javaType(javaType);
+      } else if ("jdbcType".equals(name)) {
+        builder.jdbcType(resolveJdbcType(value));
+      } else if ("mode".equals(name)) {
+        builder.mode(resolveParameterMode(value));
+      } else if ("numericScale".equals(name)) {
+        builder.numericScale(Integer.valueOf(value));
+      } else if ("resultMap".equals(name)) {
+        builder.resultMapId(value);
+      } else if ("typeHandler".equals(name)) {
+        typeHandlerAlias = value;
+      } else if ("jdbcTypeName".equals(name)) {
+        builder.jdbcTypeName(value);
+      } else if ("property".equals(name)) {
+        // Do Nothing
+      } else if ("expression".equals(name)) {
+        throw new BuilderException("Expression based parameters are not supported yet");
+      } else {
+        throw new BuilderException("An invalid property '" + name + "' was found in mapping #{" + content + "}.  Valid properties are " + PARAMETER_PROPERTIES);
+      }
+    }
+    if (typeHandlerAlias != null) {
+      // 如果 typeHandlerAlias 非空，则获得对应的 TypeHandler 对象，并设置到 ParameterMapping.Builder 对象中
+      builder.typeHandler(resolveTypeHandler(javaType, typeHandlerAlias));
+    }
+    // 创建 ParameterMapping 对象
+    return builder.build();
+  }
+
+  /**
+   * Parses the content of a {@code #{}} placeholder.
+   *
+   * @since 3.5.4
+   */
+  public Map<String, String> parseParameterMapping(String content) {
+    try {
+      return new ParameterExpression(content);
+    } catch (BuilderException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new BuilderException("Parsing error was found in mapping #{" + content + "}.  Check syntax #{property|(expression), var1=value1, var2=value2, ...} ", ex);
+    }
+  }
+
   // 负责将匹配到的 #{ 和 } 对，替换成相应的 ? 占位符，并获取该 ? 占位符对应的 org.apache.ibatis.mapping.ParameterMapping 对象
-  private static class ParameterMappingTokenHandler extends BaseBuilder implements TokenHandler {
+  private class ParameterMappingTokenHandler implements TokenHandler {
 
     // ParameterMapping 数组
     private List<ParameterMapping> parameterMappings = new ArrayList<>();
@@ -71,8 +156,7 @@ public class SqlSourceBuilder extends BaseBuilder {
     // additionalParameters 参数的对应的 MetaObject 对象
     private MetaObject metaParameters;
 
-    public ParameterMappingTokenHandler(Configuration configuration, Class<?> parameterType, Map<String, Object> additionalParameters) {
-      super(configuration);
+    public ParameterMappingTokenHandler(Class<?> parameterType, Map<String, Object> additionalParameters) {
       this.parameterType = parameterType;
       this.metaParameters = configuration.newMetaObject(additionalParameters);
     }
@@ -83,83 +167,13 @@ public class SqlSourceBuilder extends BaseBuilder {
 
     @Override
     public String handleToken(String content) {
+      // 解析成 Map 集合
+      Map<String, String> propertiesMap = parseParameterMapping(content);
       // 构建 parameterMapping 对象，并添加到 parameterMappings
-      parameterMappings.add(buildParameterMapping(content));
+      parameterMappings.add(buildParameterMapping(content, propertiesMap.get("property"), propertiesMap, parameterType, metaParameters));
       // 返回 ？ 占位符
       return "?";
     }
-
-    private ParameterMapping buildParameterMapping(String content) {
-      // 解析成 Map 集合
-      Map<String, String> propertiesMap = parseParameterMapping(content);
-      // 获得属性的名字和类型
-      String property = propertiesMap.get("property");
-      // 类型
-      Class<?> propertyType;
-      if (metaParameters.hasGetter(property)) { // issue #448 get type from additional params
-        propertyType = metaParameters.getGetterType(property);
-      } else if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
-        propertyType = parameterType;
-      } else if (JdbcType.CURSOR.name().equals(propertiesMap.get("jdbcType"))) {
-        propertyType = java.sql.ResultSet.class;
-      } else if (property == null || Map.class.isAssignableFrom(parameterType)) {
-        propertyType = Object.class;
-      } else {
-        MetaClass metaClass = MetaClass.forClass(parameterType, configuration.getReflectorFactory());
-        if (metaClass.hasGetter(property)) {
-          propertyType = metaClass.getGetterType(property);
-        } else {
-          propertyType = Object.class;
-        }
-      }
-      // 创建 ParameterMapping.Builder 对象
-      ParameterMapping.Builder builder = new ParameterMapping.Builder(configuration, property, propertyType);
-      // 初始化 ParameterMapping.Builder 对象的属性
-      Class<?> javaType = propertyType;
-      String typeHandlerAlias = null;
-      for (Map.Entry<String, String> entry : propertiesMap.entrySet()) {
-        String name = entry.getKey();
-        String value = entry.getValue();
-        if ("javaType".equals(name)) {
-          javaType = resolveClass(value);
-          builder.javaType(javaType);
-        } else if ("jdbcType".equals(name)) {
-          builder.jdbcType(resolveJdbcType(value));
-        } else if ("mode".equals(name)) {
-          builder.mode(resolveParameterMode(value));
-        } else if ("numericScale".equals(name)) {
-          builder.numericScale(Integer.valueOf(value));
-        } else if ("resultMap".equals(name)) {
-          builder.resultMapId(value);
-        } else if ("typeHandler".equals(name)) {
-          typeHandlerAlias = value;
-        } else if ("jdbcTypeName".equals(name)) {
-          builder.jdbcTypeName(value);
-        } else if ("property".equals(name)) {
-          // Do Nothing
-        } else if ("expression".equals(name)) {
-          throw new BuilderException("Expression based parameters are not supported yet");
-        } else {
-          throw new BuilderException("An invalid property '" + name + "' was found in mapping #{" + content + "}.  Valid properties are " + PARAMETER_PROPERTIES);
-        }
-      }
-      if (typeHandlerAlias != null) {
-        // 如果 typeHandlerAlias 非空，则获得对应的 TypeHandler 对象，并设置到 ParameterMapping.Builder 对象中
-        builder.typeHandler(resolveTypeHandler(javaType, typeHandlerAlias));
-      }
-      // 创建 ParameterMapping 对象
-      return builder.build();
-    }
-
-    private Map<String, String> parseParameterMapping(String content) {
-      try {
-        return new ParameterExpression(content);
-      } catch (BuilderException ex) {
-        throw ex;
-      } catch (Exception ex) {
-        throw new BuilderException("Parsing error was found in mapping #{" + content + "}.  Check syntax #{property|(expression), var1=value1, var2=value2, ...} ", ex);
-      }
-    }
   }
 
 }
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.builder;
 
+import java.io.Serializable;
 import java.util.List;
 
 import org.apache.ibatis.mapping.BoundSql;
@@ -26,7 +27,9 @@ import org.apache.ibatis.session.Configuration;
  * @author Clinton Begin
  */
 // 静态的 SqlSource 实现类
-public class StaticSqlSource implements SqlSource {
+public class StaticSqlSource implements SqlSource, Serializable {
+
+  private static final long serialVersionUID = 6615613064477945592L;
 
   // 静态的 SQL
   private final String sql;
@@ -65,6 +65,7 @@ import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -81,6 +82,7 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.PropertyParser;
+import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.reflection.TypeParameterResolver;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
@@ -102,6 +104,8 @@ public class MapperAnnotationBuilder {
   private final Configuration configuration;
   private final MapperBuilderAssistant assistant;
   private final Class<?> type;
+  // 预先解析好的 mapper XML，没有时为 null
+  private final XPathParser xmlDocument;
 
   static {
     SQL_ANNOTATION_TYPES.add(Select.class);
@@ -116,10 +120,20 @@ public class MapperAnnotationBuilder {
   }
 
   public MapperAnnotationBuilder(Configuration configuration, Class<?> type) {
+    this(configuration, type, null);
+  }
+
+  /**
+   * @param xmlDocument the already parsed XML mapper of the type (see {@link #openXmlResource(Class)}), or
+   *          {@code null} to look it up while parsing
+   * @since 3.5.4
+   */
+  public MapperAnnotationBuilder(Configuration configuration, Class<?> type, XPathParser xmlDocument) {
     String resource = type.getName().replace('.', '/') + ".java (best guess)";
     this.assistant = new MapperBuilderAssistant(configuration, resource);
     this.configuration = configuration;
     this.type = type;
+    this.xmlDocument = xmlDocument;
   }
 
   public void parse() {
@@ -166,16 +180,13 @@ public class MapperAnnotationBuilder {
     // this flag is set at XMLMapperBuilder#bindMapperForNamespace
     if (!configuration.isResourceLoaded("namespace:" + type.getName())) {
       String xmlResource = type.getName().replace('.', '/') + ".xml";
-      // #1347
-      InputStream inputStream = type.getResourceAsStream("/" + xmlResource);
-      if (inputStream == null) {
-        // Search XML mapper that is not in the module but in the classpath.
-        try {
-          inputStream = Resources.getResourceAsStream(type.getClassLoader(), xmlResource);
-        } catch (IOException e2) {
-          // ignore, resource is not required
-        }
+      if (xmlDocument != null) {
+        // 已经解析好的 XML
+        XMLMapperBuilder xmlParser = new XMLMapperBuilder(xmlDocument, assistant.getConfiguration(), xmlResource, configuration.getSqlFragments(), type.getName());
+        xmlParser.parse();
+        return;
       }
+      InputStream inputStream = openXmlResource(type);
       if (inputStream != null) {
         XMLMapperBuilder xmlParser = new XMLMapperBuilder(inputStream, assistant.getConfiguration(), xmlResource, configuration.getSqlFragments(), type.getName());
         xmlParser.parse();
@@ -183,13 +194,41 @@ public class MapperAnnotationBuilder {
     }
   }
 
+  /**
+   * @return the stream of the XML mapper next to the mapper interface, or {@code null} if there is none
+   * @since 3.5.4
+   */
+  public static InputStream openXmlResource(Class<?> type) {
+    String xmlResource = type.getName().replace('.', '/') + ".xml";
+    // #1347
+    InputStream inputStream = type.getResourceAsStream("/" + xmlResource);
+    if (inputStream == null) {
+      // Search XML mapper that is not in the module but in the classpath.
+      try {
+        inputStream = Resources.getResourceAsStream(type.getClassLoader(), xmlResource);
+      } catch (IOException e2) {
+        // ignore, resource is not required
+      }
+    }
+    return inputStream;
+  }
+
   private void parseCache() {
     CacheNamespace cacheDomain = type.getAnnotation(CacheNamespace.class);
     if (cacheDomain != null) {
       Integer size = cacheDomain.size() == 0 ? null : cacheDomain.size();
       Long flushInterval = cacheDomain.flushInterval() == 0 ? null : cacheDomain.flushInterval();
       Properties props = convertToProperties(cacheDomain.properties());
-      assistant.useNewCache(cacheDomain.implementation(), cacheDomain.eviction(), flushInterval, size, cacheDomain.readWrite(), cacheDomain.blocking(), props);
+      Serializer serializer = cacheDomain.serializer() == Serializer.class ? null : newSerializer(cacheDomain.serializer());
+      assistant.useNewCache(cacheDomain.implementation(), cacheDomain.eviction(), flushInterval, size, cacheDomain.readWrite(), cacheDomain.blocking(), serializer, props);
+    }
+  }
+
+  private Serializer newSerializer(Class<? extends Serializer> serializerType) {
+    try {
+      return serializerType.getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new BuilderException("Error creating serializer " + serializerType.getName() + ". Cause: " + e, e);
     }
   }
 
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.builder.annotation;
 
+import java.io.Serializable;
 import java.lang.reflect.Method;
 
 /**
@@ -24,7 +25,9 @@ import java.lang.reflect.Method;
  * @since 3.4.5
  */
 // Provider  上下文
-public final class ProviderContext {
+public final class ProviderContext implements Serializable {
+
+  private static final long serialVersionUID = 132903227173063082L;
 
   // Mapper 接口
   private final Class<?> mapperType;
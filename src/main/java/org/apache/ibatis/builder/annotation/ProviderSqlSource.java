@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.builder.annotation;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -34,7 +35,9 @@ import org.apache.ibatis.session.Configuration;
  * @author Kazuki Shimizu
  */
 // 基于方法上的 @ProviderXXX 注解的 SqlSource 实现类
-public class ProviderSqlSource implements SqlSource {
+public class ProviderSqlSource implements SqlSource, Serializable {
+
+  private static final long serialVersionUID = -6864616340765449957L;
 
   private final Configuration configuration;
   // @ProviderXX  注解对应的类
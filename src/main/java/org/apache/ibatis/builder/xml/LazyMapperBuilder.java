@@ -0,0 +1,154 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.parsing.PropertyParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Builds a mapper XML file the first time one of its elements is looked up, for the {@code lazyMapperParsing} setting.
+ * <p>
+ * Indexing a file only streams through it to read the namespace and the statement ids, without building a document.
+ * The file is read again and built by an {@link XMLMapperBuilder} when the {@link Configuration} first needs its
+ * namespace, so the elements of unused mappers are neither built nor kept in memory.
+ *
+ * @since 3.5.4
+ * @see Configuration#buildLazyMapper(String)
+ */
+// 按需构建的 mapper XML，启动时只读取 namespace 和语句 id
+public class LazyMapperBuilder {
+
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  private final Configuration configuration;
+  // 资源路径或 URL
+  private final String resource;
+  private final boolean url;
+  private final String namespace;
+  // 不带 namespace 的 select、insert、update 和 delete 的 id
+  private final Set<String> statementIds;
+
+  private LazyMapperBuilder(Configuration configuration, String resource, boolean url, String namespace, Set<String> statementIds) {
+    this.configuration = configuration;
+    this.resource = resource;
+    this.url = url;
+    this.namespace = namespace;
+    this.statementIds = statementIds;
+  }
+
+  /**
+   * Reads the namespace and the statement ids of a mapper XML file.
+   *
+   * @param resource a class path resource, or a URL if {@code url} is {@code true}
+   */
+  public static LazyMapperBuilder index(Configuration configuration, String resource, boolean url) throws IOException {
+    String namespace = null;
+    Set<String> statementIds = new HashSet<>();
+    try (InputStream inputStream = open(resource, url)) {
+      XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+      try {
+        int depth = 0;
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            depth++;
+            if (depth == 1) {
+              namespace = getAttribute(configuration, reader, "namespace");
+            } else if (depth == 2 && isStatement(reader.getLocalName())) {
+              String id = getAttribute(configuration, reader, "id");
+              if (id != null) {
+                statementIds.add(id);
+              }
+            }
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            depth--;
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new BuilderException("Error indexing mapper XML " + resource + ". Cause: " + e, e);
+    }
+    if (namespace == null || namespace.isEmpty()) {
+      throw new BuilderException("Mapper's namespace cannot be empty");
+    }
+    return new LazyMapperBuilder(configuration, resource, url, namespace, Collections.unmodifiableSet(statementIds));
+  }
+
+  /**
+   * Parses the file and adds its elements to the configuration, like {@link XMLMapperBuilder#parse()}.
+   */
+  public void build() {
+    // 可能在执行语句的过程中构建，保留当前线程原来的 ErrorContext
+    ErrorContext.instance().store().resource(resource);
+    try (InputStream inputStream = open(resource, url)) {
+      new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+    } catch (IOException e) {
+      throw new BuilderException("Error building mapper XML " + resource + ". Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().recall();
+    }
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public Set<String> getStatementIds() {
+    return statementIds;
+  }
+
+  private static InputStream open(String resource, boolean url) throws IOException {
+    return url ? Resources.getUrlAsStream(resource) : Resources.getResourceAsStream(resource);
+  }
+
+  private static boolean isStatement(String name) {
+    return "select".equals(name) || "insert".equals(name) || "update".equals(name) || "delete".equals(name);
+  }
+
+  private static String getAttribute(Configuration configuration, XMLStreamReader reader, String name) {
+    String value = reader.getAttributeValue(null, name);
+    return value == null ? null : PropertyParser.parse(value, configuration.getVariables());
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    // 索引时不读取 DTD，由构建时的 XMLMapperBuilder 校验
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+}
@@ -15,14 +15,21 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
@@ -39,9 +46,12 @@ import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ConfigurationSnapshot;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.TransactionFactory;
@@ -141,8 +151,12 @@ public class XMLConfigBuilder extends BaseBuilder {
       databaseIdProviderElement(root.evalNode("databaseIdProvider"));
       // 解析 typeHandlers 标签
       typeHandlerElement(root.evalNode("typeHandlers"));
-      // 解析 mappers 标签
-      mapperElement(root.evalNode("mappers"));
+      // 解析 mappers 标签，配置了 configurationSnapshot 时先尝试从快照加载
+      if (configuration.getConfigurationSnapshot() == null) {
+        mapperElement(root.evalNode("mappers"));
+      } else {
+        snapshotMapperElement(root);
+      }
     } catch (Exception e) {
       throw new BuilderException("Error parsing SQL Mapper Configuration. Cause: " + e, e);
     }
@@ -300,11 +314,21 @@ public class XMLConfigBuilder extends BaseBuilder {
   }
 
 
+  private ExpressionEvaluator createExpressionEvaluator(String alias) {
+    if (resolveClass(alias) == CompiledExpressionEvaluator.class) {
+      // 编译后的表达式通过配置的 ReflectorFactory 读取属性，与 MetaObject 共用 Reflector 缓存
+      return new CompiledExpressionEvaluator(configuration.getReflectorFactory());
+    }
+    return (ExpressionEvaluator) createInstance(alias);
+  }
+
   private void settingsElement(Properties props) {
     configuration.setAutoMappingBehavior(AutoMappingBehavior.valueOf(props.getProperty("autoMappingBehavior", "PARTIAL")));
     configuration.setAutoMappingUnknownColumnBehavior(AutoMappingUnknownColumnBehavior.valueOf(props.getProperty("autoMappingUnknownColumnBehavior", "NONE")));
     configuration.setCacheEnabled(booleanValueOf(props.getProperty("cacheEnabled"), true));
     configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
+    configuration.setSerializer((Serializer) createInstance(props.getProperty("serializer")));
+    configuration.setExpressionEvaluator(createExpressionEvaluator(props.getProperty("expressionEvaluator")));
     configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
     configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
@@ -325,6 +349,14 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setCompactCacheKeys(booleanValueOf(props.getProperty("compactCacheKeys"), false));
+    configuration.setUseCompiledRowMappers(booleanValueOf(props.getProperty("useCompiledRowMappers"), false));
+    configuration.setDynamicSqlCacheSize(integerValueOf(props.getProperty("dynamicSqlCacheSize"), 0));
+    configuration.setSealConfiguration(booleanValueOf(props.getProperty("sealConfiguration"), false));
+    configuration.setParallelMapperParsing(booleanValueOf(props.getProperty("parallelMapperParsing"), false));
+    configuration.setLazyMapperParsing(booleanValueOf(props.getProperty("lazyMapperParsing"), false));
+    configuration.setConfigurationSnapshot(props.getProperty("configurationSnapshot"));
+    configuration.setForeachArrayTemplate(props.getProperty("foreachArrayTemplate", "UNNEST(?)"));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
@@ -443,7 +475,12 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
+      // getChildren() 每次都创建新的 XNode，解析结果按同一个列表中的 XNode 对应
+      List<XNode> children = parent.getChildren();
+      // 开启 parallelMapperParsing 时，先并行解析所有 resource 和 url 指定的 XML，按需构建时不需要
+      Map<XNode, XPathParser> documents = configuration.isParallelMapperParsing() && !configuration.isLazyMapperParsing()
+          ? parseMapperDocuments(children) : Collections.emptyMap();
+      for (XNode child : children) {
         if ("package".equals(child.getName())) {
           String mapperPackage = child.getStringAttribute("name");
           configuration.addMappers(mapperPackage);
@@ -451,7 +488,16 @@ public class XMLConfigBuilder extends BaseBuilder {
           String resource = child.getStringAttribute("resource");
           String url = child.getStringAttribute("url");
           String mapperClass = child.getStringAttribute("class");
-          if (resource != null && url == null && mapperClass == null) {
+          XPathParser document = documents.get(child);
+          if (document != null) {
+            ErrorContext.instance().resource(resource != null ? resource : url);
+            XMLMapperBuilder mapperParser = new XMLMapperBuilder(document, configuration, resource != null ? resource : url, configuration.getSqlFragments());
+            mapperParser.parse();
+          } else if (configuration.isLazyMapperParsing() && mapperClass == null && (resource == null) != (url == null)) {
+            // 开启 lazyMapperParsing 时，只读取 namespace 和语句 id，第一次用到时再构建
+            ErrorContext.instance().resource(resource != null ? resource : url);
+            configuration.addLazyMapper(LazyMapperBuilder.index(configuration, resource != null ? resource : url, url != null));
+          } else if (resource != null && url == null && mapperClass == null) {
             ErrorContext.instance().resource(resource);
             InputStream inputStream = Resources.getResourceAsStream(resource);
             XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
@@ -472,6 +518,52 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  private void snapshotMapperElement(XNode root) throws Exception {
+    XNode parent = root.evalNode("mappers");
+    ConfigurationSnapshot snapshot = new ConfigurationSnapshot(configuration, new File(configuration.getConfigurationSnapshot()));
+    // 整个配置文件（settings、typeAliases、typeHandlers 等）和所有 mapper 的内容
+    snapshot.addSource(root.toString());
+    if (parent != null) {
+      for (XNode child : parent.getChildren()) {
+        if ("package".equals(child.getName())) {
+          snapshot.addMapperPackage(child.getStringAttribute("name"));
+        } else {
+          String resource = child.getStringAttribute("resource");
+          String url = child.getStringAttribute("url");
+          String mapperClass = child.getStringAttribute("class");
+          if (resource != null && url == null && mapperClass == null) {
+            snapshot.addResource(resource);
+          } else if (resource == null && url != null && mapperClass == null) {
+            snapshot.addUrl(url);
+          } else if (resource == null && url == null && mapperClass != null) {
+            snapshot.addMapperClass(Resources.classForName(mapperClass));
+          }
+        }
+      }
+    }
+    if (!snapshot.load()) {
+      mapperElement(parent);
+      snapshot.store();
+    }
+  }
+
+  private Map<XNode, XPathParser> parseMapperDocuments(List<XNode> children) {
+    Map<XNode, Callable<InputStream>> sources = new LinkedHashMap<>();
+    for (XNode child : children) {
+      if (!"package".equals(child.getName()) && child.getStringAttribute("class") == null) {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        // 同时指定 resource 和 url 的元素不解析，留给原来的逻辑报错
+        if (resource != null && url == null) {
+          sources.put(child, () -> Resources.getResourceAsStream(resource));
+        } else if (resource == null && url != null) {
+          sources.put(child, () -> Resources.getUrlAsStream(url));
+        }
+      }
+    }
+    return XMLMapperDocuments.parse(configuration, sources);
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
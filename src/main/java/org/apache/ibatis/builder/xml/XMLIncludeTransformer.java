@@ -107,6 +107,8 @@ public class XMLIncludeTransformer {
     refid = PropertyParser.parse(refid, variables);
     // 获取完成的 refId ，格式为 namespace.refId
     refid = builderAssistant.applyCurrentNamespace(refid, true);
+    // 片段所在的 mapper XML 可能还没有构建
+    configuration.buildLazyMapper(refid);
     try {
       // 获取对应的Sql结点
       XNode nodeToInclude = configuration.getSqlFragments().get(refid);
@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Reads and parses mapper XML documents in parallel, for the {@code parallelMapperParsing} setting.
+ * <p>
+ * Only the documents are parsed in parallel. They are built into the configuration one by one afterwards, in their
+ * original order, because a mapper refers to the fragments, result maps and caches of the mappers built before it.
+ *
+ * @since 3.5.4
+ */
+// 并行读取和解析 mapper XML 文档
+public final class XMLMapperDocuments {
+
+  private XMLMapperDocuments() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Parses the documents on the common fork-join pool.
+   *
+   * @param sources the streams of the documents by key, a source may return {@code null} if there is no document
+   * @return the parsers of the documents by key. A document that could not be read or parsed is missing, so that the
+   *         caller loads it again as usual and reports the error in order.
+   */
+  public static <K> Map<K, XPathParser> parse(Configuration configuration, Map<K, Callable<InputStream>> sources) {
+    List<Map.Entry<K, Callable<InputStream>>> entries = new ArrayList<>(sources.entrySet());
+    XPathParser[] parsers = new XPathParser[entries.size()];
+    IntStream.range(0, parsers.length).parallel().forEach(i -> parsers[i] = parse(configuration, entries.get(i).getValue()));
+    Map<K, XPathParser> documents = new HashMap<>();
+    for (int i = 0; i < parsers.length; i++) {
+      if (parsers[i] != null) {
+        documents.put(entries.get(i).getKey(), parsers[i]);
+      }
+    }
+    return documents;
+  }
+
+  private static XPathParser parse(Configuration configuration, Callable<InputStream> source) {
+    try (InputStream inputStream = source.call()) {
+      if (inputStream == null) {
+        return null;
+      }
+      return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+    } catch (Exception e) {
+      // 失败的文档交给调用方按顺序重新加载，以便报告同样的错误
+      return null;
+    }
+  }
+
+}
@@ -71,10 +71,15 @@ public class CacheKey implements Cloneable, Serializable {
   private List<Object> updateList;
 
   public CacheKey() {
+    this(true);
+  }
+
+  // 供自行保存 update 值的子类使用，此时不创建 updateList
+  CacheKey(boolean trackUpdates) {
     this.hashcode = DEFAULT_HASHCODE;
     this.multiplier = DEFAULT_MULTIPLIER;
     this.count = 0;
-    this.updateList = new ArrayList<>();
+    this.updateList = trackUpdates ? new ArrayList<>() : null;
   }
 
   public CacheKey(Object[] objects) {
@@ -98,6 +103,24 @@ public class CacheKey implements Cloneable, Serializable {
     updateList.add(object);
   }
 
+  /**
+   * Same as {@code update(Integer.valueOf(value))}, but subclasses may store the value without boxing it.
+   *
+   * @since 3.5.4
+   */
+  public void updateInt(int value) {
+    update((Object) value);
+  }
+
+  /**
+   * Same as {@code update(Long.valueOf(value))}, but subclasses may store the value without boxing it.
+   *
+   * @since 3.5.4
+   */
+  public void updateLong(long value) {
+    update((Object) value);
+  }
+
   public void updateAll(Object[] objects) {
     for (Object o : objects) {
       update(o);
@@ -152,7 +175,9 @@ public class CacheKey implements Cloneable, Serializable {
   @Override
   public CacheKey clone() throws CloneNotSupportedException {
     CacheKey clonedCacheKey = (CacheKey) super.clone();
-    clonedCacheKey.updateList = new ArrayList<>(updateList);
+    if (updateList != null) {
+      clonedCacheKey.updateList = new ArrayList<>(updateList);
+    }
     return clonedCacheKey;
   }
 
@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * A {@link CacheKey} that keeps its values in a flat array and hashes them into 64 bits.
+ * <p>
+ * {@code int} and {@code long} values, boxed or not, are stored unboxed in a parallel {@code long} array. Keys with
+ * the same values in the same order are equal, as with {@link CacheKey}, but a compact key never equals a plain one.
+ * It is used when the {@code compactCacheKeys} setting is enabled.
+ *
+ * @since 3.5.4
+ */
+// 扁平数组存储、64 位哈希的缓存键
+public final class CompactCacheKey extends CacheKey {
+
+  private static final long serialVersionUID = 4518302471954361293L;
+
+  private static final int INITIAL_CAPACITY = 8;
+  private static final long SEED = 0x27D4EB2F165667C5L;
+  private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+  // 占位在 values 中，表示该位置的值保存在 bits 中
+  private enum Primitive {
+    INT, LONG
+  }
+
+  private Object[] values;
+  // 第一次写入 int/long 值时才创建
+  private long[] bits;
+  private int count;
+  private long hash = SEED;
+
+  public CompactCacheKey() {
+    super(false);
+    this.values = new Object[INITIAL_CAPACITY];
+  }
+
+  public CompactCacheKey(Object[] objects) {
+    this();
+    updateAll(objects);
+  }
+
+  @Override
+  public int getUpdateCount() {
+    return count;
+  }
+
+  @Override
+  public void update(Object object) {
+    if (object instanceof Integer) {
+      updateInt((Integer) object);
+    } else if (object instanceof Long) {
+      updateLong((Long) object);
+    } else {
+      append(object, 0L, object == null ? 1 : ArrayUtil.hashCode(object));
+    }
+  }
+
+  @Override
+  public void updateInt(int value) {
+    append(Primitive.INT, value, value * 31L + Primitive.INT.ordinal());
+  }
+
+  @Override
+  public void updateLong(long value) {
+    append(Primitive.LONG, value, value * 31L + Primitive.LONG.ordinal());
+  }
+
+  @Override
+  public void updateAll(Object[] objects) {
+    for (Object o : objects) {
+      update(o);
+    }
+  }
+
+  private void append(Object value, long primitive, long elementHash) {
+    int index = count;
+    if (index == values.length) {
+      values = Arrays.copyOf(values, index << 1);
+      if (bits != null) {
+        bits = Arrays.copyOf(bits, index << 1);
+      }
+    }
+    values[index] = value;
+    if (value instanceof Primitive) {
+      if (bits == null) {
+        bits = new long[values.length];
+      }
+      bits[index] = primitive;
+    }
+    count = index + 1;
+    hash = Long.rotateLeft(hash + elementHash * PRIME_2, 31) * PRIME_1;
+  }
+
+  /**
+   * @return a 64-bit hash of the values of this key
+   */
+  public long longHashCode() {
+    long h = hash ^ count;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    return h ^ (h >>> 33);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof CompactCacheKey)) {
+      return false;
+    }
+
+    final CompactCacheKey cacheKey = (CompactCacheKey) object;
+
+    if (hash != cacheKey.hash || count != cacheKey.count) {
+      return false;
+    }
+
+    for (int i = 0; i < count; i++) {
+      Object thisObject = values[i];
+      Object thatObject = cacheKey.values[i];
+      if (thisObject instanceof Primitive) {
+        if (thisObject != thatObject || bits[i] != cacheKey.bits[i]) {
+          return false;
+        }
+      } else if (!ArrayUtil.equals(thisObject, thatObject)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    long h = longHashCode();
+    return (int) (h ^ (h >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner returnValue = new StringJoiner(":");
+    returnValue.add(String.valueOf(hashCode()));
+    for (int i = 0; i < count; i++) {
+      Object value = values[i];
+      if (value == Primitive.INT) {
+        returnValue.add(String.valueOf((int) bits[i]));
+      } else if (value == Primitive.LONG) {
+        returnValue.add(String.valueOf(bits[i]));
+      } else {
+        returnValue.add(ArrayUtil.toString(value));
+      }
+    }
+    return returnValue.toString();
+  }
+
+  @Override
+  public CompactCacheKey clone() throws CloneNotSupportedException {
+    CompactCacheKey clonedCacheKey = (CompactCacheKey) super.clone();
+    clonedCacheKey.values = values.clone();
+    if (bits != null) {
+      clonedCacheKey.bits = bits.clone();
+    }
+    return clonedCacheKey;
+  }
+
+}
@@ -15,10 +15,11 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
@@ -29,6 +30,11 @@ import org.apache.ibatis.cache.CacheException;
  * Simple and inefficient version of EhCache's BlockingCache decorator.
  * It sets a lock over a cache key when the element is not found in cache.
  * This way, other threads will wait until this element is filled instead of hitting the database.
+ * <p>
+ * The lock is a single-flight entry: the first thread missing a key owns it, and every other thread asking for the
+ * same key waits on its future. The entry is removed as soon as the owner puts or removes the key, so no state is
+ * kept for keys that are not being loaded. Waiters then read the key again and, if it is still missing, one of them
+ * takes over the load.
  *
  * @author Eduardo Macarron
  *
@@ -41,12 +47,12 @@ public class BlockingCache implements Cache {
 
   // 装饰的缓存对象
   private final Cache delegate;
-  // 缓存键与重入锁的Map
-  private final ConcurrentHashMap<Object, ReentrantLock> locks;
+  // 正在加载的缓存键与其加载凭据的Map，加载结束后即移除
+  private final ConcurrentHashMap<Object, Flight> flights;
 
   public BlockingCache(Cache delegate) {
     this.delegate = delegate;
-    this.locks = new ConcurrentHashMap<>();
+    this.flights = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -99,37 +105,65 @@ public class BlockingCache implements Cache {
     delegate.clear();
   }
 
-  // 获取锁，如果不存在就创建一个, 并添加到locks中
-  private ReentrantLock getLockForKey(Object key) {
-    return locks.computeIfAbsent(key, k -> new ReentrantLock());
-  }
-
-  // 获取锁逻辑
+  // 获取锁逻辑：成为该key的加载者，或者等待当前加载者结束后重试
   private void acquireLock(Object key) {
-    Lock lock = getLockForKey(key);
-    if (timeout > 0) {
-      try {
-        boolean acquired = lock.tryLock(timeout, TimeUnit.MILLISECONDS);
-        if (!acquired) {
-          throw new CacheException("Couldn't get a lock in " + timeout + " for the key " +  key + " at the cache " + delegate.getId());
+    Thread current = Thread.currentThread();
+    Flight flight = null;
+    while (true) {
+      Flight inFlight = flights.get(key);
+      if (inFlight == null) {
+        if (flight == null) {
+          flight = new Flight(current);
+        }
+        inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight == null) {
+          return;
         }
-      } catch (InterruptedException e) {
-        throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
       }
-    } else {
-      lock.lock();
+      if (inFlight.owner == current) {
+        // already loading this key, e.g. queried twice in one transaction
+        return;
+      }
+      if (!inFlight.owner.isAlive()) {
+        // the owner died without releasing the key
+        release(key, inFlight);
+        continue;
+      }
+      await(key, inFlight);
+    }
+  }
+
+  private void await(Object key, Flight flight) {
+    try {
+      if (timeout > 0) {
+        flight.get(timeout, TimeUnit.MILLISECONDS);
+      } else {
+        flight.get();
+      }
+    } catch (TimeoutException e) {
+      throw new CacheException("Couldn't get a lock in " + timeout + " for the key " +  key + " at the cache " + delegate.getId());
+    } catch (InterruptedException e) {
+      throw new CacheException("Got interrupted while trying to acquire lock for key " + key, e);
+    } catch (ExecutionException e) {
+      // never completed exceptionally
+      throw new CacheException("Error waiting for key " + key, e.getCause());
     }
   }
 
   // 释放锁逻辑
   private void releaseLock(Object key) {
-    ReentrantLock lock = locks.get(key);
+    Flight flight = flights.get(key);
     // 当前锁如果被当前线程持有，那么就释放
-    if (lock.isHeldByCurrentThread()) {
-      lock.unlock();
+    if (flight != null && flight.owner == Thread.currentThread()) {
+      release(key, flight);
     }
   }
 
+  private void release(Object key, Flight flight) {
+    flights.remove(key, flight);
+    flight.complete(null);
+  }
+
   public long getTimeout() {
     return timeout;
   }
@@ -137,4 +171,15 @@ public class BlockingCache implements Cache {
   public void setTimeout(long timeout) {
     this.timeout = timeout;
   }
+
+  // 一次正在进行的加载，加载者放入或移除该key时完成
+  private static final class Flight extends CompletableFuture<Void> {
+
+    private final Thread owner;
+
+    Flight(Thread owner) {
+      this.owner = owner;
+    }
+
+  }
 }
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.cache.decorators;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -25,14 +27,20 @@ import org.apache.ibatis.logging.LogFactory;
 // 日志缓存
 public class LoggingCache implements Cache {
 
+  // TinyLFU 和堆外缓存不包装 SynchronizedCache，计数需要原子地递增
+  private static final AtomicIntegerFieldUpdater<LoggingCache> REQUESTS =
+      AtomicIntegerFieldUpdater.newUpdater(LoggingCache.class, "requests");
+  private static final AtomicIntegerFieldUpdater<LoggingCache> HITS =
+      AtomicIntegerFieldUpdater.newUpdater(LoggingCache.class, "hits");
+
   // 日志对象
   private final Log log;
   // 缓存容器对象
   private final Cache delegate;
   // 用于记录请求的次数的
-  protected int requests = 0;
+  protected volatile int requests = 0;
   // 用于记录命中缓存的次数
-  protected int hits = 0;
+  protected volatile int hits = 0;
 
   public LoggingCache(Cache delegate) {
     this.delegate = delegate;
@@ -57,12 +65,12 @@ public class LoggingCache implements Cache {
   @Override
   public Object getObject(Object key) {
     //  记录请求次数
-    requests++;
+    REQUESTS.incrementAndGet(this);
     // 获取缓存
     final Object value = delegate.getObject(key);
     if (value != null) {
       // 如果命中了，命中次数++
-      hits++;
+      HITS.incrementAndGet(this);
     }
     if (log.isDebugEnabled()) {
       log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
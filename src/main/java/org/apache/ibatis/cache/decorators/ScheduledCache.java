@@ -18,6 +18,7 @@ package org.apache.ibatis.cache.decorators;
 import org.apache.ibatis.cache.Cache;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * @author Clinton Begin
@@ -25,12 +26,16 @@ import java.util.concurrent.TimeUnit;
 // 定时清理的缓存
 public class ScheduledCache implements Cache {
 
+  // TinyLFU 和堆外缓存不包装 SynchronizedCache，过期时只由一个线程清理
+  private static final AtomicLongFieldUpdater<ScheduledCache> LAST_CLEAR =
+      AtomicLongFieldUpdater.newUpdater(ScheduledCache.class, "lastClear");
+
   // 委托的缓存容器
   private final Cache delegate;
   // 清理的时间间隔
-  protected long clearInterval;
+  protected volatile long clearInterval;
   // 上一次请求的时间戳
-  protected long lastClear;
+  protected volatile long lastClear;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
@@ -89,9 +94,13 @@ public class ScheduledCache implements Cache {
 
   // 这个定时并不是真的定时，是在每次操作缓存的时候判断在当前时间点是否可以清除
   private boolean clearWhenStale() {
-    if (System.currentTimeMillis() - lastClear > clearInterval) {
-      // 清除
-      clear();
+    long last = lastClear;
+    long now = System.currentTimeMillis();
+    if (now - last > clearInterval) {
+      // 清除，其他线程已经开始清理时不再重复清理
+      if (LAST_CLEAR.compareAndSet(this, last, now)) {
+        delegate.clear();
+      }
       return true;
     }
     return false;
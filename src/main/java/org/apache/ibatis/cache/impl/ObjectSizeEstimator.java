@@ -0,0 +1,180 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Estimates the heap footprint of cached results, assuming a 64-bit JVM with compressed references.
+ * <p>
+ * Collections, maps, arrays and the fields of result objects are followed; other JDK classes and MyBatis internals
+ * (for example the state of a lazy loading proxy) are counted by a fixed shallow size. The estimate is meant for
+ * sizing a cache, not for exact accounting.
+ */
+// 估算缓存结果占用的堆内存大小
+final class ObjectSizeEstimator {
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int REFERENCE = 4;
+  private static final int ARRAY_HEADER = 16;
+  private static final int SHALLOW_OBJECT = 16;
+  private static final int HASHED_ENTRY = 32;
+
+  private static final ConcurrentMap<Class<?>, List<Field>> referenceFields = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, Long> shallowSizes = new ConcurrentHashMap<>();
+
+  private ObjectSizeEstimator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * @param root the object to measure
+   * @return the estimated number of bytes retained by the object
+   */
+  static long estimate(Object root) {
+    if (root == null) {
+      return 0;
+    }
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Object> pending = new ArrayDeque<>();
+    pending.push(root);
+    long size = 0;
+    while (!pending.isEmpty()) {
+      Object object = pending.pop();
+      if (visited.add(object)) {
+        size += sizeOf(object, pending);
+      }
+    }
+    return size;
+  }
+
+  private static long sizeOf(Object object, Deque<Object> pending) {
+    Class<?> type = object.getClass();
+    if (object instanceof String) {
+      return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + 2L * ((String) object).length());
+    } else if (object instanceof Enum || object instanceof Class) {
+      return 0;
+    } else if (type.isArray()) {
+      int length = Array.getLength(object);
+      Class<?> componentType = type.getComponentType();
+      if (componentType.isPrimitive()) {
+        return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+      }
+      for (Object element : (Object[]) object) {
+        push(element, pending);
+      }
+      return align(ARRAY_HEADER + (long) length * REFERENCE);
+    } else if (object instanceof Collection) {
+      Collection<?> collection = (Collection<?>) object;
+      for (Object element : collection) {
+        push(element, pending);
+      }
+      int perElement = object instanceof RandomAccess ? REFERENCE : HASHED_ENTRY;
+      return SHALLOW_OBJECT + ARRAY_HEADER + (long) collection.size() * perElement;
+    } else if (object instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) object;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        push(entry.getKey(), pending);
+        push(entry.getValue(), pending);
+      }
+      return SHALLOW_OBJECT * 3 + ARRAY_HEADER + (long) map.size() * (HASHED_ENTRY + REFERENCE);
+    } else if (isOpaque(type)) {
+      return SHALLOW_OBJECT;
+    }
+    for (Field field : referenceFieldsOf(type)) {
+      try {
+        push(field.get(object), pending);
+      } catch (IllegalAccessException e) {
+        // count the reference only
+      }
+    }
+    return shallowSizes.computeIfAbsent(type, ObjectSizeEstimator::shallowSizeOf);
+  }
+
+  private static void push(Object object, Deque<Object> pending) {
+    if (object != null) {
+      pending.push(object);
+    }
+  }
+
+  private static boolean isOpaque(Class<?> type) {
+    String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+        || name.startsWith("org.apache.ibatis.") || type.isSynthetic();
+  }
+
+  private static List<Field> referenceFieldsOf(Class<?> type) {
+    return referenceFields.computeIfAbsent(type, t -> {
+      List<Field> fields = new ArrayList<>();
+      for (Class<?> c = t; c != null && !isOpaque(c); c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+            continue;
+          }
+          try {
+            field.setAccessible(true);
+            fields.add(field);
+          } catch (RuntimeException e) {
+            // inaccessible, count the reference only
+          }
+        }
+      }
+      return fields;
+    });
+  }
+
+  private static long shallowSizeOf(Class<?> type) {
+    long size = OBJECT_HEADER;
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+        }
+      }
+    }
+    return align(size);
+  }
+
+  private static int primitiveSize(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+}
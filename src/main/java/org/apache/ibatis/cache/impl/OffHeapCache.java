@@ -0,0 +1,491 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
+
+/**
+ * A bounded cache that keeps its entries outside of the Java heap.
+ * <p>
+ * Keys and values are encoded with a {@link CompactSerializer} and stored in direct byte buffers, or in a
+ * memory-mapped file when {@code file} is set. Keys use {@link CompactSerializer#serializeKey(Object)}, so equal keys
+ * find the same entry. Cached results therefore do not add to the old generation or to GC pauses, and every hit
+ * returns a fresh copy, like a read-write cache. Values must be serializable.
+ * <p>
+ * The memory is split in segments, each with its own lock. A segment is a ring of records: new entries are appended
+ * and the oldest entries are evicted when {@code maxBytes} (64 MiB by default) or {@code size} entries are reached.
+ * The index of each segment is an open addressing hash table of 64-bit key hashes and record offsets, also held in a
+ * direct buffer. The only heap objects per entry are transient copies made while reading and writing.
+ */
+// 堆外缓存：编码后的缓存项保存在直接内存或内存映射文件中，索引同样在堆外
+public class OffHeapCache implements Cache {
+
+  private static final long DEFAULT_MAX_BYTES = 64L << 20;
+  private static final int MAX_SEGMENT_BYTES = 1 << 30;
+  private static final int MIN_SEGMENT_BYTES = 1 << 20;
+  private static final int MAX_SEGMENT_ENTRIES = 1 << 26;
+  // 未指定 size 时，按平均每项 512 字节估算最大条目数
+  private static final int DEFAULT_BYTES_PER_ENTRY = 512;
+
+  private final String id;
+  private final CompactSerializer serializer = new CompactSerializer();
+  private long maxBytes = DEFAULT_MAX_BYTES;
+  private int size;
+  private String file;
+  private volatile Segment[] segments;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    Segment[] current = segments;
+    if (current == null) {
+      return 0;
+    }
+    int count = 0;
+    for (Segment segment : current) {
+      count += segment.count();
+    }
+    return count;
+  }
+
+  /**
+   * @param maxBytes the memory used for entries, in bytes
+   */
+  public synchronized void setMaxBytes(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new CacheException("maxBytes of cache '" + id + "' must be positive but was " + maxBytes);
+    }
+    this.maxBytes = maxBytes;
+    segments = null;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * @param size the maximum number of entries, by default one per 512 bytes of {@code maxBytes}
+   */
+  public synchronized void setSize(int size) {
+    this.size = size;
+    segments = null;
+  }
+
+  /**
+   * @param file a file to map the entries to instead of allocating direct memory, its content is not reused
+   */
+  public synchronized void setFile(String file) {
+    this.file = file;
+    segments = null;
+  }
+
+  public String getFile() {
+    return file;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    byte[] keyBytes = serializer.serializeKey(key);
+    byte[] valueBytes = serializer.serialize(value);
+    long hash = hash(keyBytes);
+    segmentFor(hash).put(hash, keyBytes, valueBytes);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    byte[] keyBytes = serializer.serializeKey(key);
+    long hash = hash(keyBytes);
+    byte[] value = segmentFor(hash).get(hash, keyBytes);
+    return value == null ? null : serializer.deserialize(value);
+  }
+
+  /**
+   * Removes the entry without decoding it.
+   *
+   * @return always null, the return value of {@link Cache#removeObject(Object)} is not used
+   */
+  @Override
+  public Object removeObject(Object key) {
+    byte[] keyBytes = serializer.serializeKey(key);
+    long hash = hash(keyBytes);
+    segmentFor(hash).remove(hash, keyBytes);
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    Segment[] current = segments;
+    if (current != null) {
+      for (Segment segment : current) {
+        segment.clear();
+      }
+    }
+  }
+
+  private Segment segmentFor(long hash) {
+    Segment[] current = segments;
+    if (current == null) {
+      current = allocate();
+    }
+    return current[(int) (hash >>> 32) & (current.length - 1)];
+  }
+
+  // 第一次使用时才分配内存，此时所有属性都已设置
+  private synchronized Segment[] allocate() {
+    if (segments != null) {
+      return segments;
+    }
+    int count = 1;
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    while (count < 16 && count < parallelism && maxBytes / (count << 1) >= MIN_SEGMENT_BYTES) {
+      count <<= 1;
+    }
+    while (maxBytes / count > MAX_SEGMENT_BYTES) {
+      count <<= 1;
+    }
+    int segmentBytes = (int) (maxBytes / count);
+    long maxEntries = size > 0 ? size : Math.max(1, maxBytes / DEFAULT_BYTES_PER_ENTRY);
+    int segmentEntries = (int) Math.min(MAX_SEGMENT_ENTRIES, Math.max(1, (maxEntries + count - 1) / count));
+    Segment[] allocated = new Segment[count];
+    try {
+      if (file != null) {
+        try (RandomAccessFile mapped = new RandomAccessFile(file, "rw")) {
+          mapped.setLength((long) segmentBytes * count);
+          FileChannel channel = mapped.getChannel();
+          for (int i = 0; i < count; i++) {
+            // the mapping stays valid after the file is closed
+            allocated[i] = new Segment(channel.map(FileChannel.MapMode.READ_WRITE, (long) segmentBytes * i,
+                segmentBytes), segmentEntries);
+          }
+        }
+      } else {
+        for (int i = 0; i < count; i++) {
+          allocated[i] = new Segment(ByteBuffer.allocateDirect(segmentBytes), segmentEntries);
+        }
+      }
+    } catch (IOException | OutOfMemoryError e) {
+      throw new CacheException("Could not allocate " + maxBytes + " bytes for cache '" + id + "'.  Cause: " + e, e);
+    }
+    segments = allocated;
+    return allocated;
+  }
+
+  static long hash(byte[] bytes) {
+    int length = bytes.length;
+    long h = 0x9E3779B97F4A7C15L ^ length;
+    int i = 0;
+    for (; i + 8 <= length; i += 8) {
+      long k = (bytes[i] & 0xffL) | (bytes[i + 1] & 0xffL) << 8 | (bytes[i + 2] & 0xffL) << 16
+          | (bytes[i + 3] & 0xffL) << 24 | (bytes[i + 4] & 0xffL) << 32 | (bytes[i + 5] & 0xffL) << 40
+          | (bytes[i + 6] & 0xffL) << 48 | (bytes[i + 7] & 0xffL) << 56;
+      h ^= Long.rotateLeft(k * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+      h = Long.rotateLeft(h, 27) * 5 + 0x52DCE729;
+    }
+    long k = 0;
+    for (int shift = 0; i < length; i++, shift += 8) {
+      k |= (bytes[i] & 0xffL) << shift;
+    }
+    h ^= Long.rotateLeft(k * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    // 0 marks an empty slot of the index
+    return h == 0 ? 1 : h;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  /**
+   * A ring of records with its index.
+   * <p>
+   * A record is {@code [int length][long hash][int key length][key][value]}. Records never wrap around the end of
+   * the ring; the space left at the end is marked with {@link #WRAP} when it can hold the marker. An index slot is
+   * {@code [long hash][int record offset][int unused]}, a hash of 0 marks an empty slot. Removed and replaced records
+   * stay in the ring until the oldest record reaches them.
+   */
+  // 一个分段：环形的记录区加上开放寻址的索引
+  private static final class Segment {
+
+    private static final int HEADER = 16;
+    private static final int WRAP = -1;
+    private static final int SLOT = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ByteBuffer data;
+    private final int capacity;
+    private final ByteBuffer index;
+    private final int slotMask;
+    private final int maxEntries;
+
+    // 以下字段都由写锁保护
+    private int head;
+    private int tail;
+    private long used;
+    private int count;
+
+    Segment(ByteBuffer data, int maxEntries) {
+      this.data = data;
+      this.capacity = data.capacity();
+      this.maxEntries = maxEntries;
+      int slots = Integer.highestOneBit(Math.max(maxEntries, 8) * 2 - 1) << 1;
+      this.index = ByteBuffer.allocateDirect(slots * SLOT);
+      this.slotMask = slots - 1;
+    }
+
+    int count() {
+      lock.readLock().lock();
+      try {
+        return count;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    byte[] get(long hash, byte[] key) {
+      lock.readLock().lock();
+      try {
+        int slot = find(hash, key);
+        if (slot < 0) {
+          return null;
+        }
+        int offset = index.getInt(slot * SLOT + 8);
+        byte[] value = new byte[data.getInt(offset) - HEADER - key.length];
+        ByteBuffer source = data.duplicate();
+        source.position(offset + HEADER + key.length);
+        source.get(value);
+        return value;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    void put(long hash, byte[] key, byte[] value) {
+      long length = (long) HEADER + key.length + value.length;
+      lock.writeLock().lock();
+      try {
+        int slot = find(hash, key);
+        if (slot >= 0) {
+          removeSlot(slot);
+        }
+        if (length > capacity) {
+          // too large to be cached at all
+          return;
+        }
+        while (count >= maxEntries) {
+          evictHead();
+        }
+        reserve((int) length);
+        data.putInt(tail, (int) length);
+        data.putLong(tail + 4, hash);
+        data.putInt(tail + 12, key.length);
+        ByteBuffer target = data.duplicate();
+        target.position(tail + HEADER);
+        target.put(key);
+        target.put(value);
+        insertSlot(hash, tail);
+        tail += (int) length;
+        used += length;
+        if (tail == capacity) {
+          tail = 0;
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void remove(long hash, byte[] key) {
+      lock.writeLock().lock();
+      try {
+        int slot = find(hash, key);
+        if (slot >= 0) {
+          removeSlot(slot);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void clear() {
+      lock.writeLock().lock();
+      try {
+        if (count > 0) {
+          for (int i = 0; i < index.capacity(); i += 8) {
+            index.putLong(i, 0);
+          }
+        }
+        count = 0;
+        head = 0;
+        tail = 0;
+        used = 0;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    // 在 tail 处腾出 length 字节的连续空间，必要时淘汰最老的记录
+    private void reserve(int length) {
+      for (;;) {
+        if (used == 0) {
+          head = 0;
+          tail = 0;
+        }
+        if (tail > head || used == 0) {
+          if (capacity - tail >= length) {
+            return;
+          }
+          if (head >= length) {
+            if (capacity - tail >= 4) {
+              data.putInt(tail, WRAP);
+            }
+            used += capacity - tail;
+            tail = 0;
+            return;
+          }
+        } else if (head - tail >= length) {
+          return;
+        }
+        evictHead();
+      }
+    }
+
+    private void evictHead() {
+      if (capacity - head < HEADER || data.getInt(head) == WRAP) {
+        used -= capacity - head;
+        head = 0;
+        return;
+      }
+      int length = data.getInt(head);
+      int slot = findByOffset(data.getLong(head + 4), head);
+      if (slot >= 0) {
+        removeSlot(slot);
+      }
+      used -= length;
+      head += length;
+      if (head == capacity) {
+        head = 0;
+      }
+    }
+
+    private int find(long hash, byte[] key) {
+      for (int slot = (int) hash & slotMask; ; slot = (slot + 1) & slotMask) {
+        long slotHash = index.getLong(slot * SLOT);
+        if (slotHash == 0) {
+          return -1;
+        }
+        if (slotHash == hash && keyEquals(index.getInt(slot * SLOT + 8), key)) {
+          return slot;
+        }
+      }
+    }
+
+    private int findByOffset(long hash, int offset) {
+      for (int slot = (int) hash & slotMask; ; slot = (slot + 1) & slotMask) {
+        long slotHash = index.getLong(slot * SLOT);
+        if (slotHash == 0) {
+          return -1;
+        }
+        if (slotHash == hash && index.getInt(slot * SLOT + 8) == offset) {
+          return slot;
+        }
+      }
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+      if (data.getInt(offset + 12) != key.length) {
+        return false;
+      }
+      int start = offset + HEADER;
+      for (int i = 0; i < key.length; i++) {
+        if (data.get(start + i) != key[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void insertSlot(long hash, int offset) {
+      int slot = (int) hash & slotMask;
+      while (index.getLong(slot * SLOT) != 0) {
+        slot = (slot + 1) & slotMask;
+      }
+      index.putLong(slot * SLOT, hash);
+      index.putInt(slot * SLOT + 8, offset);
+      count++;
+    }
+
+    // 线性探测的删除：把后面的项前移填补空位，不留墓碑
+    private void removeSlot(int slot) {
+      int hole = slot;
+      for (int next = (slot + 1) & slotMask; ; next = (next + 1) & slotMask) {
+        long hash = index.getLong(next * SLOT);
+        if (hash == 0) {
+          break;
+        }
+        int home = (int) hash & slotMask;
+        boolean movable = hole <= next ? home <= hole || home > next : home <= hole && home > next;
+        if (movable) {
+          index.putLong(hole * SLOT, hash);
+          index.putInt(hole * SLOT + 8, index.getInt(next * SLOT + 8));
+          hole = next;
+        }
+      }
+      index.putLong(hole * SLOT, 0);
+      count--;
+    }
+
+  }
+
+}
@@ -0,0 +1,433 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * A bounded, thread safe cache with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU window. When they leave it, they are admitted to the main space only if they have
+ * been used more often than the entry that would be evicted for them, as estimated by a {@link FrequencySketch}.
+ * The main space is a segmented LRU: entries used again while on probation are promoted to the protected segment.
+ * <p>
+ * Reads do not lock. They are recorded in striped, lossy buffers that are replayed against the eviction policy
+ * under a lock by the next write, or by a reader that finds its buffer full. As the cache is thread safe on its own,
+ * {@link org.apache.ibatis.mapping.CacheBuilder} does not wrap it in a
+ * {@link org.apache.ibatis.cache.decorators.SynchronizedCache}.
+ * <p>
+ * The cache holds at most {@code size} entries (1024 by default), unless {@code maxBytes} is set, in which case it
+ * holds entries up to an estimated total of that many bytes.
+ */
+// 基于 W-TinyLFU 淘汰策略的有界并发缓存
+public class TinyLfuCache implements Cache {
+
+  private static final double WINDOW_PERCENTAGE = 0.01d;
+  private static final double PROTECTED_PERCENTAGE = 0.8d;
+  // 按字节估算时，每个缓存项（节点、Map 项、CacheKey）的额外开销
+  private static final long ENTRY_OVERHEAD = 96;
+
+  private static final int NONE = 0;
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private final String id;
+  private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final ReadBuffer readBuffer = new ReadBuffer();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  // 以下字段都由 evictionLock 保护
+  private final FrequencySketch sketch = new FrequencySketch();
+  private final AccessOrderDeque window = new AccessOrderDeque();
+  private final AccessOrderDeque probation = new AccessOrderDeque();
+  private final AccessOrderDeque protectedDeque = new AccessOrderDeque();
+  private long maximum;
+  private long windowMaximum;
+  private long protectedMaximum;
+  private long weightedSize;
+  private long windowWeightedSize;
+  private long protectedWeightedSize;
+
+  private volatile int size = 1024;
+  private volatile long maxBytes;
+
+  public TinyLfuCache(String id) {
+    this.id = id;
+    configure();
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return data.size();
+  }
+
+  /**
+   * @param size the maximum number of entries, used when {@code maxBytes} is not set
+   */
+  public void setSize(int size) {
+    this.size = size;
+    configure();
+  }
+
+  /**
+   * @param maxBytes the maximum estimated size of all entries in bytes, or 0 to bound the cache by {@code size}
+   */
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    configure();
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long weight = maxBytes > 0 ? ENTRY_OVERHEAD + ObjectSizeEstimator.estimate(value) : 1;
+    Node node = new Node(key, value, weight);
+    Node prior = data.put(key, node);
+    evictionLock.lock();
+    try {
+      drainReadBuffer();
+      if (prior != null) {
+        unlink(prior);
+      }
+      if (maxBytes > 0) {
+        sketch.ensureCapacity(data.size());
+      }
+      sketch.increment(key);
+      // a concurrent write may have replaced or removed the node already
+      if (data.get(key) == node) {
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeightedSize += weight;
+        weightedSize += weight;
+        evict();
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Node node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (readBuffer.offer(node) && evictionLock.tryLock()) {
+      try {
+        drainReadBuffer();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Node node = data.remove(key);
+    if (node == null) {
+      return null;
+    }
+    evictionLock.lock();
+    try {
+      unlink(node);
+    } finally {
+      evictionLock.unlock();
+    }
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      drainReadBuffer();
+      data.clear();
+      window.clear();
+      probation.clear();
+      protectedDeque.clear();
+      weightedSize = 0;
+      windowWeightedSize = 0;
+      protectedWeightedSize = 0;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void configure() {
+    evictionLock.lock();
+    try {
+      maximum = maxBytes > 0 ? maxBytes : Math.max(size, 1);
+      windowMaximum = Math.max(1, (long) (maximum * WINDOW_PERCENTAGE));
+      protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_PERCENTAGE);
+      if (maxBytes <= 0) {
+        sketch.ensureCapacity(maximum);
+      }
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void drainReadBuffer() {
+    readBuffer.drain(this);
+  }
+
+  // 命中后调整节点在各个队列中的位置
+  private void onAccess(Node node) {
+    if (node.queue == NONE) {
+      // evicted or not linked yet
+      return;
+    }
+    sketch.increment(node.key);
+    if (node.queue == WINDOW) {
+      window.moveToBack(node);
+    } else if (node.queue == PROBATION) {
+      probation.remove(node);
+      node.queue = PROTECTED;
+      protectedDeque.addLast(node);
+      protectedWeightedSize += node.weight;
+      // demote the least recently used protected entries back to probation
+      while (protectedWeightedSize > protectedMaximum && protectedDeque.first != node) {
+        Node demoted = protectedDeque.first;
+        protectedDeque.remove(demoted);
+        protectedWeightedSize -= demoted.weight;
+        demoted.queue = PROBATION;
+        probation.addLast(demoted);
+      }
+    } else {
+      protectedDeque.moveToBack(node);
+    }
+  }
+
+  private void evict() {
+    // entries leaving the window become candidates on probation
+    while (windowWeightedSize > windowMaximum && window.first != null) {
+      Node candidate = window.first;
+      window.remove(candidate);
+      windowWeightedSize -= candidate.weight;
+      candidate.queue = PROBATION;
+      probation.addLast(candidate);
+    }
+    while (weightedSize > maximum) {
+      Node victim = probation.first != null ? probation.first
+          : protectedDeque.first != null ? protectedDeque.first : window.first;
+      Node candidate = probation.last;
+      if (candidate != null && candidate != victim
+          && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+        // TinyLFU admission: the newcomer is not used more often than the victim
+        victim = candidate;
+      }
+      unlink(victim);
+      data.remove(victim.key, victim);
+    }
+  }
+
+  private void unlink(Node node) {
+    if (node.queue == WINDOW) {
+      window.remove(node);
+      windowWeightedSize -= node.weight;
+    } else if (node.queue == PROBATION) {
+      probation.remove(node);
+    } else if (node.queue == PROTECTED) {
+      protectedDeque.remove(node);
+      protectedWeightedSize -= node.weight;
+    } else {
+      return;
+    }
+    weightedSize -= node.weight;
+    node.queue = NONE;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private static final class Node {
+
+    final Object key;
+    final Object value;
+    final long weight;
+
+    // 以下字段都由 evictionLock 保护
+    int queue = NONE;
+    Node prev;
+    Node next;
+
+    Node(Object key, Object value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+
+  }
+
+  /**
+   * A doubly linked list of nodes in access order, least recently used first.
+   */
+  private static final class AccessOrderDeque {
+
+    Node first;
+    Node last;
+
+    void addLast(Node node) {
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+    }
+
+    void remove(Node node) {
+      if (node.prev == null) {
+        first = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+    }
+
+    void moveToBack(Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void clear() {
+      for (Node node = first; node != null;) {
+        Node next = node.next;
+        node.queue = NONE;
+        node.prev = null;
+        node.next = null;
+        node = next;
+      }
+      first = null;
+      last = null;
+    }
+
+  }
+
+  /**
+   * Striped ring buffers recording reads. A read is dropped when its stripe is full or contended.
+   */
+  private static final class ReadBuffer {
+
+    private static final int BUFFER_SIZE = 16;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final AtomicLong[] writeCounters;
+    private final AtomicLongArray readCounters;
+    private final AtomicReferenceArray<Node> buffers;
+    private final int stripeMask;
+
+    ReadBuffer() {
+      int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+      stripeMask = stripes - 1;
+      writeCounters = new AtomicLong[stripes];
+      for (int i = 0; i < stripes; i++) {
+        writeCounters[i] = new AtomicLong();
+      }
+      readCounters = new AtomicLongArray(stripes);
+      buffers = new AtomicReferenceArray<>(stripes * BUFFER_SIZE);
+    }
+
+    /**
+     * @return true if the stripe is full and should be drained
+     */
+    boolean offer(Node node) {
+      long threadId = Thread.currentThread().getId();
+      int stripe = (int) (threadId ^ (threadId >>> 16)) * 0x9E3779B9 >>> 16 & stripeMask;
+      AtomicLong writeCounter = writeCounters[stripe];
+      long tail = writeCounter.get();
+      long size = tail - readCounters.get(stripe);
+      if (size >= BUFFER_SIZE) {
+        return true;
+      }
+      if (writeCounter.compareAndSet(tail, tail + 1)) {
+        buffers.lazySet(stripe * BUFFER_SIZE + (int) (tail & BUFFER_MASK), node);
+        return size + 1 >= BUFFER_SIZE;
+      }
+      return false;
+    }
+
+    // must hold evictionLock
+    void drain(TinyLfuCache cache) {
+      for (int stripe = 0; stripe <= stripeMask; stripe++) {
+        long head = readCounters.get(stripe);
+        long tail = writeCounters[stripe].get();
+        for (; head < tail; head++) {
+          int index = stripe * BUFFER_SIZE + (int) (head & BUFFER_MASK);
+          Node node = buffers.get(index);
+          if (node == null) {
+            // the writer has not published it yet
+            break;
+          }
+          buffers.lazySet(index, null);
+          cache.onAccess(node);
+        }
+        readCounters.lazySet(stripe, head);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,817 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+import java.io.Externalizable;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * The encoding of {@link CompactSerializer}.
+ * <p>
+ * Scalars, strings, JDBC date and time types, {@code ArrayList}, {@code HashMap}, {@code HashSet} (and their linked
+ * variants), object arrays, enums, classes and serializable beans are written with a one byte tag followed by
+ * variable length numbers. A bean is written as its class, named once per stream, followed by its fields in
+ * declaration order. Shared and cyclic references are preserved. Anything else, including beans that customize their
+ * serialization, falls back to Java serialization, so the encoding accepts exactly what
+ * {@link java.io.ObjectOutputStream} accepts.
+ * <p>
+ * A {@link Writer} created for keys writes a canonical encoding instead. Shared references are written again in
+ * full and classes are named each time. Lists, sets and maps of any class are written as an {@code ArrayList}, a
+ * {@code HashSet} and a {@code HashMap}, because their {@code equals} only compares contents, and the elements of
+ * sets and maps are sorted by their encoding. Equal keys built from the types above and from beans of them then
+ * encode to equal bytes, so encoded keys can be compared byte by byte. Cyclic keys can not be encoded that way.
+ */
+// 紧凑二进制编码的实现
+final class CompactCodec {
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte SHORT = 5;
+  private static final byte BYTE = 6;
+  private static final byte CHARACTER = 7;
+  private static final byte FLOAT = 8;
+  private static final byte DOUBLE = 9;
+  private static final byte STRING = 10;
+  private static final byte BIG_DECIMAL = 11;
+  private static final byte BIG_INTEGER = 12;
+  private static final byte DATE = 13;
+  private static final byte SQL_DATE = 14;
+  private static final byte SQL_TIME = 15;
+  private static final byte SQL_TIMESTAMP = 16;
+  private static final byte LOCAL_DATE = 17;
+  private static final byte LOCAL_TIME = 18;
+  private static final byte LOCAL_DATE_TIME = 19;
+  private static final byte INSTANT = 20;
+  private static final byte BYTES = 21;
+  private static final byte ARRAY_LIST = 22;
+  private static final byte HASH_MAP = 23;
+  private static final byte LINKED_HASH_MAP = 24;
+  private static final byte HASH_SET = 25;
+  private static final byte LINKED_HASH_SET = 26;
+  private static final byte OBJECT_ARRAY = 27;
+  private static final byte ENUM = 28;
+  private static final byte BEAN = 29;
+  private static final byte REFERENCE = 30;
+  private static final byte SERIALIZED = 31;
+  private static final byte CLASS = 32;
+
+  private static final JavaSerializer javaSerializer = new JavaSerializer();
+  private static final Map<String, Class<?>> primitiveTypes = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class, void.class }) {
+      primitiveTypes.put(type.getName(), type);
+    }
+  }
+
+  private static final ConcurrentMap<Class<?>, BeanLayout> layouts = new ConcurrentHashMap<>();
+
+  private CompactCodec() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * A growable byte array the encoding is written to.
+   */
+  static final class Output {
+
+    private byte[] bytes;
+    private int size;
+
+    Output(int initialCapacity) {
+      bytes = new byte[initialCapacity];
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+
+    private void ensure(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + length));
+      }
+    }
+
+    void writeByte(int value) {
+      ensure(1);
+      bytes[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] value) {
+      ensure(value.length);
+      System.arraycopy(value, 0, bytes, size, value.length);
+      size += value.length;
+    }
+
+    void writeVarInt(int value) {
+      ensure(5);
+      while ((value & ~0x7f) != 0) {
+        bytes[size++] = (byte) (value & 0x7f | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7fL) != 0) {
+        bytes[size++] = (byte) (value & 0x7f | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeSignedVarInt(int value) {
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeSignedVarLong(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeFixedInt(int value) {
+      ensure(4);
+      bytes[size++] = (byte) (value >>> 24);
+      bytes[size++] = (byte) (value >>> 16);
+      bytes[size++] = (byte) (value >>> 8);
+      bytes[size++] = (byte) value;
+    }
+
+    void writeFixedLong(long value) {
+      writeFixedInt((int) (value >>> 32));
+      writeFixedInt((int) value);
+    }
+
+  }
+
+  /**
+   * Writes one object graph.
+   */
+  static final class Writer {
+
+    private final Output out;
+    // 键的规范编码不写引用，记录当前路径上的对象以发现循环引用
+    private final Map<Object, Boolean> path;
+    private Map<Object, Integer> handles;
+    private Map<Class<?>, Integer> classes;
+
+    Writer(Output out) {
+      this(out, false);
+    }
+
+    /**
+     * @param canonical whether to write the canonical encoding of a key
+     */
+    Writer(Output out, boolean canonical) {
+      this(out, canonical ? new IdentityHashMap<>() : null);
+    }
+
+    private Writer(Output out, Map<Object, Boolean> path) {
+      this.out = out;
+      this.path = path;
+    }
+
+    void writeObject(Object value) {
+      if (value == null) {
+        out.writeByte(NULL);
+      } else if (writeScalar(value)) {
+        return;
+      } else if (path == null) {
+        if (!writeReference(value)) {
+          writeComposite(value);
+        }
+      } else {
+        if (path.put(value, Boolean.TRUE) != null) {
+          throw new CacheException("Error serializing key.  Cause: the key contains a cyclic reference to " + value.getClass().getName());
+        }
+        try {
+          writeCanonicalComposite(value);
+        } finally {
+          path.remove(value);
+        }
+      }
+    }
+
+    private boolean writeScalar(Object value) {
+      Class<?> type = value.getClass();
+      if (type == String.class) {
+        out.writeByte(STRING);
+        writeString((String) value);
+      } else if (type == Integer.class) {
+        out.writeByte(INTEGER);
+        out.writeSignedVarInt((Integer) value);
+      } else if (type == Long.class) {
+        out.writeByte(LONG);
+        out.writeSignedVarLong((Long) value);
+      } else if (type == Boolean.class) {
+        out.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (type == BigDecimal.class) {
+        BigDecimal decimal = (BigDecimal) value;
+        out.writeByte(BIG_DECIMAL);
+        out.writeSignedVarInt(decimal.scale());
+        writeBigInteger(decimal.unscaledValue());
+      } else if (type == Double.class) {
+        out.writeByte(DOUBLE);
+        out.writeFixedLong(Double.doubleToRawLongBits((Double) value));
+      } else if (type == Timestamp.class) {
+        Timestamp timestamp = (Timestamp) value;
+        out.writeByte(SQL_TIMESTAMP);
+        out.writeSignedVarLong(timestamp.getTime());
+        out.writeVarInt(timestamp.getNanos());
+      } else if (type == java.sql.Date.class) {
+        out.writeByte(SQL_DATE);
+        out.writeSignedVarLong(((Date) value).getTime());
+      } else if (type == Date.class) {
+        out.writeByte(DATE);
+        out.writeSignedVarLong(((Date) value).getTime());
+      } else if (type == Time.class) {
+        out.writeByte(SQL_TIME);
+        out.writeSignedVarLong(((Date) value).getTime());
+      } else if (type == LocalDate.class) {
+        out.writeByte(LOCAL_DATE);
+        out.writeSignedVarLong(((LocalDate) value).toEpochDay());
+      } else if (type == LocalTime.class) {
+        out.writeByte(LOCAL_TIME);
+        out.writeVarLong(((LocalTime) value).toNanoOfDay());
+      } else if (type == LocalDateTime.class) {
+        LocalDateTime dateTime = (LocalDateTime) value;
+        out.writeByte(LOCAL_DATE_TIME);
+        out.writeSignedVarLong(dateTime.toLocalDate().toEpochDay());
+        out.writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+      } else if (type == Instant.class) {
+        Instant instant = (Instant) value;
+        out.writeByte(INSTANT);
+        out.writeSignedVarLong(instant.getEpochSecond());
+        out.writeVarInt(instant.getNano());
+      } else if (type == Short.class) {
+        out.writeByte(SHORT);
+        out.writeSignedVarInt((Short) value);
+      } else if (type == Byte.class) {
+        out.writeByte(BYTE);
+        out.writeByte((Byte) value);
+      } else if (type == Character.class) {
+        out.writeByte(CHARACTER);
+        out.writeVarInt((Character) value);
+      } else if (type == Float.class) {
+        out.writeByte(FLOAT);
+        out.writeFixedInt(Float.floatToRawIntBits((Float) value));
+      } else if (type == BigInteger.class) {
+        out.writeByte(BIG_INTEGER);
+        writeBigInteger((BigInteger) value);
+      } else if (value instanceof Enum) {
+        out.writeByte(ENUM);
+        writeClass(((Enum<?>) value).getDeclaringClass());
+        writeString(((Enum<?>) value).name());
+      } else if (type == Class.class) {
+        out.writeByte(CLASS);
+        writeClass((Class<?>) value);
+      } else {
+        return false;
+      }
+      return true;
+    }
+
+    // 已经写过的对象只写引用
+    private boolean writeReference(Object value) {
+      if (handles == null) {
+        handles = new IdentityHashMap<>();
+      }
+      Integer handle = handles.get(value);
+      if (handle != null) {
+        out.writeByte(REFERENCE);
+        out.writeVarInt(handle);
+        return true;
+      }
+      handles.put(value, handles.size());
+      return false;
+    }
+
+    private void writeComposite(Object value) {
+      Class<?> type = value.getClass();
+      if (type == ArrayList.class) {
+        out.writeByte(ARRAY_LIST);
+        writeElements((Collection<?>) value);
+      } else if (type == HashMap.class || type == LinkedHashMap.class) {
+        out.writeByte(type == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+        Map<?, ?> map = (Map<?, ?>) value;
+        out.writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          writeObject(entry.getKey());
+          writeObject(entry.getValue());
+        }
+      } else if (type == HashSet.class || type == LinkedHashSet.class) {
+        out.writeByte(type == HashSet.class ? HASH_SET : LINKED_HASH_SET);
+        writeElements((Collection<?>) value);
+      } else if (type == byte[].class) {
+        out.writeByte(BYTES);
+        out.writeVarInt(((byte[]) value).length);
+        out.writeBytes((byte[]) value);
+      } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+        Object[] array = (Object[]) value;
+        out.writeByte(OBJECT_ARRAY);
+        writeClass(type.getComponentType());
+        out.writeVarInt(array.length);
+        for (Object element : array) {
+          writeObject(element);
+        }
+      } else {
+        BeanLayout layout = layoutOf(type);
+        if (layout.constructor == null) {
+          out.writeByte(SERIALIZED);
+          byte[] bytes = javaSerializer.serialize(value);
+          out.writeVarInt(bytes.length);
+          out.writeBytes(bytes);
+        } else {
+          out.writeByte(BEAN);
+          writeClass(type);
+          writeFields(layout, value);
+        }
+      }
+    }
+
+    // List、Set 和 Map 的 equals 只比较内容，规范编码不区分实现类，写成 ArrayList、HashSet 和 HashMap
+    private void writeCanonicalComposite(Object value) {
+      if (value instanceof List) {
+        out.writeByte(ARRAY_LIST);
+        writeElements((List<?>) value);
+      } else if (value instanceof Set) {
+        out.writeByte(HASH_SET);
+        out.writeVarInt(((Set<?>) value).size());
+        writeSorted((Set<?>) value);
+      } else if (value instanceof Map) {
+        out.writeByte(HASH_MAP);
+        out.writeVarInt(((Map<?, ?>) value).size());
+        writeSorted(((Map<?, ?>) value).entrySet());
+      } else {
+        writeComposite(value);
+      }
+    }
+
+    // Set 和 Map 的迭代顺序与实现、容量和插入历史有关，规范编码按每个元素的编码排序
+    private void writeSorted(Collection<?> elements) {
+      List<byte[]> encoded = new ArrayList<>(elements.size());
+      for (Object element : elements) {
+        Output elementOut = new Output(64);
+        Writer writer = new Writer(elementOut, path);
+        if (element instanceof Map.Entry) {
+          writer.writeObject(((Map.Entry<?, ?>) element).getKey());
+          writer.writeObject(((Map.Entry<?, ?>) element).getValue());
+        } else {
+          writer.writeObject(element);
+        }
+        encoded.add(elementOut.toByteArray());
+      }
+      encoded.sort(CompactCodec::compareBytes);
+      for (byte[] bytes : encoded) {
+        out.writeBytes(bytes);
+      }
+    }
+
+    private void writeElements(Collection<?> collection) {
+      out.writeVarInt(collection.size());
+      for (Object element : collection) {
+        writeObject(element);
+      }
+    }
+
+    private void writeFields(BeanLayout layout, Object bean) {
+      try {
+        for (Field field : layout.fields) {
+          Class<?> type = field.getType();
+          if (!type.isPrimitive()) {
+            writeObject(field.get(bean));
+          } else if (type == int.class) {
+            out.writeSignedVarInt(field.getInt(bean));
+          } else if (type == long.class) {
+            out.writeSignedVarLong(field.getLong(bean));
+          } else if (type == boolean.class) {
+            out.writeByte(field.getBoolean(bean) ? 1 : 0);
+          } else if (type == double.class) {
+            out.writeFixedLong(Double.doubleToRawLongBits(field.getDouble(bean)));
+          } else if (type == float.class) {
+            out.writeFixedInt(Float.floatToRawIntBits(field.getFloat(bean)));
+          } else if (type == short.class) {
+            out.writeSignedVarInt(field.getShort(bean));
+          } else if (type == char.class) {
+            out.writeVarInt(field.getChar(bean));
+          } else {
+            out.writeByte(field.getByte(bean));
+          }
+        }
+      } catch (IllegalAccessException e) {
+        throw new CacheException("Error serializing object.  Cause: " + e, e);
+      }
+    }
+
+    private void writeClass(Class<?> type) {
+      if (path != null) {
+        // 规范编码每次都写类名，不依赖之前写过哪些类
+        out.writeVarInt(0);
+        writeString(type.getName());
+        return;
+      }
+      if (classes == null) {
+        classes = new HashMap<>();
+      }
+      Integer index = classes.get(type);
+      if (index != null) {
+        out.writeVarInt(index + 1);
+      } else {
+        classes.put(type, classes.size());
+        out.writeVarInt(0);
+        writeString(type.getName());
+      }
+    }
+
+    private void writeString(String value) {
+      int length = value.length();
+      out.writeVarInt(length);
+      for (int i = 0; i < length; i++) {
+        out.writeVarInt(value.charAt(i));
+      }
+    }
+
+    private void writeBigInteger(BigInteger value) {
+      byte[] bytes = value.toByteArray();
+      out.writeVarInt(bytes.length);
+      out.writeBytes(bytes);
+    }
+
+  }
+
+  /**
+   * Reads one object graph.
+   */
+  static final class Reader {
+
+    private final ByteBuffer in;
+    private final List<Object> handles = new ArrayList<>();
+    private List<Class<?>> classes;
+
+    Reader(ByteBuffer in) {
+      this.in = in;
+    }
+
+    Object readObject() {
+      byte tag = in.get();
+      switch (tag) {
+        case NULL:
+          return null;
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INTEGER:
+          return readSignedVarInt();
+        case LONG:
+          return readSignedVarLong();
+        case SHORT:
+          return (short) readSignedVarInt();
+        case BYTE:
+          return in.get();
+        case CHARACTER:
+          return (char) readVarInt();
+        case FLOAT:
+          return Float.intBitsToFloat(in.getInt());
+        case DOUBLE:
+          return Double.longBitsToDouble(in.getLong());
+        case STRING:
+          return readString();
+        case BIG_DECIMAL:
+          int scale = readSignedVarInt();
+          return new BigDecimal(readBigInteger(), scale);
+        case BIG_INTEGER:
+          return readBigInteger();
+        case DATE:
+          return new Date(readSignedVarLong());
+        case SQL_DATE:
+          return new java.sql.Date(readSignedVarLong());
+        case SQL_TIME:
+          return new Time(readSignedVarLong());
+        case SQL_TIMESTAMP:
+          Timestamp timestamp = new Timestamp(readSignedVarLong());
+          timestamp.setNanos(readVarInt());
+          return timestamp;
+        case LOCAL_DATE:
+          return LocalDate.ofEpochDay(readSignedVarLong());
+        case LOCAL_TIME:
+          return LocalTime.ofNanoOfDay(readVarLong());
+        case LOCAL_DATE_TIME:
+          LocalDate date = LocalDate.ofEpochDay(readSignedVarLong());
+          return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong()));
+        case INSTANT:
+          long seconds = readSignedVarLong();
+          return Instant.ofEpochSecond(seconds, readVarInt());
+        case ENUM:
+          return readEnum();
+        case CLASS:
+          return readClass();
+        case REFERENCE:
+          return handles.get(readVarInt());
+        default:
+          return readComposite(tag);
+      }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object readEnum() {
+      Class enumType = readClass();
+      return Enum.valueOf(enumType, readString());
+    }
+
+    private Object readComposite(byte tag) {
+      switch (tag) {
+        case ARRAY_LIST:
+          int size = readVarInt();
+          return readElements(new ArrayList<>(size), size);
+        case HASH_SET:
+          size = readVarInt();
+          return readElements(new HashSet<>(capacityFor(size)), size);
+        case LINKED_HASH_SET:
+          size = readVarInt();
+          return readElements(new LinkedHashSet<>(capacityFor(size)), size);
+        case HASH_MAP:
+          size = readVarInt();
+          return readEntries(new HashMap<>(capacityFor(size)), size);
+        case LINKED_HASH_MAP:
+          size = readVarInt();
+          return readEntries(new LinkedHashMap<>(capacityFor(size)), size);
+        case BYTES:
+          byte[] bytes = new byte[readVarInt()];
+          in.get(bytes);
+          handles.add(bytes);
+          return bytes;
+        case OBJECT_ARRAY:
+          Class<?> componentType = readClass();
+          Object[] array = (Object[]) Array.newInstance(componentType, readVarInt());
+          handles.add(array);
+          for (int i = 0; i < array.length; i++) {
+            array[i] = readObject();
+          }
+          return array;
+        case BEAN:
+          return readBean();
+        case SERIALIZED:
+          bytes = new byte[readVarInt()];
+          in.get(bytes);
+          Object value = javaSerializer.deserialize(bytes);
+          handles.add(value);
+          return value;
+        default:
+          throw new CacheException("Error deserializing object.  Cause: unknown tag " + tag);
+      }
+    }
+
+    private Collection<Object> readElements(Collection<Object> collection, int size) {
+      handles.add(collection);
+      for (int i = 0; i < size; i++) {
+        collection.add(readObject());
+      }
+      return collection;
+    }
+
+    private Map<Object, Object> readEntries(Map<Object, Object> map, int size) {
+      handles.add(map);
+      for (int i = 0; i < size; i++) {
+        Object key = readObject();
+        map.put(key, readObject());
+      }
+      return map;
+    }
+
+    private Object readBean() {
+      BeanLayout layout = layoutOf(readClass());
+      try {
+        Object bean = layout.constructor.newInstance();
+        handles.add(bean);
+        for (Field field : layout.fields) {
+          Class<?> type = field.getType();
+          if (!type.isPrimitive()) {
+            field.set(bean, readObject());
+          } else if (type == int.class) {
+            field.setInt(bean, readSignedVarInt());
+          } else if (type == long.class) {
+            field.setLong(bean, readSignedVarLong());
+          } else if (type == boolean.class) {
+            field.setBoolean(bean, in.get() != 0);
+          } else if (type == double.class) {
+            field.setDouble(bean, Double.longBitsToDouble(in.getLong()));
+          } else if (type == float.class) {
+            field.setFloat(bean, Float.intBitsToFloat(in.getInt()));
+          } else if (type == short.class) {
+            field.setShort(bean, (short) readSignedVarInt());
+          } else if (type == char.class) {
+            field.setChar(bean, (char) readVarInt());
+          } else {
+            field.setByte(bean, in.get());
+          }
+        }
+        return bean;
+      } catch (ReflectiveOperationException | IllegalArgumentException e) {
+        throw new CacheException("Error deserializing object.  Cause: " + e, e);
+      }
+    }
+
+    private Class<?> readClass() {
+      if (classes == null) {
+        classes = new ArrayList<>();
+      }
+      int index = readVarInt();
+      if (index > 0) {
+        return classes.get(index - 1);
+      }
+      String name = readString();
+      try {
+        Class<?> type = primitiveTypes.get(name);
+        if (type == null) {
+          type = Resources.classForName(name);
+        }
+        classes.add(type);
+        return type;
+      } catch (ClassNotFoundException e) {
+        throw new CacheException("Error deserializing object.  Cause: " + e, e);
+      }
+    }
+
+    private String readString() {
+      int length = readVarInt();
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        chars[i] = (char) readVarInt();
+      }
+      return new String(chars);
+    }
+
+    private BigInteger readBigInteger() {
+      byte[] bytes = new byte[readVarInt()];
+      in.get(bytes);
+      return new BigInteger(bytes);
+    }
+
+    private int readVarInt() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = in.get();
+        value |= (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = in.get();
+        value |= (long) (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+
+    private int readSignedVarInt() {
+      int value = readVarInt();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readSignedVarLong() {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int capacityFor(int size) {
+      return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+
+  }
+
+  /**
+   * The fields of a bean class, or no constructor if instances must go through Java serialization.
+   */
+  private static final class BeanLayout {
+
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+
+    BeanLayout(Constructor<?> constructor, Field[] fields) {
+      this.constructor = constructor;
+      this.fields = fields;
+    }
+
+  }
+
+  private static int compareBytes(byte[] a, byte[] b) {
+    int length = Math.min(a.length, b.length);
+    for (int i = 0; i < length; i++) {
+      int result = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
+  private static BeanLayout layoutOf(Class<?> type) {
+    return layouts.computeIfAbsent(type, CompactCodec::createLayout);
+  }
+
+  // 只有"普通"的可序列化 Bean 才按字段编码，其余交给 Java 序列化
+  private static BeanLayout createLayout(Class<?> type) {
+    BeanLayout serialized = new BeanLayout(null, null);
+    if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type)
+        || Proxy.isProxyClass(type) || type.isArray()) {
+      return serialized;
+    }
+    List<Field> fields = new ArrayList<>();
+    try {
+      for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+        if (isJdkClass(c) || customizesSerialization(c)) {
+          return serialized;
+        }
+        List<Field> declared = new ArrayList<>();
+        for (Field field : c.getDeclaredFields()) {
+          int modifiers = field.getModifiers();
+          if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+            field.setAccessible(true);
+            declared.add(field);
+          }
+        }
+        // superclass fields first, like Java serialization
+        fields.addAll(0, declared);
+      }
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return new BeanLayout(constructor, fields.toArray(new Field[0]));
+    } catch (NoSuchMethodException | RuntimeException e) {
+      return serialized;
+    }
+  }
+
+  private static boolean isJdkClass(Class<?> type) {
+    String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.");
+  }
+
+  private static boolean customizesSerialization(Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      String name = method.getName();
+      if (!Modifier.isStatic(method.getModifiers())
+          && ("writeObject".equals(name) || "readObject".equals(name) || "readObjectNoData".equals(name)
+              || "writeReplace".equals(name) || "readResolve".equals(name))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
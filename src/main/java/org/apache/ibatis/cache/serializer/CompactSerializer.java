@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes objects with a compact binary encoding, without the overhead of {@link java.io.ObjectOutputStream}
+ * for the usual shapes of query results.
+ * <p>
+ * Scalars, strings, JDBC date and time types, lists, sets and maps from {@code java.util}, arrays, enums and
+ * serializable beans are encoded directly. Anything else falls back to Java serialization. A bean is encoded field by
+ * field, unless it or one of its superclasses defines {@code writeObject}, {@code readObject}, {@code writeReplace}
+ * or {@code readResolve}, or it has no no-argument constructor. When decoding, beans are created with their
+ * no-argument constructor, so, unlike with Java serialization, transient fields keep the values it assigns.
+ */
+// 紧凑二进制编码的序列化器
+public class CompactSerializer implements Serializer {
+
+  @Override
+  public byte[] serialize(Object object) {
+    CompactCodec.Output out = new CompactCodec.Output(256);
+    new CompactCodec.Writer(out).writeObject(object);
+    return out.toByteArray();
+  }
+
+  /**
+   * Encodes a cache key so that equal keys encode to equal bytes: shared references are not preserved, lists, sets
+   * and maps are written as {@code ArrayList}, {@code HashSet} and {@code HashMap}, and the contents of sets and maps
+   * are sorted. The bytes are decoded by {@link #deserialize(byte[])}.
+   *
+   * @throws org.apache.ibatis.cache.CacheException if the key contains a cyclic reference
+   * @since 3.5.4
+   */
+  public byte[] serializeKey(Object key) {
+    CompactCodec.Output out = new CompactCodec.Output(256);
+    new CompactCodec.Writer(out, true).writeObject(key);
+    return out.toByteArray();
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) {
+    return new CompactCodec.Reader(ByteBuffer.wrap(bytes)).readObject();
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+/**
+ * Turns objects into bytes and back.
+ * <p>
+ * A serializer is used by read-write caches to copy cached results, and to serialize the state of lazy loading
+ * proxies. Implementations must be thread safe. Those used for lazy loading proxies also need a public no-argument
+ * constructor, because the serializer is created again by class name when the proxy is deserialized.
+ *
+ * @see JavaSerializer
+ * @see CompactSerializer
+ */
+// 序列化器接口
+public interface Serializer {
+
+  /**
+   * @param object the object to serialize, may be null
+   * @return the serialized form of the object
+   * @throws org.apache.ibatis.cache.CacheException if the object cannot be serialized
+   */
+  byte[] serialize(Object object);
+
+  /**
+   * @param bytes bytes returned by {@link #serialize(Object)}
+   * @return a copy of the serialized object
+   * @throws org.apache.ibatis.cache.CacheException if the bytes cannot be deserialized
+   */
+  Object deserialize(byte[] bytes);
+
+}
@@ -0,0 +1,238 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free container for the connections of a {@link ConcurrentPooledDataSource}.
+ * <p>
+ * A borrower first tries the connections its own thread returned most recently, then scans the shared list and
+ * finally waits on a fair hand-off queue, so that a returning thread passes its connection straight to the
+ * longest waiting borrower.
+ */
+// 无锁的连接容器：线程本地亲和 + 共享列表 + 公平的交接队列
+class ConcurrentConnectionBag {
+
+  static final int STATE_REMOVED = -1;
+  static final int STATE_NOT_IN_USE = 0;
+  static final int STATE_IN_USE = 1;
+
+  private static final int THREAD_LOCAL_LIST_SIZE = 16;
+
+  private final CopyOnWriteArrayList<Entry> sharedList = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<List<WeakReference<Entry>>> threadList = ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LOCAL_LIST_SIZE));
+  private final SynchronousQueue<Entry> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+
+  /**
+   * A physical connection held by the bag.
+   */
+  static final class Entry {
+
+    final Connection realConnection;
+    final long createdTimestamp;
+    volatile long lastUsedTimestamp;
+    volatile long lastValidatedTimestamp;
+    final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+    // 当前借出的 PooledConnection，归还或被回收时置换
+    final AtomicReference<PooledConnection> borrowed = new AtomicReference<>();
+
+    Entry(Connection realConnection) {
+      this.realConnection = realConnection;
+      this.createdTimestamp = System.currentTimeMillis();
+      this.lastUsedTimestamp = createdTimestamp;
+    }
+
+  }
+
+  /**
+   * Takes an idle connection without blocking.
+   *
+   * @return the reserved entry, or null if every connection is in use
+   */
+  Entry borrow() {
+    // 优先使用当前线程最近归还的连接
+    List<WeakReference<Entry>> local = threadList.get();
+    for (int i = local.size() - 1; i >= 0; i--) {
+      Entry entry = local.remove(i).get();
+      if (entry != null && entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        return entry;
+      }
+    }
+    for (Entry entry : sharedList) {
+      if (entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes the given connection if it is idle.
+   *
+   * @param entry the entry to reserve
+   * @return true if the caller now holds the entry
+   */
+  boolean reserve(Entry entry) {
+    return entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE);
+  }
+
+  /**
+   * Waits for a connection to be handed off by another thread.
+   *
+   * @param timeoutMillis the maximum time to wait, or zero (or less) to wait indefinitely
+   * @return the reserved entry, or null if the timeout elapsed
+   * @throws InterruptedException if the current thread was interrupted while waiting
+   */
+  Entry await(long timeoutMillis) throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      // a connection may have been returned before this thread was registered as a waiter
+      Entry entry = borrow();
+      if (entry != null) {
+        return entry;
+      }
+      if (timeoutMillis <= 0) {
+        while (true) {
+          entry = handoffQueue.take();
+          if (entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+            return entry;
+          }
+        }
+      }
+      long timeout = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      final long deadline = System.nanoTime() + timeout;
+      do {
+        entry = handoffQueue.poll(timeout, TimeUnit.NANOSECONDS);
+        if (entry == null) {
+          return null;
+        }
+        if (entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+          return entry;
+        }
+        timeout = deadline - System.nanoTime();
+      } while (timeout > 0);
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns a borrowed connection, handing it off to a waiting thread if there is one.
+   *
+   * @param entry the entry to return
+   */
+  void requite(Entry entry) {
+    if (!entry.state.compareAndSet(STATE_IN_USE, STATE_NOT_IN_USE)) {
+      // removed while it was being returned
+      return;
+    }
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.state.get() != STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+        return;
+      } else if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+    List<WeakReference<Entry>> local = threadList.get();
+    if (local.size() >= THREAD_LOCAL_LIST_SIZE) {
+      local.remove(0);
+    }
+    local.add(new WeakReference<>(entry));
+  }
+
+  /**
+   * Reserves room for a new connection.
+   *
+   * @param maximum the maximum number of connections the bag may hold
+   * @return true if the caller may open a new connection and {@link #add(Entry)} it
+   */
+  boolean reserve(int maximum) {
+    while (true) {
+      int total = totalConnections.get();
+      if (total >= maximum) {
+        return false;
+      }
+      if (totalConnections.compareAndSet(total, total + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases room reserved by {@link #reserve(int)} when opening the connection failed.
+   */
+  void release() {
+    totalConnections.decrementAndGet();
+  }
+
+  /**
+   * Adds a newly opened connection, which stays in use by the thread that opened it.
+   *
+   * @param entry the entry to add
+   */
+  void add(Entry entry) {
+    sharedList.add(entry);
+  }
+
+  /**
+   * Removes a connection from the bag.
+   *
+   * @param entry the entry to remove
+   * @return true if this call removed the entry, false if it had already been removed
+   */
+  boolean remove(Entry entry) {
+    if (entry.state.getAndSet(STATE_REMOVED) == STATE_REMOVED) {
+      return false;
+    }
+    sharedList.remove(entry);
+    totalConnections.decrementAndGet();
+    return true;
+  }
+
+  List<Entry> values() {
+    return sharedList;
+  }
+
+  int getWaitingCount() {
+    return waiters.get();
+  }
+
+  int getCount(int state) {
+    int count = 0;
+    for (Entry entry : sharedList) {
+      if (entry.state.get() == state) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+}
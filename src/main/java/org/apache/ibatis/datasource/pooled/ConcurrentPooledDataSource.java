@@ -0,0 +1,364 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.apache.ibatis.datasource.pooled.ConcurrentConnectionBag.Entry;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A {@link PooledDataSource} that checks connections out and in without a pool wide lock.
+ * <p>
+ * It accepts the same configuration as {@link PooledDataSource}. Connections are kept in a
+ * {@link ConcurrentConnectionBag}, statistics are updated without locking and threads that have to wait are
+ * served in arrival order.
+ *
+ * @see PooledDataSourceFactory
+ */
+// 并发池化的数据源，获取与归还连接时不再竞争 PoolState 的锁
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private final ConcurrentConnectionBag bag = new ConcurrentConnectionBag();
+  private final ConcurrentPoolState state = new ConcurrentPoolState(this, bag);
+
+  public ConcurrentPooledDataSource() {
+    super();
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    super(driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    super(driver, url, driverProperties);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    super(driverClassLoader, driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    super(driverClassLoader, driver, url, driverProperties);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return popConnection(username, password).getProxyConnection();
+  }
+
+  @Override
+  public PoolState getPoolState() {
+    return state;
+  }
+
+  /**
+   * Closes all active and idle connections in the pool.
+   */
+  @Override
+  public void forceCloseAll() {
+    expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    for (Entry entry : bag.values()) {
+      if (bag.remove(entry)) {
+        PooledConnection conn = entry.borrowed.getAndSet(null);
+        if (conn != null) {
+          conn.invalidate();
+        }
+        closeQuietly(entry.realConnection);
+      }
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("PooledDataSource forcefully closed/removed all connections.");
+    }
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    Entry entry = ((BorrowedConnection) conn).entry;
+    // 连接已被当作超时连接回收，或者已被 forceCloseAll 关闭
+    if (!entry.borrowed.compareAndSet(conn, null)) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCounter.increment();
+      return;
+    }
+    if (!conn.isValid()) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCounter.increment();
+      conn.invalidate();
+      discard(entry);
+      return;
+    }
+    state.checkoutTime.add(conn.getCheckoutTime());
+    conn.invalidate();
+    entry.lastUsedTimestamp = conn.getLastUsedTimestamp();
+    entry.lastValidatedTimestamp = conn.getLastValidatedTimestamp();
+    Connection realConn = entry.realConnection;
+    if (conn.getConnectionTypeCode() == expectedConnectionTypeCode
+        && (bag.getWaitingCount() > 0 || bag.getCount(ConcurrentConnectionBag.STATE_NOT_IN_USE) < poolMaximumIdleConnections)) {
+      try {
+        if (!realConn.getAutoCommit()) {
+          realConn.rollback();
+        }
+      } catch (SQLException e) {
+        discard(entry);
+        throw e;
+      }
+      bag.requite(entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Returned connection " + conn.getRealHashCode() + " to pool.");
+      }
+    } else {
+      if (bag.remove(entry)) {
+        try {
+          if (!realConn.getAutoCommit()) {
+            realConn.rollback();
+          }
+        } finally {
+          realConn.close();
+        }
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("Closed connection " + conn.getRealHashCode() + ".");
+      }
+    }
+  }
+
+  // 获取一个池化的连接对象
+  private PooledConnection popConnection(String username, String password) throws SQLException {
+    boolean countedWait = false;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+    startMaintainer();
+
+    while (true) {
+      PooledConnection conn = null;
+      // 依次尝试：空闲连接、新建连接
+      Entry entry = bag.borrow();
+      if (entry == null) {
+        entry = createEntry();
+      }
+      if (entry != null) {
+        conn = new BorrowedConnection(entry, this);
+        entry.borrowed.set(conn);
+      } else {
+        // 回收超时未归还的连接
+        conn = claimOverdueConnection();
+      }
+      if (conn == null) {
+        // Must wait
+        if (!countedWait) {
+          state.hadToWaitCounter.increment();
+          countedWait = true;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+        }
+        long wt = System.currentTimeMillis();
+        try {
+          entry = bag.await(poolTimeToWait);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException("PooledDataSource: Interrupted while waiting for a connection.", e);
+        } finally {
+          state.waitTime.add(System.currentTimeMillis() - wt);
+        }
+        if (entry == null) {
+          continue;
+        }
+        conn = new BorrowedConnection(entry, this);
+        entry.borrowed.set(conn);
+      }
+
+      // ping to server and check the connection is valid or not
+      if (conn.isValid()) {
+        try {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+        } catch (SQLException e) {
+          discard(((BorrowedConnection) conn).entry);
+          throw e;
+        }
+        conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+        conn.setCheckoutTimestamp(System.currentTimeMillis());
+        conn.setLastUsedTimestamp(System.currentTimeMillis());
+        state.requestCounter.increment();
+        state.requestTime.add(System.currentTimeMillis() - t);
+        return conn;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+      }
+      state.badConnectionCounter.increment();
+      localBadConnectionCount++;
+      discard(((BorrowedConnection) conn).entry);
+      if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+        if (log.isDebugEnabled()) {
+          log.debug("PooledDataSource: Could not get a good connection to the database.");
+        }
+        throw new SQLException("PooledDataSource: Could not get a good connection to the database.");
+      }
+    }
+  }
+
+  @Override
+  protected void maintainIdleConnections() {
+    int idleCount = bag.getCount(ConcurrentConnectionBag.STATE_NOT_IN_USE);
+    for (Entry entry : bag.values()) {
+      if (!bag.reserve(entry)) {
+        continue;
+      }
+      // 先占用该空闲连接，检查期间不会被检出
+      PooledConnection conn = new BorrowedConnection(entry, this);
+      if (isExpired(conn, idleCount)) {
+        idleCount--;
+        discard(entry);
+        if (log.isDebugEnabled()) {
+          log.debug("Closed idle connection " + conn.getRealHashCode() + ".");
+        }
+      } else if (isPingDue(conn) && !conn.isValid()) {
+        idleCount--;
+        state.badConnectionCounter.increment();
+        discard(entry);
+      } else {
+        entry.lastValidatedTimestamp = conn.getLastValidatedTimestamp();
+        bag.requite(entry);
+      }
+    }
+    int minimumIdle = Math.min(poolMinimumIdleConnections, poolMaximumIdleConnections);
+    while (bag.getCount(ConcurrentConnectionBag.STATE_NOT_IN_USE) < minimumIdle) {
+      Entry entry;
+      try {
+        entry = createEntry();
+      } catch (SQLException e) {
+        log.warn("Could not open a connection to keep the pool warm: " + e.getMessage());
+        return;
+      }
+      if (entry == null) {
+        return;
+      }
+      bag.requite(entry);
+    }
+  }
+
+  private Entry createEntry() throws SQLException {
+    if (!bag.reserve(poolMaximumActiveConnections)) {
+      return null;
+    }
+    Entry entry;
+    try {
+      entry = new Entry(dataSource.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      bag.release();
+      throw e;
+    }
+    bag.add(entry);
+    if (log.isDebugEnabled()) {
+      log.debug("Created connection " + entry.realConnection.hashCode() + ".");
+    }
+    return entry;
+  }
+
+  private PooledConnection claimOverdueConnection() {
+    for (Entry entry : bag.values()) {
+      PooledConnection overdue = entry.borrowed.get();
+      if (overdue == null) {
+        continue;
+      }
+      long longestCheckoutTime = overdue.getCheckoutTime();
+      if (longestCheckoutTime > poolMaximumCheckoutTime) {
+        PooledConnection conn = new BorrowedConnection(entry, this);
+        if (!entry.borrowed.compareAndSet(overdue, conn)) {
+          continue;
+        }
+        // Can claim overdue connection
+        state.claimedOverdueCounter.increment();
+        state.overdueCheckoutTime.add(longestCheckoutTime);
+        state.checkoutTime.add(longestCheckoutTime);
+        overdue.invalidate();
+        try {
+          if (!entry.realConnection.getAutoCommit()) {
+            entry.realConnection.rollback();
+          }
+        } catch (SQLException e) {
+          // the connection is validated by the caller, just like a bad idle connection
+          log.debug("Bad connection. Could not roll back");
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+        }
+        return conn;
+      }
+    }
+    return null;
+  }
+
+  private void discard(Entry entry) {
+    if (bag.remove(entry)) {
+      closeQuietly(entry.realConnection);
+    }
+  }
+
+  private void closeQuietly(Connection realConn) {
+    try {
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  /**
+   * A checked out connection, remembering the bag entry it belongs to.
+   */
+  private static final class BorrowedConnection extends PooledConnection {
+
+    private final Entry entry;
+
+    BorrowedConnection(Entry entry, PooledDataSource dataSource) {
+      super(entry.realConnection, dataSource);
+      this.entry = entry;
+      setCreatedTimestamp(entry.createdTimestamp);
+      setLastUsedTimestamp(entry.lastUsedTimestamp);
+      setLastValidatedTimestamp(entry.lastValidatedTimestamp);
+      // must not look overdue before the borrower has finished checking it out
+      setCheckoutTimestamp(System.currentTimeMillis());
+    }
+
+  }
+
+}
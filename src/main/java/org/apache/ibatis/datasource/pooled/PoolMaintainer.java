@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Runs {@link PooledDataSource#maintainIdleConnections()} on a daemon thread.
+ * <p>
+ * Only a weak reference to the data source is kept, so a running maintainer does not prevent
+ * an abandoned data source from being collected; the thread stops once it has been.
+ */
+// 连接池的后台维护线程
+class PoolMaintainer {
+
+  private static final Log log = LogFactory.getLog(PoolMaintainer.class);
+
+  private static final AtomicInteger threadNumber = new AtomicInteger();
+
+  private final WeakReference<PooledDataSource> dataSource;
+  private volatile ScheduledExecutorService executor;
+
+  PoolMaintainer(PooledDataSource dataSource) {
+    this.dataSource = new WeakReference<>(dataSource);
+  }
+
+  boolean isRunning() {
+    return executor != null;
+  }
+
+  synchronized void start(long intervalMillis) {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-pool-maintainer-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::run, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  synchronized void stop() {
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  private void run() {
+    PooledDataSource pooledDataSource = dataSource.get();
+    if (pooledDataSource == null) {
+      stop();
+      return;
+    }
+    try {
+      pooledDataSource.maintainIdleConnections();
+    } catch (Exception e) {
+      // keep the schedule alive, the next run may succeed
+      log.warn("Pool maintenance failed. Cause: " + e);
+    }
+  }
+
+}
@@ -22,6 +22,9 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Logger;
 
@@ -45,7 +48,7 @@ public class PooledDataSource implements DataSource {
   private final PoolState state = new PoolState(this);
 
   // 非池化数据库对象
-  private final UnpooledDataSource dataSource;
+  protected final UnpooledDataSource dataSource;
 
   // OPTIONAL CONFIGURATION FIELDS
   // 可以配置的关键属性
@@ -66,8 +69,18 @@ public class PooledDataSource implements DataSource {
   protected boolean poolPingEnabled;
   // 侦测频率
   protected int poolPingConnectionsNotUsedFor;
+  // 后台维护线程保持的最小空闲连接数
+  protected int poolMinimumIdleConnections;
+  // 空闲连接的最大空闲时间，超过后由后台维护线程关闭
+  protected int poolMaximumIdleTime;
+  // 连接的最大存活时间，超过后由后台维护线程关闭
+  protected int poolMaximumLifetime;
+  // 后台维护线程的执行间隔，0 表示不启用
+  protected int poolMaintenanceInterval;
 
-  private int expectedConnectionTypeCode;
+  protected int expectedConnectionTypeCode;
+
+  private final PoolMaintainer maintainer = new PoolMaintainer(this);
 
   public PooledDataSource() {
     dataSource = new UnpooledDataSource();
@@ -260,6 +273,50 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The number of idle connections the pool maintainer keeps open.
+   *
+   * @param poolMinimumIdleConnections the minimum number of idle connections
+   * @since 3.5.4
+   */
+  public void setPoolMinimumIdleConnections(int poolMinimumIdleConnections) {
+    this.poolMinimumIdleConnections = poolMinimumIdleConnections;
+  }
+
+  /**
+   * The time after which the pool maintainer closes an idle connection, as long as
+   * more than the minimum number of idle connections remain.
+   *
+   * @param milliseconds the maximum idle time, or 0 to keep idle connections open
+   * @since 3.5.4
+   */
+  public void setPoolMaximumIdleTime(int milliseconds) {
+    this.poolMaximumIdleTime = milliseconds;
+  }
+
+  /**
+   * The time after which the pool maintainer closes an idle connection regardless of use.
+   *
+   * @param milliseconds the maximum lifetime, or 0 to keep connections open
+   * @since 3.5.4
+   */
+  public void setPoolMaximumLifetime(int milliseconds) {
+    this.poolMaximumLifetime = milliseconds;
+  }
+
+  /**
+   * How often the pool maintainer runs. The maintainer is a background thread, started on the
+   * first checkout, that validates idle connections, closes expired ones and opens new ones
+   * until the minimum number of idle connections is reached.
+   *
+   * @param milliseconds the time between runs, or 0 to disable the maintainer
+   * @since 3.5.4
+   */
+  public void setPoolMaintenanceInterval(int milliseconds) {
+    this.poolMaintenanceInterval = milliseconds;
+    maintainer.stop();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -327,6 +384,34 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public int getPoolMinimumIdleConnections() {
+    return poolMinimumIdleConnections;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getPoolMaximumIdleTime() {
+    return poolMaximumIdleTime;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getPoolMaximumLifetime() {
+    return poolMaximumLifetime;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getPoolMaintenanceInterval() {
+    return poolMaintenanceInterval;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -371,7 +456,7 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  protected int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
@@ -389,6 +474,7 @@ public class PooledDataSource implements DataSource {
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+          newConn.setLastValidatedTimestamp(conn.getLastValidatedTimestamp());
           conn.invalidate();
           if (log.isDebugEnabled()) {
             log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
@@ -420,6 +506,7 @@ public class PooledDataSource implements DataSource {
     PooledConnection conn = null;
     long t = System.currentTimeMillis();
     int localBadConnectionCount = 0;
+    startMaintainer();
 
     // 开始循环，获取可以用的连接
     while (conn == null) {
@@ -471,6 +558,7 @@ public class PooledDataSource implements DataSource {
               conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+              conn.setLastValidatedTimestamp(oldestActiveConnection.getLastValidatedTimestamp());
               oldestActiveConnection.invalidate();
               if (log.isDebugEnabled()) {
                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
@@ -555,7 +643,8 @@ public class PooledDataSource implements DataSource {
 
     if (result) {
       if (poolPingEnabled) {
-        if (poolPingConnectionsNotUsedFor >= 0 && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor) {
+        if (poolPingConnectionsNotUsedFor >= 0 && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor
+            && conn.getTimeElapsedSinceLastValidation() > poolPingConnectionsNotUsedFor) {
           try {
             if (log.isDebugEnabled()) {
               log.debug("Testing connection " + conn.getRealHashCode() + " ...");
@@ -568,6 +657,7 @@ public class PooledDataSource implements DataSource {
               realConn.rollback();
             }
             result = true;
+            conn.setLastValidatedTimestamp(System.currentTimeMillis());
             if (log.isDebugEnabled()) {
               log.debug("Connection " + conn.getRealHashCode() + " is GOOD!");
             }
@@ -589,6 +679,138 @@ public class PooledDataSource implements DataSource {
     return result;
   }
 
+  /**
+   * Starts the pool maintainer if it is enabled and not running yet.
+   */
+  protected void startMaintainer() {
+    if (poolMaintenanceInterval > 0 && !maintainer.isRunning()) {
+      maintainer.start(poolMaintenanceInterval);
+    }
+  }
+
+  /**
+   * Called periodically by the pool maintainer, off the checkout path. Closes idle connections
+   * that have expired, pings the remaining ones and opens new connections until there are
+   * {@code poolMinimumIdleConnections} idle connections.
+   */
+  // 后台维护：淘汰过期的空闲连接、侦测空闲连接、预热最小空闲连接
+  protected void maintainIdleConnections() {
+    List<PooledConnection> expired = new ArrayList<>();
+    List<PooledConnection> checking = new ArrayList<>();
+    synchronized (state) {
+      int idleCount = state.idleConnections.size();
+      for (Iterator<PooledConnection> it = state.idleConnections.iterator(); it.hasNext();) {
+        PooledConnection conn = it.next();
+        if (isExpired(conn, idleCount)) {
+          it.remove();
+          idleCount--;
+          expired.add(conn);
+        } else if (isPingDue(conn)) {
+          // 侦测期间当作活跃连接，避免被检出，同时也计入最大活跃连接数
+          it.remove();
+          conn.setCheckoutTimestamp(System.currentTimeMillis());
+          state.activeConnections.add(conn);
+          checking.add(conn);
+        }
+      }
+    }
+    for (PooledConnection conn : expired) {
+      closeIdleConnection(conn);
+    }
+    for (PooledConnection conn : checking) {
+      boolean valid = conn.isValid();
+      synchronized (state) {
+        if (!state.activeConnections.remove(conn)) {
+          // closed by forceCloseAll in the meantime
+          continue;
+        }
+        if (valid && state.idleConnections.size() < poolMaximumIdleConnections) {
+          state.idleConnections.add(conn);
+          state.notifyAll();
+          continue;
+        }
+        if (!valid) {
+          state.badConnectionCount++;
+        }
+      }
+      closeIdleConnection(conn);
+    }
+    int minimumIdle = Math.min(poolMinimumIdleConnections, poolMaximumIdleConnections);
+    while (true) {
+      synchronized (state) {
+        if (state.idleConnections.size() >= minimumIdle
+            || state.idleConnections.size() + state.activeConnections.size() >= poolMaximumActiveConnections) {
+          return;
+        }
+      }
+      PooledConnection conn;
+      try {
+        conn = new PooledConnection(dataSource.getConnection(), this);
+      } catch (SQLException e) {
+        log.warn("Could not open a connection to keep the pool warm: " + e.getMessage());
+        return;
+      }
+      conn.setConnectionTypeCode(expectedConnectionTypeCode);
+      synchronized (state) {
+        if (state.idleConnections.size() < minimumIdle
+            && state.idleConnections.size() + state.activeConnections.size() < poolMaximumActiveConnections) {
+          state.idleConnections.add(conn);
+          state.notifyAll();
+          if (log.isDebugEnabled()) {
+            log.debug("Created idle connection " + conn.getRealHashCode() + ".");
+          }
+          continue;
+        }
+      }
+      closeIdleConnection(conn);
+      return;
+    }
+  }
+
+  /**
+   * Whether the pool maintainer should close an idle connection.
+   *
+   * @param conn the idle connection
+   * @param idleCount the current number of idle connections
+   * @return true if the connection has outlived {@code poolMaximumLifetime}, or it has been idle longer than
+   *         {@code poolMaximumIdleTime} and there are more than {@code poolMinimumIdleConnections} idle connections
+   */
+  protected boolean isExpired(PooledConnection conn, int idleCount) {
+    if (poolMaximumLifetime > 0 && conn.getAge() > poolMaximumLifetime) {
+      return true;
+    }
+    return poolMaximumIdleTime > 0 && idleCount > poolMinimumIdleConnections
+        && conn.getTimeElapsedSinceLastUse() > poolMaximumIdleTime;
+  }
+
+  /**
+   * Whether the pool maintainer should ping an idle connection, so that a checkout does not have to.
+   *
+   * @param conn the idle connection
+   * @return true if {@link #pingConnection(PooledConnection)} would send the ping query
+   */
+  protected boolean isPingDue(PooledConnection conn) {
+    return poolPingEnabled && poolPingConnectionsNotUsedFor >= 0
+        && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor
+        && conn.getTimeElapsedSinceLastValidation() > poolPingConnectionsNotUsedFor;
+  }
+
+  private void closeIdleConnection(PooledConnection conn) {
+    conn.invalidate();
+    try {
+      Connection realConn = conn.getRealConnection();
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Closed idle connection " + conn.getRealHashCode() + ".");
+    }
+  }
+
   /**
    * Unwraps a pooled connection to get to the 'real' connection
    *
@@ -607,6 +829,7 @@ public class PooledDataSource implements DataSource {
 
   @Override
   protected void finalize() throws Throwable {
+    maintainer.stop();
     forceCloseAll();
     super.finalize();
   }
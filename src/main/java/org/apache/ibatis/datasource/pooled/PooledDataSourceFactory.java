@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.datasource.pooled;
 
+import java.util.Properties;
+
+import org.apache.ibatis.datasource.DataSourceException;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 
 /**
@@ -23,8 +26,30 @@ import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 // 继承 UnpooledDataSourceFactory 类，池化的 DataSourceFactory 实现类
 public class PooledDataSourceFactory extends UnpooledDataSourceFactory {
 
+  // 连接池的模式：SYNCHRONIZED（默认） 或 CONCURRENT
+  private static final String POOL_MODE_PROPERTY = "poolMode";
+  private static final String POOL_MODE_SYNCHRONIZED = "SYNCHRONIZED";
+  private static final String POOL_MODE_CONCURRENT = "CONCURRENT";
+
   public PooledDataSourceFactory() {
     this.dataSource = new PooledDataSource();
   }
 
+  @Override
+  public void setProperties(Properties properties) {
+    Properties dataSourceProperties = new Properties();
+    dataSourceProperties.putAll(properties);
+    String poolMode = (String) dataSourceProperties.remove(POOL_MODE_PROPERTY);
+    if (poolMode != null) {
+      if (POOL_MODE_CONCURRENT.equalsIgnoreCase(poolMode)) {
+        this.dataSource = new ConcurrentPooledDataSource();
+      } else if (POOL_MODE_SYNCHRONIZED.equalsIgnoreCase(poolMode)) {
+        this.dataSource = new PooledDataSource();
+      } else {
+        throw new DataSourceException("Unknown pool mode: " + poolMode);
+      }
+    }
+    super.setProperties(dataSourceProperties);
+  }
+
 }
@@ -20,6 +20,7 @@ import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOL
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -122,6 +123,21 @@ public abstract class BaseExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameter) throws SQLException {
+    // 集合参数分块执行，合并更新的行数
+    List<Object> chunks = ParameterChunks.split(ms, parameter, RowBounds.DEFAULT);
+    if (chunks != null) {
+      int updateCount = 0;
+      boolean batched = false;
+      for (Object chunk : chunks) {
+        int result = update(ms, chunk);
+        if (result == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+          batched = true;
+        } else {
+          updateCount += result;
+        }
+      }
+      return batched ? BatchExecutor.BATCH_UPDATE_RETURN_VALUE : updateCount;
+    }
     ErrorContext.instance().resource(ms.getResource()).activity("executing an update").object(ms.getId());
     if (closed) {
       throw new ExecutorException("Executor was closed.");
@@ -147,6 +163,15 @@ public abstract class BaseExecutor implements Executor {
 
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
+    // 集合参数分块执行，合并结果
+    List<Object> chunks = ParameterChunks.split(ms, parameter, rowBounds);
+    if (chunks != null) {
+      List<E> list = new ArrayList<>();
+      for (Object chunk : chunks) {
+        list.addAll(this.<E>query(ms, chunk, rowBounds, resultHandler));
+      }
+      return list;
+    }
     // 获取 BoundSql
     BoundSql boundSql = ms.getBoundSql(parameter);
     // 创建 CacheKey
@@ -228,13 +253,13 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
+    CacheKey cacheKey = configuration.newCacheKey();
     //设置 ID
     cacheKey.update(ms.getId());
     //设置 offSet
-    cacheKey.update(rowBounds.getOffset());
+    cacheKey.updateInt(rowBounds.getOffset());
     //设置 limit
-    cacheKey.update(rowBounds.getLimit());
+    cacheKey.updateInt(rowBounds.getLimit());
     //设置 sql
     cacheKey.update(boundSql.getSql());
 
@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
@@ -88,6 +89,15 @@ public class CachingExecutor implements Executor {
 
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
+    // 集合参数分块执行，每块分别使用二级缓存
+    List<Object> chunks = ParameterChunks.split(ms, parameterObject, rowBounds);
+    if (chunks != null) {
+      List<E> list = new ArrayList<>();
+      for (Object chunk : chunks) {
+        list.addAll(this.<E>query(ms, chunk, rowBounds, resultHandler));
+      }
+      return list;
+    }
     // 获取 BoundSql
     BoundSql boundSql = ms.getBoundSql(parameterObject);
     // 创建缓存Key
@@ -0,0 +1,131 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Splits the collection parameter of a statement that declares a {@link MappedStatement#getChunkSize() chunk size}
+ * into chunks, so that the executor runs the statement once per chunk and merges the results.
+ *
+ * @since 3.5.4
+ */
+// 将语句的集合参数拆分成多个块
+final class ParameterChunks {
+
+  private ParameterChunks() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * @return the parameter of each chunk, or {@code null} if the statement must be executed once with the given
+   *         parameter
+   */
+  static List<Object> split(MappedStatement ms, Object parameter, RowBounds rowBounds) {
+    int chunkSize = ms.getChunkSize();
+    // 分页时拆分会改变结果
+    if (chunkSize <= 0 || parameter == null || rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET
+        || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      return null;
+    }
+    Object collection = findCollection(ms, parameter);
+    if (collection == null) {
+      return null;
+    }
+    int size = collection instanceof Collection ? ((Collection<?>) collection).size() : Array.getLength(collection);
+    if (size <= chunkSize) {
+      return null;
+    }
+    Object elements = collection instanceof Collection && !(collection instanceof List)
+        ? new ArrayList<>((Collection<?>) collection) : collection;
+    List<Object> chunks = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+    for (int from = 0; from < size; from += chunkSize) {
+      Object chunk = slice(elements, from, Math.min(size, from + chunkSize));
+      chunks.add(replace(parameter, collection, chunk));
+    }
+    return chunks;
+  }
+
+  private static Object findCollection(MappedStatement ms, Object parameter) {
+    if (isCollection(parameter)) {
+      return parameter;
+    }
+    if (!(parameter instanceof Map)) {
+      throw new ExecutorException("Statement '" + ms.getId() + "' is executed in chunks, but its parameter is neither a collection nor a map.");
+    }
+    Map<?, ?> map = (Map<?, ?>) parameter;
+    String name = ms.getChunkParameter();
+    if (name != null) {
+      Object value = map.get(name);
+      if (value != null && !isCollection(value)) {
+        throw new ExecutorException("The chunk parameter '" + name + "' of statement '" + ms.getId() + "' is neither a collection nor an array.");
+      }
+      return value;
+    }
+    // 同一个集合可能以多个名字出现（如 collection 和 list、ids 和 param1）
+    Object collection = null;
+    for (Object value : map.values()) {
+      if (isCollection(value) && value != collection) {
+        if (collection != null) {
+          throw new ExecutorException("Statement '" + ms.getId() + "' is executed in chunks, but its parameter has several collections. Specify the one to split with chunkParameter.");
+        }
+        collection = value;
+      }
+    }
+    return collection;
+  }
+
+  private static boolean isCollection(Object value) {
+    return value instanceof Collection || (value != null && value.getClass().isArray());
+  }
+
+  private static Object slice(Object elements, int from, int to) {
+    if (elements instanceof List) {
+      return new ArrayList<>(((List<?>) elements).subList(from, to));
+    } else if (elements instanceof Object[]) {
+      return Arrays.copyOfRange((Object[]) elements, from, to);
+    }
+    Object chunk = Array.newInstance(elements.getClass().getComponentType(), to - from);
+    System.arraycopy(elements, from, chunk, 0, to - from);
+    return chunk;
+  }
+
+  // 复制参数，并将集合替换成块
+  private static Object replace(Object parameter, Object collection, Object chunk) {
+    if (parameter == collection) {
+      return chunk;
+    }
+    @SuppressWarnings("unchecked")
+    Map<Object, Object> copy = parameter instanceof HashMap
+        ? (Map<Object, Object>) ((HashMap<?, ?>) parameter).clone() : new HashMap<>((Map<?, ?>) parameter);
+    for (Map.Entry<Object, Object> entry : copy.entrySet()) {
+      if (entry.getValue() == collection) {
+        entry.setValue(chunk);
+      }
+    }
+    return copy;
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.executor.keygen;
 
+import java.io.Serializable;
 import java.sql.Statement;
 import java.util.List;
 
@@ -31,7 +32,9 @@ import org.apache.ibatis.session.RowBounds;
  * @author Jeff Butler
  * 适用于 Oracle， PostgreSQL
  */
-public class SelectKeyGenerator implements KeyGenerator {
+public class SelectKeyGenerator implements KeyGenerator, Serializable {
+
+  private static final long serialVersionUID = -5815754125144199197L;
 
   public static final String SELECT_KEY_SUFFIX = "!selectKey";
   // 是否在 before 执行
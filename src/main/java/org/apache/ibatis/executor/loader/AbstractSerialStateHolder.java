@@ -21,6 +21,7 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidClassException;
+import java.io.NotSerializableException;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
@@ -33,6 +34,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 
 /**
@@ -49,6 +53,8 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
   private ObjectFactory objectFactory;
   private Class<?>[] constructorArgTypes;
   private Object[] constructorArgs;
+  // 为 null 时使用 Java 序列化
+  private Serializer serializer;
 
   public AbstractSerialStateHolder() {
   }
@@ -59,6 +65,21 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
           final ObjectFactory objectFactory,
           List<Class<?>> constructorArgTypes,
           List<Object> constructorArgs) {
+    this(userBean, unloadedProperties, objectFactory, constructorArgTypes, constructorArgs, null);
+  }
+
+  /**
+   * @param serializer the serializer of the state, or null for Java serialization
+   * @since 3.5.4
+   */
+  public AbstractSerialStateHolder(
+          final Object userBean,
+          final Map<String, ResultLoaderMap.LoadPair> unloadedProperties,
+          final ObjectFactory objectFactory,
+          List<Class<?>> constructorArgTypes,
+          List<Object> constructorArgs,
+          Serializer serializer) {
+    this.serializer = serializer instanceof JavaSerializer ? null : serializer;
     this.userBean = userBean;
     this.unloadedProperties = new HashMap<>(unloadedProperties);
     this.objectFactory = objectFactory;
@@ -68,6 +89,17 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
 
   @Override
   public final void writeExternal(final ObjectOutput out) throws IOException {
+    if (serializer != null && stream.get() == null) {
+      // the serializer class comes first, a user bean is never a class
+      out.writeObject(serializer.getClass());
+      try {
+        out.writeObject(serializer.serialize(new Object[] {
+            this.userBean, this.unloadedProperties, this.objectFactory, this.constructorArgTypes, this.constructorArgs }));
+      } catch (CacheException e) {
+        throw (IOException) new NotSerializableException(e.getMessage()).initCause(e);
+      }
+      return;
+    }
     boolean firstRound = false;
     final ByteArrayOutputStream baos = new ByteArrayOutputStream();
     ObjectOutputStream os = stream.get();
@@ -94,14 +126,16 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
   @Override
   public final void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
     final Object data = in.readObject();
-    if (data.getClass().isArray()) {
+    if (data instanceof Class) {
+      this.serializer = newSerializer((Class<?>) data);
+      this.userBeanBytes = (byte[]) in.readObject();
+    } else if (data.getClass().isArray()) {
       this.userBeanBytes = (byte[]) data;
     } else {
       this.userBean = data;
     }
   }
 
-  @SuppressWarnings("unchecked")
   protected final Object readResolve() throws ObjectStreamException {
     /* Second run */
     if (this.userBean != null && this.userBeanBytes.length == 0) {
@@ -109,6 +143,36 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
     }
 
     /* First run */
+    if (this.serializer != null) {
+      readState();
+    } else {
+      readJavaState();
+    }
+
+    final Map<String, ResultLoaderMap.LoadPair> arrayProps = new HashMap<>(this.unloadedProperties);
+    final List<Class<?>> arrayTypes = Arrays.asList(this.constructorArgTypes);
+    final List<Object> arrayValues = Arrays.asList(this.constructorArgs);
+
+    return this.createDeserializationProxy(userBean, arrayProps, objectFactory, arrayTypes, arrayValues);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readState() throws ObjectStreamException {
+    final Object[] state;
+    try {
+      state = (Object[]) this.serializer.deserialize(this.userBeanBytes);
+    } catch (CacheException ex) {
+      throw (ObjectStreamException) new StreamCorruptedException().initCause(ex);
+    }
+    this.userBean = state[0];
+    this.unloadedProperties = (Map<String, ResultLoaderMap.LoadPair>) state[1];
+    this.objectFactory = (ObjectFactory) state[2];
+    this.constructorArgTypes = (Class<?>[]) state[3];
+    this.constructorArgs = (Object[]) state[4];
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readJavaState() throws ObjectStreamException {
     try (ObjectInputStream in = new LookAheadObjectInputStream(new ByteArrayInputStream(this.userBeanBytes))) {
       this.userBean = in.readObject();
       this.unloadedProperties = (Map<String, ResultLoaderMap.LoadPair>) in.readObject();
@@ -120,12 +184,17 @@ public abstract class AbstractSerialStateHolder implements Externalizable {
     } catch (final ClassNotFoundException ex) {
       throw (ObjectStreamException) new InvalidClassException(ex.getLocalizedMessage()).initCause(ex);
     }
+  }
 
-    final Map<String, ResultLoaderMap.LoadPair> arrayProps = new HashMap<>(this.unloadedProperties);
-    final List<Class<?>> arrayTypes = Arrays.asList(this.constructorArgTypes);
-    final List<Object> arrayValues = Arrays.asList(this.constructorArgs);
-
-    return this.createDeserializationProxy(userBean, arrayProps, objectFactory, arrayTypes, arrayValues);
+  private static Serializer newSerializer(Class<?> type) throws InvalidClassException {
+    if (!Serializer.class.isAssignableFrom(type)) {
+      throw new InvalidClassException(type.getName(), "Not a serializer");
+    }
+    try {
+      return (Serializer) type.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException ex) {
+      throw (InvalidClassException) new InvalidClassException(type.getName(), "Could not create the serializer").initCause(ex);
+    }
   }
 
   protected abstract Object createDeserializationProxy(Object target, Map<String, ResultLoaderMap.LoadPair> unloadedProperties, ObjectFactory objectFactory,
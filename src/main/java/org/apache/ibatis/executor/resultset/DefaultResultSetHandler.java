@@ -21,6 +21,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -49,10 +50,14 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -95,6 +100,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
+  // Compiled row mappers of the current result set, by result map id (null if the result map cannot be compiled)
+  private ResultSetWrapper rowMappersResultSet;
+  private final Map<String, CompiledRowMapper> rowMappers = new HashMap<>();
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -117,6 +126,62 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  /**
+   * Maps the rows of one result set to a bean with a default constructor, binding column indexes to type handlers
+   * and setters once instead of resolving them for every row.
+   */
+  private static class CompiledRowMapper {
+    private final Class<?> type;
+    private final int[] columnIndexes;
+    private final TypeHandler<?>[] typeHandlers;
+    private final String[] properties;
+    private final Invoker[] setters;
+    private final boolean[] callSettersOnNulls;
+
+    CompiledRowMapper(Class<?> type, List<Integer> columnIndexes, List<TypeHandler<?>> typeHandlers,
+        List<String> properties, List<Invoker> setters, List<Boolean> callSettersOnNulls) {
+      int size = columnIndexes.size();
+      this.type = type;
+      this.columnIndexes = new int[size];
+      this.callSettersOnNulls = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        this.columnIndexes[i] = columnIndexes.get(i);
+        this.callSettersOnNulls[i] = callSettersOnNulls.get(i);
+      }
+      this.typeHandlers = typeHandlers.toArray(new TypeHandler<?>[size]);
+      this.properties = properties.toArray(new String[size]);
+      this.setters = setters.toArray(new Invoker[size]);
+    }
+
+    Object map(ResultSet rs, ObjectFactory objectFactory, boolean returnInstanceForEmptyRow) throws SQLException {
+      final Object rowValue = objectFactory.create(type);
+      boolean foundValues = false;
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final Object value = typeHandlers[i].getResult(rs, columnIndexes[i]);
+        if (value != null) {
+          foundValues = true;
+        }
+        if (value != null || callSettersOnNulls[i]) {
+          set(rowValue, i, value);
+        }
+      }
+      return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+    }
+
+    private void set(Object rowValue, int i, Object value) {
+      try {
+        try {
+          setters[i].invoke(rowValue, new Object[] {value});
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + properties[i] + "' of '" + rowValue.getClass()
+            + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -351,7 +416,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      Object rowValue = getCompiledRowValue(rsw, discriminatedResultMap);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
@@ -408,6 +473,99 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  // 第一行按常规方式映射，之后的行使用编译好的映射
+  private Object getCompiledRowValue(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    if (!configuration.isUseCompiledRowMappers()) {
+      return getRowValue(rsw, resultMap, null);
+    }
+    if (rowMappersResultSet != rsw) {
+      rowMappersResultSet = rsw;
+      rowMappers.clear();
+    }
+    CompiledRowMapper rowMapper = rowMappers.get(resultMap.getId());
+    if (rowMapper != null) {
+      return rowMapper.map(rsw.getResultSet(), objectFactory, configuration.isReturnInstanceForEmptyRow());
+    }
+    Object rowValue = getRowValue(rsw, resultMap, null);
+    if (!rowMappers.containsKey(resultMap.getId())) {
+      // the first row has resolved the automatic mappings
+      rowMappers.put(resultMap.getId(), compileRowMapper(rsw, resultMap));
+    }
+    return rowValue;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
+    if (!configuration.isUseColumnLabel()
+        || !(configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory)
+        || hasTypeHandlerForResultObject(rsw, resultType)
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || resultType.isInterface() || !metaType.hasDefaultConstructor()
+        || Map.class.isAssignableFrom(resultType) || Collection.class.isAssignableFrom(resultType)) {
+      return null;
+    }
+    final List<Integer> columnIndexes = new ArrayList<>();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    final List<String> properties = new ArrayList<>();
+    final List<Invoker> setters = new ArrayList<>();
+    final List<Boolean> callSettersOnNulls = new ArrayList<>();
+    final List<String> columnNames = rsw.getColumnNames();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(resultMap.getId() + ":" + null);
+      if (autoMapping == null) {
+        return null;
+      }
+      for (UnMappedColumnAutoMapping mapping : autoMapping) {
+        int columnIndex = columnNames.indexOf(mapping.column);
+        if (columnIndex < 0 || !isSimpleProperty(mapping.property)) {
+          return null;
+        }
+        columnIndexes.add(columnIndex + 1);
+        typeHandlers.add(mapping.typeHandler);
+        properties.add(mapping.property);
+        setters.add(metaType.getSetInvoker(mapping.property));
+        callSettersOnNulls.add(configuration.isCallSettersOnNulls() && !mapping.primitive);
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null || propertyMapping.getResultSet() != null
+          || propertyMapping.getNestedResultMapId() != null || propertyMapping.isCompositeResult()) {
+        return null;
+      }
+      final String column = propertyMapping.getColumn();
+      final String property = propertyMapping.getProperty();
+      if (property == null || column == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        // not read, or read and ignored
+        continue;
+      }
+      int columnIndex = indexOfColumn(columnNames, column);
+      if (columnIndex < 0 || !isSimpleProperty(property) || !metaType.hasSetter(property)) {
+        return null;
+      }
+      columnIndexes.add(columnIndex + 1);
+      typeHandlers.add(propertyMapping.getTypeHandler());
+      properties.add(property);
+      setters.add(metaType.getSetInvoker(property));
+      callSettersOnNulls.add(configuration.isCallSettersOnNulls() && !metaType.getSetterType(property).isPrimitive());
+    }
+    return new CompiledRowMapper(resultType, columnIndexes, typeHandlers, properties, setters, callSettersOnNulls);
+  }
+
+  private static boolean isSimpleProperty(String property) {
+    return property.indexOf('.') < 0 && property.indexOf('[') < 0;
+  }
+
+  private static int indexOfColumn(List<String> columnNames, String column) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -564,7 +722,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private CacheKey createKeyForMultipleResults(ResultSet rs, ResultMapping resultMapping, String names, String columns) throws SQLException {
-    CacheKey cacheKey = new CacheKey();
+    CacheKey cacheKey = configuration.newCacheKey();
     cacheKey.update(resultMapping);
     if (columns != null && names != null) {
       String[] columnsArray = columns.split(",");
@@ -1006,7 +1164,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
+    final CacheKey cacheKey = configuration.newCacheKey();
     cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
@@ -68,6 +68,10 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
+    // 静态 SQL 没有额外参数，不必解析属性名
+    if (additionalParameters.isEmpty()) {
+      return false;
+    }
     String paramName = new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
   }
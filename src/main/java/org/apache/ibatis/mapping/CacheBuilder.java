@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,14 +31,20 @@ import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 
 /**
  * @author Clinton Begin
  */
-public class CacheBuilder {
+public class CacheBuilder implements Serializable {
+
+  private static final long serialVersionUID = 1169344279968071064L;
+
   private final String id;
   private Class<? extends Cache> implementation;
   private final List<Class<? extends Cache>> decorators;
@@ -46,6 +53,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private Serializer serializer;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -84,6 +92,16 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * @param serializer the serializer that copies the results of a read-write cache, Java serialization by default
+   * @return this builder
+   * @since 3.5.4
+   */
+  public CacheBuilder serializer(Serializer serializer) {
+    this.serializer = serializer;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -100,6 +118,9 @@ public class CacheBuilder {
         setCacheProperties(cache);
       }
       cache = setStandardDecorators(cache);
+    } else if (TinyLfuCache.class.equals(cache.getClass()) || OffHeapCache.class.equals(cache.getClass())) {
+      // eviction is built in, eviction decorators do not apply
+      cache = setStandardDecorators(cache);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
       cache = new LoggingCache(cache);
     }
@@ -113,10 +134,17 @@ public class CacheBuilder {
         decorators.add(LruCache.class);
       }
     }
+    // <cache eviction="TINYLFU"/> replaces the perpetual cache instead of decorating it
+    if (PerpetualCache.class.equals(implementation) && decorators.remove(TinyLfuCache.class)) {
+      implementation = TinyLfuCache.class;
+    }
   }
 
   private Cache setStandardDecorators(Cache cache) {
     try {
+      boolean concurrent = cache instanceof TinyLfuCache || cache instanceof OffHeapCache;
+      // an off-heap cache returns copies already
+      boolean copying = cache instanceof OffHeapCache;
       MetaObject metaCache = SystemMetaObject.forObject(cache);
       if (size != null && metaCache.hasSetter("size")) {
         metaCache.setValue("size", size);
@@ -125,13 +153,19 @@ public class CacheBuilder {
         cache = new ScheduledCache(cache);
         ((ScheduledCache) cache).setClearInterval(clearInterval);
       }
-      if (readWrite) {
-        cache = new SerializedCache(cache);
+      if (readWrite && !copying) {
+        cache = serializer == null ? new SerializedCache(cache) : new SerializedCache(cache, serializer);
       }
       cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
+      if (!concurrent) {
+        cache = new SynchronizedCache(cache);
+      }
       if (blocking) {
         cache = new BlockingCache(cache);
+        String timeout = properties == null ? null : properties.getProperty("blockingTimeout");
+        if (timeout != null) {
+          ((BlockingCache) cache).setTimeout(Long.parseLong(timeout));
+        }
       }
       return cache;
     } catch (Exception e) {
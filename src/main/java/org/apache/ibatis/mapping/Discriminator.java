@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
 
@@ -33,7 +34,9 @@ import org.apache.ibatis.session.Configuration;
  *    <case value="4" resultMap="suvResult"/>
  * </discriminator>
  */
-public class Discriminator {
+public class Discriminator implements Serializable {
+
+  private static final long serialVersionUID = 2879213092928427219L;
 
   // ResultMapping 对象
   private ResultMapping resultMapping;
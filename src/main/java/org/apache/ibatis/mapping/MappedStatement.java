@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,7 +36,10 @@ import org.apache.ibatis.session.Configuration;
  */
 // 映射的语句，每个 <select />、<insert />、<update />、<delete /> 对应一个 MappedStatement 对象
 //另外，比较特殊的是，<selectKey /> 解析后，也会对应一个 MappedStatement 对象
-public final class MappedStatement {
+public final class MappedStatement implements Serializable {
+
+  private static final long serialVersionUID = 1875302181192670058L;
+  private static final ParameterBinding[] NO_PARAMETER_BINDINGS = new ParameterBinding[0];
 
   /**
    * 资源引用的地址
@@ -116,9 +122,9 @@ public final class MappedStatement {
    */
   private String databaseId;
   /**
-   * Log 对象
+   * Log 对象，反序列化时重新获取
    */
-  private Log statementLog;
+  private transient Log statementLog;
   /**
    * LanguageDriver 对象
    */
@@ -127,11 +133,37 @@ public final class MappedStatement {
    * 这个设置仅对多结果集的情况适用，它将列出语句执行后返回的结果集并每个结果集给一个名称，名称是逗号分隔的。
    */
   private String[] resultSets;
+  /**
+   * 集合参数的分块大小，大于 0 时 Executor 按块执行语句并合并结果
+   */
+  private int chunkSize;
+  /**
+   * 被分块的集合参数的名字，为 null 时使用参数中唯一的集合
+   */
+  private String chunkParameter;
+  /**
+   * 最近设置参数时使用的参数绑定计划，按参数映射、参数类型和布局区分，参见 {@link ParameterBinding}
+   */
+  transient volatile ParameterBinding[] parameterBindings = NO_PARAMETER_BINDINGS;
 
   MappedStatement() {
     // constructor disabled
   }
 
+  private static Log getStatementLog(Configuration configuration, String id) {
+    String logId = id;
+    if (configuration.getLogPrefix() != null) {
+      logId = configuration.getLogPrefix() + id;
+    }
+    return LogFactory.getLog(logId);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    statementLog = getStatementLog(configuration, id);
+    parameterBindings = NO_PARAMETER_BINDINGS;
+  }
+
   public static class Builder {
     private MappedStatement mappedStatement = new MappedStatement();
 
@@ -145,11 +177,7 @@ public final class MappedStatement {
       mappedStatement.resultMaps = new ArrayList<>();
       mappedStatement.sqlCommandType = sqlCommandType;
       mappedStatement.keyGenerator = configuration.isUseGeneratedKeys() && SqlCommandType.INSERT.equals(sqlCommandType) ? Jdbc3KeyGenerator.INSTANCE : NoKeyGenerator.INSTANCE;
-      String logId = id;
-      if (configuration.getLogPrefix() != null) {
-        logId = configuration.getLogPrefix() + id;
-      }
-      mappedStatement.statementLog = LogFactory.getLog(logId);
+      mappedStatement.statementLog = getStatementLog(configuration, id);
       mappedStatement.lang = configuration.getDefaultScriptingLanguageInstance();
     }
 
@@ -245,6 +273,22 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * @since 3.5.4
+     */
+    public Builder chunkSize(int chunkSize) {
+      mappedStatement.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * @since 3.5.4
+     */
+    public Builder chunkParameter(String chunkParameter) {
+      mappedStatement.chunkParameter = chunkParameter;
+      return this;
+    }
+
     /**
      * @deprecated Use {@link #resultSets}
      */
@@ -336,6 +380,24 @@ public final class MappedStatement {
     return databaseId;
   }
 
+  /**
+   * @return the maximum number of elements of the collection parameter per execution, or 0 if the collection is not
+   *         split into chunks
+   * @since 3.5.4
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * @return the name of the collection parameter split into chunks, or {@code null} to split the only collection of
+   *         the parameter
+   * @since 3.5.4
+   */
+  public String getChunkParameter() {
+    return chunkParameter;
+  }
+
   public String[] getKeyProperties() {
     return keyProperties;
   }
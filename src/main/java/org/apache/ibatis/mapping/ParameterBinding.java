@@ -0,0 +1,188 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.binding.IndexedParamMap;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Reads the values of a list of parameter mappings from parameter objects of one class, with the accessors resolved
+ * once instead of on every execution.
+ * <p>
+ * A statement keeps the bindings of up to {@value #MAX_BINDINGS} combinations of parameter mappings, compared by
+ * identity, parameter class and parameter layout, so that dynamic SQL alternating between cached shapes, or callers
+ * using different parameter classes, keeps a binding for each. A binding is resolved the second time its combination
+ * is seen, so SQL that creates new parameter mappings on every execution never pays for it. When the statement holds
+ * as many bindings as it can, a new combination replaces the oldest binding that is not resolved yet, or else the
+ * oldest binding.
+ *
+ * @since 3.5.4
+ */
+// 预先解析的参数绑定计划：每个 ParameterMapping 对应一个取值器
+public final class ParameterBinding {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+  // 每个语句最多保留的绑定计划数
+  static final int MAX_BINDINGS = 8;
+
+  private final List<ParameterMapping> parameterMappings;
+  private final Class<?> parameterType;
+  // 参数是 IndexedParamMap 时它的布局，同一个语句可能被参数不同的重载方法调用
+  private final IndexedParamMap.Layout layout;
+  // 为 null 时表示计划尚未解析
+  private final Accessor[] accessors;
+
+  private ParameterBinding(List<ParameterMapping> parameterMappings, Class<?> parameterType, IndexedParamMap.Layout layout, Accessor[] accessors) {
+    this.parameterMappings = parameterMappings;
+    this.parameterType = parameterType;
+    this.layout = layout;
+    this.accessors = accessors;
+  }
+
+  /**
+   * @return the binding of the parameter mappings for parameter objects like the given one, or {@code null} when the
+   *         mappings and the class (and layout) of the parameter object have not been seen by the statement before
+   */
+  public static ParameterBinding forStatement(MappedStatement ms, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    Class<?> parameterType = parameterObject.getClass();
+    IndexedParamMap.Layout layout = parameterObject instanceof IndexedParamMap ? ((IndexedParamMap) parameterObject).getLayout() : null;
+    ParameterBinding[] bindings = ms.parameterBindings;
+    for (int i = 0; i < bindings.length; i++) {
+      ParameterBinding binding = bindings[i];
+      if (binding.parameterMappings == parameterMappings && binding.parameterType == parameterType && binding.layout == layout) {
+        if (binding.accessors == null) {
+          // 第二次遇到，解析计划
+          binding = new ParameterBinding(parameterMappings, parameterType, layout, resolve(ms.getConfiguration(), parameterMappings, parameterType, layout));
+          ParameterBinding[] resolved = bindings.clone();
+          resolved[i] = binding;
+          ms.parameterBindings = resolved;
+        }
+        return binding;
+      }
+    }
+    // 第一次遇到，只记录下来。并发的修改可能互相覆盖，之后再次记录即可
+    ms.parameterBindings = add(bindings, new ParameterBinding(parameterMappings, parameterType, layout, null));
+    return null;
+  }
+
+  // 已满时替换最早的未解析计划，每次都生成新 ParameterMapping 的 SQL 不会挤掉已解析的计划
+  private static ParameterBinding[] add(ParameterBinding[] bindings, ParameterBinding binding) {
+    if (bindings.length < MAX_BINDINGS) {
+      ParameterBinding[] added = Arrays.copyOf(bindings, bindings.length + 1);
+      added[bindings.length] = binding;
+      return added;
+    }
+    int removed = 0;
+    for (int i = 0; i < bindings.length; i++) {
+      if (bindings[i].accessors == null) {
+        removed = i;
+        break;
+      }
+    }
+    ParameterBinding[] added = new ParameterBinding[bindings.length];
+    System.arraycopy(bindings, 0, added, 0, removed);
+    System.arraycopy(bindings, removed + 1, added, removed, bindings.length - removed - 1);
+    added[bindings.length - 1] = binding;
+    return added;
+  }
+
+  /**
+   * @return the value of the parameter mapping at the index, read from the parameter object
+   */
+  public Object getValue(int index, Object parameterObject) {
+    return accessors[index].get(parameterObject);
+  }
+
+  private static Accessor[] resolve(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterType, IndexedParamMap.Layout layout) {
+    Accessor[] accessors = new Accessor[parameterMappings.size()];
+    // 和 DefaultParameterHandler 一样，有 TypeHandler 的参数对象本身就是值
+    boolean self = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+    for (int i = 0; i < accessors.length; i++) {
+      String property = parameterMappings.get(i).getProperty();
+      if (self) {
+        accessors[i] = parameterObject -> parameterObject;
+      } else {
+        accessors[i] = resolve(configuration, property, parameterType, layout);
+      }
+    }
+    return accessors;
+  }
+
+  private static Accessor resolve(Configuration configuration, String property, Class<?> parameterType, IndexedParamMap.Layout layout) {
+    boolean simple = property != null && property.indexOf('.') < 0 && property.indexOf('[') < 0;
+    // 自定义的 ObjectWrapperFactory 可能包装任何对象，只能交给 MetaObject
+    if (simple && configuration.getObjectWrapperFactory().getClass() == DefaultObjectWrapperFactory.class) {
+      int index = layout == null ? -1 : layout.indexOf(property);
+      if (index >= 0) {
+        // 直接读取 mapper 方法的参数
+        return parameterObject -> ((IndexedParamMap) parameterObject).getArgument(index);
+      }
+      if (Map.class.isAssignableFrom(parameterType)) {
+        return parameterObject -> ((Map<?, ?>) parameterObject).get(property);
+      }
+      if (!Collection.class.isAssignableFrom(parameterType) && !parameterType.isArray()) {
+        Reflector reflector = configuration.getReflectorFactory().findForClass(parameterType);
+        if (reflector.hasGetter(property)) {
+          return new GetterAccessor(property, reflector.getGetInvoker(property));
+        }
+      }
+    }
+    // 嵌套的属性、集合和没有 getter 的属性，交给 MetaObject（包括它的异常）
+    return parameterObject -> configuration.newMetaObject(parameterObject).getValue(property);
+  }
+
+  private interface Accessor {
+    Object get(Object parameterObject);
+  }
+
+  private static class GetterAccessor implements Accessor {
+
+    private final String property;
+    private final Invoker invoker;
+
+    GetterAccessor(String property, Invoker invoker) {
+      this.property = property;
+      this.invoker = invoker;
+    }
+
+    @Override
+    public Object get(Object parameterObject) {
+      // 与 BeanWrapper 相同的异常处理
+      try {
+        try {
+          return invoker.invoke(parameterObject, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + property + "' from " + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,7 +25,9 @@ import org.apache.ibatis.session.Configuration;
  * @author Clinton Begin
  */
 // 参数集合
-public class ParameterMap {
+public class ParameterMap implements Serializable {
+
+  private static final long serialVersionUID = 486326606635040732L;
 
   // 编号
   private String id;
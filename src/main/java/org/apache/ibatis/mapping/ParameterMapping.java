@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.sql.ResultSet;
 
 import org.apache.ibatis.session.Configuration;
@@ -26,7 +27,9 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  * @author Clinton Begin
  */
 // 参数映射
-public class ParameterMapping {
+public class ParameterMapping implements Serializable {
+
+  private static final long serialVersionUID = -4258707852665237125L;
 
   private Configuration configuration;
 
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
@@ -34,7 +35,10 @@ import org.apache.ibatis.session.Configuration;
 /**
  * @author Clinton Begin
  */
-public class ResultMap {
+public class ResultMap implements Serializable {
+
+  private static final long serialVersionUID = 880967123533530024L;
+
   private Configuration configuration;
 
   private String id;
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,7 +29,9 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 /**
  * @author Clinton Begin
  */
-public class ResultMapping {
+public class ResultMapping implements Serializable {
+
+  private static final long serialVersionUID = -6010124460404964145L;
 
   private Configuration configuration;
   private String property;
@@ -18,6 +18,7 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Clinton Begin
@@ -26,20 +27,58 @@ public class InterceptorChain {
 
   // 拦截的数组
   private final List<Interceptor> interceptors = new ArrayList<>();
+  // 预先组合好的包装步骤，添加拦截器后重新计算
+  private volatile List<UnaryOperator<Object>> steps;
 
   public Object pluginAll(Object target) {
-    for (Interceptor interceptor : interceptors) {
-      target = interceptor.plugin(target);
+    for (UnaryOperator<Object> step : getSteps()) {
+      target = step.apply(target);
     }
     return target;
   }
 
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    steps = null;
   }
 
   public List<Interceptor> getInterceptors() {
     return Collections.unmodifiableList(interceptors);
   }
 
+  // 连续的使用默认 plugin 方法的拦截器组合成一个 PluginChain，其它拦截器依然调用自己的 plugin 方法
+  private List<UnaryOperator<Object>> getSteps() {
+    List<UnaryOperator<Object>> steps = this.steps;
+    if (steps == null) {
+      steps = new ArrayList<>();
+      List<Interceptor> run = new ArrayList<>();
+      for (Interceptor interceptor : interceptors) {
+        if (usesDefaultPlugin(interceptor)) {
+          run.add(interceptor);
+        } else {
+          addPluginChain(steps, run);
+          steps.add(interceptor::plugin);
+        }
+      }
+      addPluginChain(steps, run);
+      this.steps = steps;
+    }
+    return steps;
+  }
+
+  private static void addPluginChain(List<UnaryOperator<Object>> steps, List<Interceptor> run) {
+    if (!run.isEmpty()) {
+      steps.add(new PluginChain(run)::wrap);
+      run.clear();
+    }
+  }
+
+  private static boolean usesDefaultPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() == Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
 }
@@ -0,0 +1,166 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Wraps targets with several interceptors that use the default {@link Interceptor#plugin(Object)} in a single proxy,
+ * instead of nesting one {@link Plugin} proxy per interceptor.
+ * <p>
+ * The interceptors of each method are resolved once per target class. A call goes through the interceptors of the
+ * method, the last one first, with an {@link Invocation} whose {@link Invocation#proceed()} continues with the next
+ * one. {@link Invocation#getTarget()} still returns an object that goes through the remaining interceptors, created
+ * only when asked for.
+ *
+ * @since 3.5.4
+ */
+// 把多个使用默认 plugin 方法的拦截器组合成一个代理
+class PluginChain {
+
+  private final Interceptor[] interceptors;
+  private final List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<>();
+  // 目标类型与它的分派表的映射
+  private final ConcurrentMap<Class<?>, Dispatch> dispatches = new ConcurrentHashMap<>();
+
+  PluginChain(List<Interceptor> interceptors) {
+    this.interceptors = interceptors.toArray(new Interceptor[0]);
+    for (Interceptor interceptor : interceptors) {
+      signatureMaps.add(Plugin.getSignatureMap(interceptor));
+    }
+  }
+
+  Object wrap(Object target) {
+    return dispatches.computeIfAbsent(target.getClass(), Dispatch::new).wrap(target, interceptors.length);
+  }
+
+  // 一个目标类型的分派表
+  private class Dispatch {
+
+    private final Class<?> type;
+    // 每个拦截器在该类型上代理的接口
+    private final Class<?>[][] interfaces;
+    // 方法与拦截它的拦截器下标的映射，下标从大到小，即从外到内
+    private final Map<Method, int[]> interceptorIndexes = new HashMap<>();
+
+    Dispatch(Class<?> type) {
+      this.type = type;
+      this.interfaces = new Class<?>[interceptors.length][];
+      Map<Method, List<Integer>> indexes = new HashMap<>();
+      for (int i = interceptors.length - 1; i >= 0; i--) {
+        Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(i);
+        interfaces[i] = Plugin.getAllInterfaces(type, signatureMap);
+        for (Class<?> c : interfaces[i]) {
+          for (Method method : signatureMap.get(c)) {
+            indexes.computeIfAbsent(method, k -> new ArrayList<>()).add(i);
+          }
+        }
+      }
+      indexes.forEach((method, list) -> interceptorIndexes.put(method, list.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    // 用下标小于 level 的拦截器包装目标对象，没有要代理的接口时返回目标对象
+    Object wrap(Object target, int level) {
+      Set<Class<?>> all = new LinkedHashSet<>();
+      for (int i = 0; i < level; i++) {
+        all.addAll(Arrays.asList(interfaces[i]));
+      }
+      if (all.isEmpty()) {
+        return target;
+      }
+      return Proxy.newProxyInstance(type.getClassLoader(), all.toArray(new Class<?>[0]), new Dispatcher(target, this, level));
+    }
+
+    Object invoke(Object target, Method method, Object[] args, int level) throws Throwable {
+      int[] indexes = interceptorIndexes.get(method);
+      if (indexes != null) {
+        for (int index : indexes) {
+          if (index < level) {
+            return interceptors[index].intercept(new ChainedInvocation(target, method, args, this, index));
+          }
+        }
+      }
+      // 没有拦截器时直接调用目标对象
+      return method.invoke(target, args);
+    }
+  }
+
+  private static class Dispatcher implements InvocationHandler {
+
+    // 与 Plugin 一样命名为 target，通过 MetaObject 取 h.target 获取原始对象的代码仍然可用
+    private final Object target;
+    private final Dispatch dispatch;
+    private final int level;
+
+    Dispatcher(Object target, Dispatch dispatch, int level) {
+      this.target = target;
+      this.dispatch = dispatch;
+      this.level = level;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        return dispatch.invoke(target, method, args, level);
+      } catch (Exception e) {
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+  }
+
+  private static class ChainedInvocation extends Invocation {
+
+    private final Dispatch dispatch;
+    private final int level;
+
+    ChainedInvocation(Object target, Method method, Object[] args, Dispatch dispatch, int level) {
+      super(target, method, args);
+      this.dispatch = dispatch;
+      this.level = level;
+    }
+
+    @Override
+    public Object getTarget() {
+      // 和嵌套的 Plugin 一样，返回由其余拦截器包装的目标对象
+      return dispatch.wrap(super.getTarget(), level);
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      try {
+        return dispatch.invoke(super.getTarget(), getMethod(), getArgs(), level);
+      } catch (Throwable t) {
+        // 和通过 Method.invoke 调用内层代理一样，异常包装为 InvocationTargetException
+        throw new InvocationTargetException(ExceptionUtil.unwrapThrowable(t));
+      }
+    }
+  }
+
+}
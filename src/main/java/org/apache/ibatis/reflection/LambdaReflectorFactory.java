@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+
+/**
+ * A {@link ReflectorFactory} whose reflectors call public getters and setters through lambdas generated with
+ * {@link LambdaMetafactory}. Unlike {@link Method#invoke(Object, Object...)}, such calls are monomorphic, so the
+ * JIT can inline them into the mapping code.
+ * <p>
+ * Reflection is still used for fields, static or non-public methods, methods of non-public classes and classes that
+ * are not visible from the class loader of MyBatis. To use it, set
+ * {@code <reflectorFactory type="org.apache.ibatis.reflection.LambdaReflectorFactory"/>} in the configuration.
+ *
+ * @since 3.5.4
+ */
+// 使用 LambdaMetafactory 生成 getter/setter 调用的 ReflectorFactory
+public class LambdaReflectorFactory implements ReflectorFactory {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+  static {
+    WRAPPERS.put(boolean.class, Boolean.class);
+    WRAPPERS.put(byte.class, Byte.class);
+    WRAPPERS.put(char.class, Character.class);
+    WRAPPERS.put(short.class, Short.class);
+    WRAPPERS.put(int.class, Integer.class);
+    WRAPPERS.put(long.class, Long.class);
+    WRAPPERS.put(float.class, Float.class);
+    WRAPPERS.put(double.class, Double.class);
+  }
+
+  private boolean classCacheEnabled = true;
+  private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean isClassCacheEnabled() {
+    return classCacheEnabled;
+  }
+
+  @Override
+  public void setClassCacheEnabled(boolean classCacheEnabled) {
+    this.classCacheEnabled = classCacheEnabled;
+  }
+
+  @Override
+  public Reflector findForClass(Class<?> type) {
+    if (classCacheEnabled) {
+      return reflectorMap.computeIfAbsent(type, k -> new Reflector(k, LambdaReflectorFactory::newMethodInvoker));
+    } else {
+      return new Reflector(type, LambdaReflectorFactory::newMethodInvoker);
+    }
+  }
+
+  // 无法生成 lambda 时回退到反射
+  @SuppressWarnings("unchecked")
+  static MethodInvoker newMethodInvoker(Method method) {
+    if (!isAccessible(method)) {
+      return new MethodInvoker(method);
+    }
+    try {
+      MethodHandle handle = LOOKUP.unreflect(method);
+      Class<?> declaringClass = method.getDeclaringClass();
+      if (method.getParameterCount() == 0) {
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+            MethodType.methodType(Object.class, Object.class), handle,
+            MethodType.methodType(wrap(method.getReturnType()), declaringClass));
+        return new LambdaMethodInvoker(method, (Function<Object, Object>) site.getTarget().invokeWithArguments());
+      } else {
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+            MethodType.methodType(void.class, Object.class, Object.class), handle,
+            MethodType.methodType(void.class, declaringClass, wrap(method.getParameterTypes()[0])));
+        return new LambdaMethodInvoker(method, (BiConsumer<Object, Object>) site.getTarget().invokeWithArguments());
+      }
+    } catch (Throwable t) {
+      return new MethodInvoker(method);
+    }
+  }
+
+  private static boolean isAccessible(Method method) {
+    if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+        || method.getReturnType() == void.class && method.getParameterCount() == 0) {
+      return false;
+    }
+    // the generated class links against these types from the class loader of MyBatis
+    if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+      return false;
+    }
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      if (!isVisible(parameterType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isVisible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    if (!Modifier.isPublic(type.getModifiers())) {
+      return false;
+    }
+    try {
+      return Class.forName(type.getName(), false, LambdaReflectorFactory.class.getClassLoader()) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    Class<?> wrapper = WRAPPERS.get(type);
+    return wrapper == null ? type : wrapper;
+  }
+
+}
@@ -17,13 +17,15 @@ package org.apache.ibatis.reflection;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.apache.ibatis.annotations.Param;
-import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.binding.IndexedParamMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -49,6 +51,9 @@ public class ParamNameResolver {
 
   private boolean hasParamAnnotation;
 
+  // 多个参数时 getNamedParams 返回的 IndexedParamMap 的布局
+  private final IndexedParamMap.Layout layout;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     final Annotation[][] paramAnnotations = method.getParameterAnnotations();
@@ -82,6 +87,26 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    layout = resolveLayout();
+  }
+
+  private IndexedParamMap.Layout resolveLayout() {
+    List<String> keys = new ArrayList<>();
+    List<Integer> argIndexes = new ArrayList<>();
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      keys.add(entry.getValue());
+      argIndexes.add(entry.getKey());
+      // add generic param names (param1, param2, ...)
+      final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
+      // ensure not to overwrite parameter named with @Param
+      if (!names.containsValue(genericParamName)) {
+        keys.add(genericParamName);
+        argIndexes.add(entry.getKey());
+      }
+      i++;
+    }
+    return new IndexedParamMap.Layout(keys.toArray(new String[0]), argIndexes.stream().mapToInt(Integer::intValue).toArray());
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -115,19 +140,8 @@ public class ParamNameResolver {
     } else if (!hasParamAnnotation && paramCount == 1) {
       return args[names.firstKey()];
     } else {
-      final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
-        // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
-        }
-        i++;
-      }
-      return param;
+      // 参数名与下标已在构造时解析，不必为每次调用创建 ParamMap 的条目
+      return new IndexedParamMap(layout, args);
     }
   }
 }
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Function;
 
 import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
@@ -69,8 +70,15 @@ public class Reflector {
 
   // 不区分大小写的属性集合
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+  // 创建 getter/setter 方法的 Invoker
+  private final Function<Method, MethodInvoker> methodInvokerFactory;
 
   public Reflector(Class<?> clazz) {
+    this(clazz, MethodInvoker::new);
+  }
+
+  Reflector(Class<?> clazz, Function<Method, MethodInvoker> methodInvokerFactory) {
+    this.methodInvokerFactory = methodInvokerFactory;
     // 设置类
     type = clazz;
     // 为类添加默认的构造方法
@@ -152,7 +160,7 @@ public class Reflector {
         ? new AmbiguousMethodInvoker(method, MessageFormat.format(
             "Illegal overloaded getter method with ambiguous type for property ''{0}'' in class ''{1}''. This breaks the JavaBeans specification and can cause unpredictable results.",
             name, method.getDeclaringClass().getName()))
-        : new MethodInvoker(method);
+        : methodInvokerFactory.apply(method);
     getMethods.put(name, invoker);
     Type returnType = TypeParameterResolver.resolveReturnType(method, type);
     getTypes.put(name, typeToClass(returnType));
@@ -220,7 +228,7 @@ public class Reflector {
   }
 
   private void addSetMethod(String name, Method method) {
-    MethodInvoker invoker = new MethodInvoker(method);
+    MethodInvoker invoker = methodInvokerFactory.apply(method);
     setMethods.put(name, invoker);
     Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
     setTypes.put(name, typeToClass(paramTypes[0]));
@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Invokes a getter or a setter through a generated lambda instead of {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Like {@code Method.invoke}, an invalid target or argument throws an {@link IllegalArgumentException} and only
+ * exceptions thrown by the getter or the setter are wrapped in an {@link InvocationTargetException}.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.reflection.LambdaReflectorFactory
+ */
+// 通过生成的 lambda 调用 getter/setter
+public class LambdaMethodInvoker extends MethodInvoker {
+
+  private final Class<?> declaringClass;
+  // setter 的参数类型，基本类型换成包装类型
+  private final Class<?> parameterType;
+  private final boolean primitiveParameter;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+
+  public LambdaMethodInvoker(Method method, Function<Object, Object> getter) {
+    super(method);
+    this.declaringClass = method.getDeclaringClass();
+    this.parameterType = null;
+    this.primitiveParameter = false;
+    this.getter = getter;
+    this.setter = null;
+  }
+
+  public LambdaMethodInvoker(Method method, BiConsumer<Object, Object> setter) {
+    super(method);
+    Class<?> type = method.getParameterTypes()[0];
+    this.declaringClass = method.getDeclaringClass();
+    this.parameterType = MethodType.methodType(type).wrap().returnType();
+    this.primitiveParameter = type.isPrimitive();
+    this.getter = null;
+    this.setter = setter;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws InvocationTargetException {
+    // 先按 Method.invoke 的规则检查参数，lambda 内部的类型转换失败不能当作 getter/setter 抛出的异常
+    if (!declaringClass.isInstance(target)) {
+      if (target == null) {
+        throw new NullPointerException();
+      }
+      throw new IllegalArgumentException("object is not an instance of declaring class");
+    }
+    Object value = null;
+    if (setter != null) {
+      if (args == null || args.length != 1) {
+        throw new IllegalArgumentException("wrong number of arguments");
+      }
+      value = args[0];
+      if (value == null ? primitiveParameter : !parameterType.isInstance(value)) {
+        throw new IllegalArgumentException("argument type mismatch");
+      }
+    }
+    try {
+      if (getter != null) {
+        return getter.apply(target);
+      }
+      setter.accept(target, value);
+      return null;
+    } catch (Throwable t) {
+      // as Method.invoke does
+      throw new InvocationTargetException(t);
+    }
+  }
+
+}
@@ -23,6 +23,7 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterBinding;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.reflection.MetaObject;
@@ -67,6 +68,9 @@ public class DefaultParameterHandler implements ParameterHandler {
     //  获取 ParameterMapping 参数
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
+      // 重复以相同类型的参数执行时，使用预先解析的参数绑定计划
+      ParameterBinding binding = parameterObject == null ? null : ParameterBinding.forStatement(mappedStatement, parameterMappings, parameterObject);
+      MetaObject metaObject = null;
       // 开始遍历 ParameterMapping 数组
       for (int i = 0; i < parameterMappings.size(); i++) {
         //
@@ -79,10 +83,14 @@ public class DefaultParameterHandler implements ParameterHandler {
             value = boundSql.getAdditionalParameter(propertyName);
           } else if (parameterObject == null) {
             value = null;
+          } else if (binding != null) {
+            value = binding.getValue(i, parameterObject);
           } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
             value = parameterObject;
           } else {
-            MetaObject metaObject = configuration.newMetaObject(parameterObject);
+            if (metaObject == null) {
+              metaObject = configuration.newMetaObject(parameterObject);
+            }
             value = metaObject.getValue(propertyName);
           }
           // 获取 Typehandler
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.scripting.defaults;
 
+import java.io.Serializable;
 import java.util.HashMap;
 
 import org.apache.ibatis.builder.SqlSourceBuilder;
@@ -35,7 +36,9 @@ import java.util.HashMap;
  * @author Eduardo Macarron
  */
 // 原始的 SqlSource ， 仅适用使用 #{} 表达式
-public class RawSqlSource implements SqlSource {
+public class RawSqlSource implements SqlSource, Serializable {
+
+  private static final long serialVersionUID = 8855953305651559965L;
 
   //  sqlSource
   private final SqlSource sqlSource;
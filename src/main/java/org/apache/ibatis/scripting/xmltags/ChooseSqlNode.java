@@ -15,12 +15,16 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * @author Clinton Begin
  */
-public class ChooseSqlNode implements SqlNode {
+public class ChooseSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = -620733922036721574L;
+
   // 对应的 otherwise 标签
   private final SqlNode defaultSqlNode;
   // 标签对应的 SqlNode 节点组数
@@ -31,6 +35,14 @@ public class ChooseSqlNode implements SqlNode {
     this.defaultSqlNode = defaultSqlNode;
   }
 
+  List<SqlNode> getIfSqlNodes() {
+    return ifSqlNodes;
+  }
+
+  SqlNode getDefaultSqlNode() {
+    return defaultSqlNode;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     //  先判断  <when /> 标签中，是否有符合条件的节点。
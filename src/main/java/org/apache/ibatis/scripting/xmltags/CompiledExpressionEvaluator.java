@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * An {@link ExpressionEvaluator} that compiles the common test expressions of dynamic SQL (property paths, null
+ * checks, comparisons, {@code size()}, {@code !}, {@code and} and {@code or}) into trees of Java objects instead of
+ * interpreting them with OGNL.
+ * <p>
+ * Operators are evaluated with the same conversions as OGNL and bean properties are read through the
+ * {@link ReflectorFactory}. Expressions using any other syntax are evaluated by OGNL. So is an evaluation that meets a
+ * value the compiled expression does not handle or that fails, which keeps OGNL's results and error messages.
+ *
+ * @since 3.5.4
+ * @see ExpressionCompiler
+ */
+// 将 OGNL 表达式编译成 Java 对象树的表达式计算器，不支持的表达式交给 OGNL
+public class CompiledExpressionEvaluator extends ExpressionEvaluator {
+
+  private final ExpressionCompiler compiler;
+  // 表达式与编译结果的映射
+  private final ConcurrentMap<String, ExpressionCompiler.Node> expressionCache = new ConcurrentHashMap<>();
+
+  public CompiledExpressionEvaluator() {
+    this(new DefaultReflectorFactory());
+  }
+
+  public CompiledExpressionEvaluator(ReflectorFactory reflectorFactory) {
+    this.compiler = new ExpressionCompiler(reflectorFactory);
+  }
+
+  @Override
+  protected Object getValue(String expression, Object parameterObject) {
+    ExpressionCompiler.Node node = expressionCache.computeIfAbsent(expression, compiler::compile);
+    if (node != ExpressionCompiler.UNSUPPORTED) {
+      try {
+        return node.getValue(parameterObject);
+      } catch (Exception e) {
+        // evaluate it again with OGNL, which also reports the error
+      }
+    }
+    return super.getValue(expression, parameterObject);
+  }
+
+  /**
+   * @return {@code true} if the expression is evaluated without OGNL, unless a value requires it
+   */
+  public boolean isCompiled(String expression) {
+    return expressionCache.computeIfAbsent(expression, compiler::compile) != ExpressionCompiler.UNSUPPORTED;
+  }
+
+}
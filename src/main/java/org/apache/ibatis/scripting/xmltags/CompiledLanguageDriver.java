@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * An XML language driver that compiles each dynamic statement into a {@link CompiledSqlSource} when it is built.
+ * <p>
+ * The compiled statement appends its SQL with the {@code #{}} placeholders already replaced by {@code ?} and collects
+ * the parameter mappings directly, instead of re-parsing the SQL generated on each call. Statements using custom
+ * {@link SqlNode}s are run by {@link DynamicSqlSource} as with {@link XMLLanguageDriver}.
+ *
+ * @since 3.5.4
+ */
+// 编译动态 SQL 的 xml 语言驱动
+public class CompiledLanguageDriver extends XMLLanguageDriver {
+
+  @Override
+  public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+    return compile(configuration, super.createSqlSource(configuration, script, parameterType));
+  }
+
+  @Override
+  public SqlSource createSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+    return compile(configuration, super.createSqlSource(configuration, script, parameterType));
+  }
+
+  private SqlSource compile(Configuration configuration, SqlSource sqlSource) {
+    if (sqlSource instanceof DynamicSqlSource) {
+      return CompiledSqlSource.compile(configuration, (DynamicSqlSource) sqlSource);
+    }
+    return sqlSource;
+  }
+
+}
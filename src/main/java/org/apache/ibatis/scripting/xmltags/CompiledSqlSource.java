@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A {@link SqlSource} that runs a dynamic statement compiled by {@link SqlNodeCompiler}. It builds the same
+ * {@link BoundSql} as {@link DynamicSqlSource} without parsing the {@code #{}} placeholders of the generated SQL.
+ *
+ * @since 3.5.4
+ * @see CompiledLanguageDriver
+ */
+// 执行编译后的动态 SQL，直接生成带 ? 的 SQL 和 ParameterMapping
+public class CompiledSqlSource implements SqlSource, Serializable {
+
+  private static final long serialVersionUID = 7067462994690599537L;
+
+  private final Configuration configuration;
+  private final transient SqlSourceBuilder sqlSourceBuilder;
+  private final transient SqlNodeCompiler.Step rootStep;
+  // ${} 生成的文本无法编译时使用，也是序列化的内容
+  private final DynamicSqlSource fallback;
+  // 上一次生成的 SQL 的长度，作为 StringBuilder 的初始容量
+  private transient volatile int sqlLength = 256;
+
+  CompiledSqlSource(Configuration configuration, SqlSourceBuilder sqlSourceBuilder, SqlNodeCompiler.Step rootStep,
+      DynamicSqlSource fallback) {
+    this.configuration = configuration;
+    this.sqlSourceBuilder = sqlSourceBuilder;
+    this.rootStep = rootStep;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Compiles a {@link DynamicSqlSource}.
+   *
+   * @return the compiled source, or the given source if one of its nodes can not be compiled
+   */
+  public static SqlSource compile(Configuration configuration, DynamicSqlSource sqlSource) {
+    SqlSourceBuilder sqlSourceBuilder = new SqlSourceBuilder(configuration);
+    SqlNodeCompiler.Step rootStep = new SqlNodeCompiler(sqlSourceBuilder).compile(sqlSource.getRootSqlNode());
+    return rootStep == null ? sqlSource : new CompiledSqlSource(configuration, sqlSourceBuilder, rootStep, sqlSource);
+  }
+
+  // 反序列化时重新编译
+  private Object readResolve() {
+    return compile(configuration, fallback);
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    SqlNodeCompiler.RootSink sink = new SqlNodeCompiler.RootSink(sqlLength);
+    try {
+      rootStep.apply(context, sink);
+    } catch (SqlNodeCompiler.Fallback e) {
+      return fallback.getBoundSql(parameterObject);
+    }
+    String sql = sink.sql.toString().trim();
+    sqlLength = sink.sql.length();
+    // 与 SqlSourceBuilder 相同地创建 ParameterMapping
+    Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+    MetaObject metaParameters = configuration.newMetaObject(context.getBindings());
+    List<ParameterMapping> parameterMappings = new ArrayList<>(sink.parameters.size());
+    for (SqlNodeCompiler.Parameter parameter : sink.parameters) {
+      parameterMappings.add(sqlSourceBuilder.buildParameterMapping(parameter.content, parameter.property,
+          parameter.properties, parameterType, metaParameters));
+    }
+    BoundSql boundSql = new BoundSql(configuration, sql, parameterMappings, parameterObject);
+    // 添加附加参数到 BoundSql 对象中
+    context.getBindings().forEach(boundSql::setAdditionalParameter);
+    return boundSql;
+  }
+
+}
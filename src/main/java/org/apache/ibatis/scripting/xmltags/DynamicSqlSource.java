@@ -15,24 +15,47 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
  * @author Clinton Begin
  */
 // 动态sql source
-public class DynamicSqlSource implements SqlSource {
+public class DynamicSqlSource implements SqlSource, Serializable {
+
+  private static final long serialVersionUID = -648300878787508621L;
 
   private final Configuration configuration;
   // sqlNode 对象
   private final SqlNode rootSqlNode;
+  // 已解析的 SQL 模板，按 SQL 形状缓存。dynamicSqlCacheSize 为 0 时为 null
+  private final transient TinyLfuCache templateCache;
+  private final transient LongAdder hits = new LongAdder();
+  private final transient LongAdder misses = new LongAdder();
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    int cacheSize = configuration.getDynamicSqlCacheSize();
+    if (cacheSize > 0) {
+      templateCache = new TinyLfuCache(DynamicSqlSource.class.getName());
+      templateCache.setSize(cacheSize);
+    } else {
+      templateCache = null;
+    }
   }
 
   @Override
@@ -41,17 +64,137 @@ public class DynamicSqlSource implements SqlSource {
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     // rootSqlNode 应用
     rootSqlNode.apply(context);
-    //  创建 SqlSourceBuilder 对象
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    // 解析出 SqlSource 对象  StaticSqlSource 类。 这个过程，会将 #{} 对，转换成对应的 ? 占位符，并获取该占位符对应的 ParameterMapping 对象。
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    // 获得 BoundSql 对象
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql boundSql;
+    if (templateCache == null) {
+      boundSql = parse(context, parameterType).getBoundSql(parameterObject);
+    } else {
+      // 同一形状的 SQL 直接复用已解析的 SQL 和 ParameterMapping
+      ShapeKey key = new ShapeKey(context.getSql(), parameterType, context.getBindings());
+      SqlSource sqlSource = (SqlSource) templateCache.getObject(key);
+      if (sqlSource != null) {
+        hits.increment();
+        boundSql = sqlSource.getBoundSql(parameterObject);
+      } else {
+        misses.increment();
+        sqlSource = parse(context, parameterType);
+        boundSql = sqlSource.getBoundSql(parameterObject);
+        if (hasStableTypes(boundSql.getParameterMappings(), context.getBindings())) {
+          templateCache.putObject(key, sqlSource);
+        }
+      }
+    }
     // 添加附加参数到 BoundSql 对象中
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     // 返回 BoundSql 对象
     return boundSql;
   }
 
+  /**
+   * @return the number of calls that reused a parsed SQL shape
+   * @since 3.5.4
+   */
+  public long getTemplateCacheHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of calls that parsed the SQL because their shape was not cached
+   * @since 3.5.4
+   */
+  public long getTemplateCacheMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of SQL shapes currently cached
+   * @since 3.5.4
+   */
+  public int getTemplateCacheSize() {
+    return templateCache == null ? 0 : templateCache.getSize();
+  }
+
+  SqlNode getRootSqlNode() {
+    return rootSqlNode;
+  }
+
+  // 反序列化时重新创建模板缓存
+  private Object readResolve() {
+    return new DynamicSqlSource(configuration, rootSqlNode);
+  }
+
+  private SqlSource parse(DynamicContext context, Class<?> parameterType) {
+    //  创建 SqlSourceBuilder 对象
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    // 解析出 SqlSource 对象  StaticSqlSource 类。 这个过程，会将 #{} 对，转换成对应的 ? 占位符，并获取该占位符对应的 ParameterMapping 对象。
+    return sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+  }
+
+  // 附加参数的嵌套属性（如 #{item.name}）的类型取自运行时的值，
+  // 路径上经过 Map、集合、数组或 null 时，同一形状下次可能解析出不同的类型，不能缓存
+  private boolean hasStableTypes(List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      String property = parameterMapping.getProperty();
+      if (property == null) {
+        continue;
+      }
+      PropertyTokenizer prop = new PropertyTokenizer(property);
+      if (!prop.hasNext() || !bindings.containsKey(prop.getName())) {
+        continue;
+      }
+      // 按位置绑定的 foreach 元素（如 #{__frch_item_0[1].id}）也经过集合
+      Object value = bindings.get(prop.getName());
+      while (prop.hasNext()) {
+        if (value == null || prop.getIndex() != null || value instanceof Map || value instanceof Collection
+            || value.getClass().isArray()) {
+          return false;
+        }
+        prop = prop.next();
+        if (prop.hasNext()) {
+          value = configuration.newMetaObject(value).getValue(prop.getName());
+        }
+      }
+    }
+    return true;
+  }
+
+  // SQL 的形状：动态节点生成的 SQL（包含了生效的分支、foreach 的长度和 ${} 的值）、参数类型及附加参数的类型
+  private static final class ShapeKey {
+    private final String sql;
+    private final Class<?> parameterType;
+    private final Object[] bindingTypes;
+    private final int hashCode;
+
+    ShapeKey(String sql, Class<?> parameterType, Map<String, Object> bindings) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+      this.bindingTypes = new Object[bindings.size() * 2];
+      int i = 0;
+      for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+        Object value = entry.getValue();
+        bindingTypes[i++] = entry.getKey();
+        bindingTypes[i++] = value == null ? null : value.getClass();
+      }
+      this.hashCode = 31 * (31 * sql.hashCode() + parameterType.hashCode()) + Arrays.hashCode(bindingTypes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ShapeKey)) {
+        return false;
+      }
+      ShapeKey other = (ShapeKey) o;
+      return hashCode == other.hashCode && parameterType == other.parameterType && sql.equals(other.sql)
+          && Arrays.equals(bindingTypes, other.bindingTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
 }
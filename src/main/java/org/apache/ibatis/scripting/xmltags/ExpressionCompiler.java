@@ -0,0 +1,532 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ognl.OgnlOps;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * Compiles a subset of OGNL into trees of {@link Node}s. It supports literals ({@code null}, {@code true},
+ * {@code false}, integers, decimals and strings), property paths, the methods {@code size()}, {@code isEmpty()},
+ * {@code length()} and {@code trim()}, the operators {@code == != < > <= >=} and their keyword forms, {@code !},
+ * {@code not}, {@code and}, {@code or}, {@code &&}, {@code ||} and parentheses.
+ * <p>
+ * A node throws an exception for values it does not handle the way OGNL does, so that the caller evaluates the
+ * expression with OGNL instead.
+ *
+ * @since 3.5.4
+ */
+// OGNL 表达式子集的编译器
+final class ExpressionCompiler {
+
+  // 表达式不能编译时的结果
+  static final Node UNSUPPORTED = root -> {
+    throw Fallback.INSTANCE;
+  };
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+  private static final DynamicContext.ContextAccessor CONTEXT_ACCESSOR = new DynamicContext.ContextAccessor();
+  // OGNL 保留但这里不支持的关键字
+  private static final Set<String> UNSUPPORTED_KEYWORDS = new HashSet<>(Arrays.asList(
+      "in", "instanceof", "new", "shl", "shr", "ushr", "band", "bor", "xor"));
+
+  private final ReflectorFactory reflectorFactory;
+
+  ExpressionCompiler(ReflectorFactory reflectorFactory) {
+    this.reflectorFactory = reflectorFactory;
+  }
+
+  Node compile(String expression) {
+    try {
+      Parser parser = new Parser(expression);
+      Node node = parser.parseOr();
+      parser.expectEnd();
+      return node;
+    } catch (Fallback e) {
+      return UNSUPPORTED;
+    }
+  }
+
+  /**
+   * A compiled expression.
+   */
+  @FunctionalInterface
+  interface Node {
+    Object getValue(Object root) throws Exception;
+  }
+
+  /**
+   * Thrown when OGNL has to evaluate the expression.
+   */
+  static final class Fallback extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    static final Fallback INSTANCE = new Fallback();
+
+    private Fallback() {
+      super(null, null, false, false);
+    }
+  }
+
+  private final class Parser {
+    private final String expression;
+    private int position;
+    // 当前的 token 。标识符和运算符为 String ，字面量为 Literal
+    private Object token;
+
+    Parser(String expression) {
+      this.expression = expression;
+      next();
+    }
+
+    Node parseOr() {
+      Node node = parseAnd();
+      while (accept("||") || accept("or")) {
+        Node left = node;
+        Node right = parseAnd();
+        node = root -> {
+          Object value = left.getValue(root);
+          return OgnlOps.booleanValue(value) ? value : right.getValue(root);
+        };
+      }
+      return node;
+    }
+
+    Node parseAnd() {
+      Node node = parseEquality();
+      while (accept("&&") || accept("and")) {
+        Node left = node;
+        Node right = parseEquality();
+        node = root -> {
+          Object value = left.getValue(root);
+          return OgnlOps.booleanValue(value) ? right.getValue(root) : value;
+        };
+      }
+      return node;
+    }
+
+    Node parseEquality() {
+      Node node = parseRelational();
+      while (true) {
+        boolean negated;
+        if (accept("==") || accept("eq")) {
+          negated = false;
+        } else if (accept("!=") || accept("neq")) {
+          negated = true;
+        } else {
+          return node;
+        }
+        Node left = node;
+        Node right = parseRelational();
+        node = root -> OgnlOps.equal(left.getValue(root), right.getValue(root)) != negated;
+      }
+    }
+
+    Node parseRelational() {
+      Node node = parseUnary();
+      while (true) {
+        Node left = node;
+        if (accept("<") || accept("lt")) {
+          Node right = parseUnary();
+          node = root -> OgnlOps.less(left.getValue(root), right.getValue(root));
+        } else if (accept(">") || accept("gt")) {
+          Node right = parseUnary();
+          node = root -> OgnlOps.greater(left.getValue(root), right.getValue(root));
+        } else if (accept("<=") || accept("lte")) {
+          Node right = parseUnary();
+          node = root -> !OgnlOps.greater(left.getValue(root), right.getValue(root));
+        } else if (accept(">=") || accept("gte")) {
+          Node right = parseUnary();
+          node = root -> !OgnlOps.less(left.getValue(root), right.getValue(root));
+        } else {
+          return node;
+        }
+      }
+    }
+
+    Node parseUnary() {
+      if (accept("!") || accept("not")) {
+        Node operand = parseUnary();
+        return root -> !OgnlOps.booleanValue(operand.getValue(root));
+      }
+      if (accept("-")) {
+        // 只支持负数字面量
+        if (!(token instanceof Literal) || !(((Literal) token).value instanceof Number)) {
+          throw Fallback.INSTANCE;
+        }
+        Object value = OgnlOps.negate(((Literal) token).value);
+        next();
+        return root -> value;
+      }
+      return parsePrimary();
+    }
+
+    Node parsePrimary() {
+      if (token instanceof Literal) {
+        Object value = ((Literal) token).value;
+        next();
+        return root -> value;
+      }
+      if (accept("(")) {
+        Node node = parseOr();
+        expect(")");
+        return node;
+      }
+      Node node = new PropertyNode(null, identifier());
+      while (accept(".")) {
+        String name = identifier();
+        if (accept("(")) {
+          expect(")");
+          node = newMethodNode(node, name);
+        } else {
+          node = new PropertyNode(node, name);
+        }
+      }
+      return node;
+    }
+
+    private String identifier() {
+      if (!(token instanceof String) || !Character.isJavaIdentifierStart(((String) token).charAt(0))
+          || UNSUPPORTED_KEYWORDS.contains(token) || isOperatorKeyword((String) token)) {
+        throw Fallback.INSTANCE;
+      }
+      String name = (String) token;
+      next();
+      return name;
+    }
+
+    private boolean isOperatorKeyword(String name) {
+      switch (name) {
+        case "and":
+        case "or":
+        case "not":
+        case "eq":
+        case "neq":
+        case "lt":
+        case "gt":
+        case "lte":
+        case "gte":
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    private boolean accept(String expected) {
+      if (expected.equals(token)) {
+        next();
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(String expected) {
+      if (!accept(expected)) {
+        throw Fallback.INSTANCE;
+      }
+    }
+
+    void expectEnd() {
+      if (token != null) {
+        throw Fallback.INSTANCE;
+      }
+    }
+
+    private void next() {
+      int length = expression.length();
+      while (position < length && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+      if (position == length) {
+        token = null;
+        return;
+      }
+      char c = expression.charAt(position);
+      if (Character.isJavaIdentifierStart(c)) {
+        int start = position;
+        while (position < length && Character.isJavaIdentifierPart(expression.charAt(position))) {
+          position++;
+        }
+        String name = expression.substring(start, position);
+        if ("null".equals(name)) {
+          token = new Literal(null);
+        } else if ("true".equals(name)) {
+          token = new Literal(Boolean.TRUE);
+        } else if ("false".equals(name)) {
+          token = new Literal(Boolean.FALSE);
+        } else {
+          token = name;
+        }
+      } else if (c >= '0' && c <= '9') {
+        token = new Literal(number());
+      } else if (c == '\'' || c == '"') {
+        token = new Literal(string(c));
+      } else if (expression.startsWith("==", position) || expression.startsWith("!=", position)
+          || expression.startsWith("<=", position) || expression.startsWith(">=", position)
+          || expression.startsWith("&&", position) || expression.startsWith("||", position)) {
+        token = expression.substring(position, position + 2);
+        position += 2;
+      } else if ("!<>().-".indexOf(c) >= 0) {
+        token = String.valueOf(c);
+        position++;
+      } else {
+        throw Fallback.INSTANCE;
+      }
+    }
+
+    private Object number() {
+      int start = position;
+      int length = expression.length();
+      while (position < length && Character.isDigit(expression.charAt(position))) {
+        position++;
+      }
+      boolean decimal = false;
+      if (position + 1 < length && expression.charAt(position) == '.'
+          && Character.isDigit(expression.charAt(position + 1))) {
+        decimal = true;
+        position++;
+        while (position < length && Character.isDigit(expression.charAt(position))) {
+          position++;
+        }
+      }
+      // 不支持类型后缀、指数、八进制和十六进制
+      if (position < length && (Character.isJavaIdentifierPart(expression.charAt(position))
+          || expression.charAt(position) == '.')
+          || !decimal && position - start > 1 && expression.charAt(start) == '0') {
+        throw Fallback.INSTANCE;
+      }
+      String text = expression.substring(start, position);
+      if (decimal) {
+        return Double.valueOf(text);
+      }
+      try {
+        return Integer.valueOf(text);
+      } catch (NumberFormatException e) {
+        throw Fallback.INSTANCE;
+      }
+    }
+
+    private Object string(char quote) {
+      StringBuilder builder = new StringBuilder();
+      int length = expression.length();
+      position++;
+      while (true) {
+        if (position == length) {
+          throw Fallback.INSTANCE;
+        }
+        char c = expression.charAt(position++);
+        if (c == quote) {
+          break;
+        }
+        if (c == '\\') {
+          if (position == length) {
+            throw Fallback.INSTANCE;
+          }
+          builder.append(escape(expression.charAt(position++)));
+        } else {
+          builder.append(c);
+        }
+      }
+      // as OGNL does, a single quoted character is a Character
+      if (quote == '\'' && builder.length() == 1) {
+        return builder.charAt(0);
+      }
+      return builder.toString();
+    }
+
+    private char escape(char c) {
+      switch (c) {
+        case 'n':
+          return '\n';
+        case 'r':
+          return '\r';
+        case 't':
+          return '\t';
+        case 'b':
+          return '\b';
+        case 'f':
+          return '\f';
+        case '\\':
+        case '\'':
+        case '"':
+          return c;
+        default:
+          throw Fallback.INSTANCE;
+      }
+    }
+  }
+
+  private static final class Literal {
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+  }
+
+  private Node newMethodNode(Node target, String name) {
+    switch (name) {
+      case "size":
+        return root -> {
+          Object value = target.getValue(root);
+          if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+          } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).size();
+          }
+          throw Fallback.INSTANCE;
+        };
+      case "isEmpty":
+        return root -> {
+          Object value = target.getValue(root);
+          if (value instanceof Collection) {
+            return ((Collection<?>) value).isEmpty();
+          } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).isEmpty();
+          } else if (value instanceof String) {
+            return ((String) value).isEmpty();
+          }
+          throw Fallback.INSTANCE;
+        };
+      case "length":
+        return root -> {
+          Object value = target.getValue(root);
+          if (value instanceof String) {
+            return ((String) value).length();
+          }
+          throw Fallback.INSTANCE;
+        };
+      case "trim":
+        return root -> {
+          Object value = target.getValue(root);
+          if (value instanceof String) {
+            return ((String) value).trim();
+          }
+          throw Fallback.INSTANCE;
+        };
+      default:
+        throw Fallback.INSTANCE;
+    }
+  }
+
+  /**
+   * Reads a property as OGNL's property accessors do. Bean getters are cached for the last class seen.
+   */
+  private final class PropertyNode implements Node {
+    private final Node target;
+    private final String name;
+    private volatile GetterSite site;
+
+    PropertyNode(Node target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      Object value = target == null ? root : target.getValue(root);
+      if (value == null) {
+        throw Fallback.INSTANCE;
+      }
+      if (value instanceof DynamicContext.ContextMap) {
+        return CONTEXT_ACCESSOR.getProperty(null, value, name);
+      }
+      if (value instanceof Map) {
+        if (value instanceof Collection) {
+          throw Fallback.INSTANCE;
+        }
+        return getMapProperty((Map<?, ?>) value);
+      }
+      if (value instanceof List) {
+        return getCollectionProperty((List<?>) value, true);
+      }
+      if (value instanceof Set) {
+        return getCollectionProperty((Set<?>) value, false);
+      }
+      if (value instanceof Collection || value instanceof Iterator || value instanceof Enumeration) {
+        throw Fallback.INSTANCE;
+      }
+      if (value.getClass().isArray()) {
+        if ("length".equals(name)) {
+          return Array.getLength(value);
+        }
+        throw Fallback.INSTANCE;
+      }
+      return getBeanProperty(value);
+    }
+
+    private Object getMapProperty(Map<?, ?> map) {
+      switch (name) {
+        case "size":
+          return map.size();
+        case "keys":
+        case "keySet":
+          return map.keySet();
+        case "values":
+          return map.values();
+        case "isEmpty":
+          return map.isEmpty();
+        default:
+          return map.get(name);
+      }
+    }
+
+    private Object getCollectionProperty(Collection<?> collection, boolean list) {
+      if ("size".equals(name)) {
+        return collection.size();
+      } else if ("isEmpty".equals(name) || list && "empty".equals(name)) {
+        return collection.isEmpty();
+      }
+      throw Fallback.INSTANCE;
+    }
+
+    private Object getBeanProperty(Object bean) throws Exception {
+      GetterSite site = this.site;
+      if (site == null || site.type != bean.getClass()) {
+        Reflector reflector = reflectorFactory.findForClass(bean.getClass());
+        if (!reflector.hasGetter(name)) {
+          throw Fallback.INSTANCE;
+        }
+        site = new GetterSite(bean.getClass(), reflector.getGetInvoker(name));
+        this.site = site;
+      }
+      return site.invoker.invoke(bean, NO_ARGUMENTS);
+    }
+  }
+
+  private static final class GetterSite {
+    private final Class<?> type;
+    private final Invoker invoker;
+
+    GetterSite(Class<?> type, Invoker invoker) {
+      this.type = type;
+      this.invoker = invoker;
+    }
+  }
+
+}
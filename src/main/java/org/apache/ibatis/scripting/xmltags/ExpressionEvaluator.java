@@ -38,7 +38,7 @@ public class ExpressionEvaluator {
    */
   public boolean evaluateBoolean(String expression, Object parameterObject) {
     // 从Ognl 缓存中 获取表达式的值
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     // 如果是 Boolean 类型，直接返回
     if (value instanceof Boolean) {
       return (Boolean) value;
@@ -54,7 +54,7 @@ public class ExpressionEvaluator {
   // 获取表达式对应的集合
   public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
     // 获取表达式的值
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
@@ -83,4 +83,16 @@ public class ExpressionEvaluator {
     throw new BuilderException("Error evaluating expression '" + expression + "'.  Return value (" + value + ") was not iterable.");
   }
 
+  /**
+   * Evaluates an expression against the parameter object.
+   *
+   * @param expression the expression
+   * @param parameterObject the root object of the expression
+   * @return the value of the expression
+   * @since 3.5.4
+   */
+  protected Object getValue(String expression, Object parameterObject) {
+    return OgnlCache.getValue(expression, parameterObject);
+  }
+
 }
@@ -15,15 +15,24 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
 
 /**
  * @author Clinton Begin
  */
-public class ForEachSqlNode implements SqlNode {
+public class ForEachSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = 2521356189281497993L;
+
   public static final String ITEM_PREFIX = "__frch_";
 
   private final ExpressionEvaluator evaluator;
@@ -37,10 +46,49 @@ public class ForEachSqlNode implements SqlNode {
   private final String item;
   // 索引变量
   private final String index;
+  // 是否按位置绑定集合元素
+  private final boolean positional;
+  // 补齐元素个数的档位，null 表示不补齐，空数组表示补齐到 2 的幂
+  private final int[] padding;
+  // 是否将集合绑定成一个数据库数组参数
+  private final boolean array;
   private final Configuration configuration;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
-    this.evaluator = new ExpressionEvaluator();
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, false);
+  }
+
+  /**
+   * @param positional whether to bind the elements positionally. Instead of binding a {@code __frch_item_N} variable
+   *          for every element, a positional foreach binds one list of the elements and refers to each one by its
+   *          position in the list (e.g. {@code #{__frch_item_0[3]}}), which keeps the bindings and the additional
+   *          parameters of the {@link org.apache.ibatis.mapping.BoundSql} small for very large collections.
+   * @since 3.5.4
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean positional) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, positional, null);
+  }
+
+  /**
+   * @param padding how to pad the collection by repeating its last element, so that collections of close sizes
+   *          generate the same SQL: {@code "true"} pads it to the next power of two and a comma separated list of
+   *          increasing sizes (e.g. {@code "10,50,100"}) pads it to the first size that fits it, or to the next
+   *          multiple of the last size. {@code null} or {@code "false"} does not pad it.
+   * @since 3.5.4
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean positional, String padding) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, positional, padding, false);
+  }
+
+  /**
+   * @param array whether to bind the whole collection as one {@link java.sql.Array} parameter instead of expanding
+   *          the contents for each element. The collection then generates the
+   *          {@link Configuration#getForeachArrayTemplate() foreach array template} between the open and close strings,
+   *          which gives the same SQL whatever the size of the collection, including an empty one.
+   * @since 3.5.4
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean positional, String padding, boolean array) {
+    this.evaluator = configuration.getExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
     this.open = open;
@@ -48,21 +96,90 @@ public class ForEachSqlNode implements SqlNode {
     this.separator = separator;
     this.index = index;
     this.item = item;
+    this.positional = positional;
+    this.padding = parsePadding(padding);
+    this.array = array;
     this.configuration = configuration;
   }
 
+  ExpressionEvaluator getEvaluator() {
+    return evaluator;
+  }
+
+  String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getOpen() {
+    return open;
+  }
+
+  String getClose() {
+    return close;
+  }
+
+  String getSeparator() {
+    return separator;
+  }
+
+  String getItem() {
+    return item;
+  }
+
+  String getIndex() {
+    return index;
+  }
+
+  boolean isPositional() {
+    return positional;
+  }
+
+  int[] getPadding() {
+    return padding;
+  }
+
+  boolean isArray() {
+    return array;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // 获取遍历的集合 Iterable 对象 用于遍历
     Map<String, Object> bindings = context.getBindings();
-    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    if (array) {
+      applyArray(context, iterable);
+      return true;
+    }
     if (!iterable.iterator().hasNext()) {
       return true;
     }
+    if (padding != null) {
+      iterable = pad(iterable, padding);
+    }
     boolean first = true;
     // 添加 open 到Sql中
     applyOpen(context);
     int i = 0;
+    // 按位置绑定时整个循环只有一个唯一编号，元素和索引分别放到一个 List 中
+    int loopNumber = 0;
+    List<Object> items = null;
+    List<Object> indexes = null;
+    if (positional) {
+      loopNumber = context.getUniqueNumber();
+      if (item != null) {
+        items = new ArrayList<>(sizeOf(iterable));
+        context.bind(itemizeItem(item, loopNumber), items);
+      }
+      if (index != null) {
+        indexes = new ArrayList<>(sizeOf(iterable));
+        context.bind(itemizeItem(index, loopNumber), indexes);
+      }
+    }
     //
     for (Object o : iterable) {
       // 记录旧的 Context 对象
@@ -73,21 +190,36 @@ public class ForEachSqlNode implements SqlNode {
       } else {
         context = new PrefixedContext(context, separator);
       }
-      // 生成唯一id
-      int uniqueNumber = context.getUniqueNumber();
+      Object key;
+      Object value;
       // Issue #709
-      // 绑定到 context
       if (o instanceof Map.Entry) {
         @SuppressWarnings("unchecked")
         Map.Entry<Object, Object> mapEntry = (Map.Entry<Object, Object>) o;
-        applyIndex(context, mapEntry.getKey(), uniqueNumber);
-        applyItem(context, mapEntry.getValue(), uniqueNumber);
+        key = mapEntry.getKey();
+        value = mapEntry.getValue();
       } else {
-        applyIndex(context, i, uniqueNumber);
-        applyItem(context, o, uniqueNumber);
+        key = i;
+        value = o;
+      }
+      FilteredDynamicContext filteredContext;
+      if (positional) {
+        // 只绑定当前的 item 和 index，#{} 引用 List 中相应位置的元素
+        applyPositional(context, index, key, indexes);
+        applyPositional(context, item, value, items);
+        filteredContext = new FilteredDynamicContext(configuration, context, index, item,
+            positionOf(index, loopNumber, i), positionOf(item, loopNumber, i));
+      } else {
+        // 生成唯一id
+        int uniqueNumber = context.getUniqueNumber();
+        // 绑定到 context
+        applyIndex(context, key, uniqueNumber);
+        applyItem(context, value, uniqueNumber);
+        filteredContext = new FilteredDynamicContext(configuration, context, index, item,
+            itemizeItem(index, uniqueNumber), itemizeItem(item, uniqueNumber));
       }
       // 执行应用
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
+      contents.apply(filteredContext);
       // 判断 prefix 是否插入
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
@@ -118,6 +250,93 @@ public class ForEachSqlNode implements SqlNode {
     }
   }
 
+  // 整个集合绑定成一个数组参数，SQL 与集合大小无关
+  private void applyArray(DynamicContext context, Iterable<?> iterable) {
+    String name = itemizeItem("array", context.getUniqueNumber());
+    context.bind(name, valuesOf(iterable));
+    applyOpen(context);
+    context.appendSql(configuration.getForeachArrayTemplate().replace("?", "#{" + name + ", jdbcType=ARRAY}"));
+    applyClose(context);
+  }
+
+  // Map 只绑定它的值
+  private static Collection<?> valuesOf(Iterable<?> iterable) {
+    Iterator<?> iterator = iterable.iterator();
+    if (iterable instanceof Collection && (!iterator.hasNext() || !(iterator.next() instanceof Map.Entry))) {
+      return (Collection<?>) iterable;
+    }
+    List<Object> values = new ArrayList<>(sizeOf(iterable));
+    for (Object o : iterable) {
+      values.add(o instanceof Map.Entry ? ((Map.Entry<?, ?>) o).getValue() : o);
+    }
+    return values;
+  }
+
+  private void applyPositional(DynamicContext context, String name, Object o, List<Object> values) {
+    if (name != null) {
+      context.bind(name, o);
+      values.add(o);
+    }
+  }
+
+  private static int[] parsePadding(String padding) {
+    if (padding == null || "false".equals(padding)) {
+      return null;
+    } else if ("true".equals(padding)) {
+      return new int[0];
+    }
+    String[] tokens = padding.split(",");
+    int[] steps = new int[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      try {
+        steps[i] = Integer.parseInt(tokens[i].trim());
+      } catch (NumberFormatException e) {
+        throw new BuilderException("Invalid foreach padding '" + padding + "'. Expected true, false or a comma separated list of sizes.", e);
+      }
+      if (steps[i] <= 0 || (i > 0 && steps[i] <= steps[i - 1])) {
+        throw new BuilderException("Invalid foreach padding '" + padding + "'. The sizes must be positive and increasing.");
+      }
+    }
+    return steps;
+  }
+
+  /**
+   * Repeats the last element of the non empty collection until its size reaches the next padded size.
+   */
+  static Iterable<?> pad(Iterable<?> iterable, int[] padding) {
+    List<Object> elements = new ArrayList<>(sizeOf(iterable));
+    iterable.forEach(elements::add);
+    int size = elements.size();
+    int paddedSize = paddedSize(size, padding);
+    Object last = elements.get(size - 1);
+    for (int i = size; i < paddedSize; i++) {
+      elements.add(last);
+    }
+    return elements;
+  }
+
+  static int paddedSize(int size, int[] padding) {
+    if (padding.length == 0) {
+      int highestOneBit = Integer.highestOneBit(size);
+      return highestOneBit == size ? size : highestOneBit << 1;
+    }
+    for (int step : padding) {
+      if (size <= step) {
+        return step;
+      }
+    }
+    int last = padding[padding.length - 1];
+    return (size + last - 1) / last * last;
+  }
+
+  static int sizeOf(Iterable<?> iterable) {
+    return iterable instanceof Collection ? ((Collection<?>) iterable).size() : 10;
+  }
+
+  static String positionOf(String name, int loopNumber, int position) {
+    return itemizeItem(name, loopNumber) + "[" + position + "]";
+  }
+
   private void applyOpen(DynamicContext context) {
     if (open != null) {
       context.appendSql(open);
@@ -136,19 +355,22 @@ public class ForEachSqlNode implements SqlNode {
 
   private static class FilteredDynamicContext extends DynamicContext {
     private final DynamicContext delegate;
-    // 唯一标识 {@link DynamicContext#getUniqueNumber()}
-    private final int index;
     //  索引变量 {@link ForEachSqlNode#index}
     private final String itemIndex;
     //  集合项 {@link ForEachSqlNode#item}
     private final String item;
+    // 替换后的索引变量和集合项
+    private final String itemizedIndex;
+    private final String itemizedItem;
 
-    public FilteredDynamicContext(Configuration configuration,DynamicContext delegate, String itemIndex, String item, int i) {
+    public FilteredDynamicContext(Configuration configuration, DynamicContext delegate, String itemIndex, String item,
+        String itemizedIndex, String itemizedItem) {
       super(configuration, null);
       this.delegate = delegate;
-      this.index = i;
       this.itemIndex = itemIndex;
       this.item = item;
+      this.itemizedIndex = itemizedIndex;
+      this.itemizedItem = itemizedItem;
     }
 
     @Override
@@ -171,10 +393,10 @@ public class ForEachSqlNode implements SqlNode {
     public void appendSql(String sql) {
       GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
         // 将对 item 的访问，替换成 itemizeItem(item, index)
-        String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizeItem(item, index));
+        String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizedItem);
         if (itemIndex != null && newContent.equals(content)) {
           // 将对 itemIndex 的访问，替换成 itemizeItem(itemIndex, index)
-          newContent = content.replaceFirst("^\\s*" + itemIndex + "(?![^.,:\\s])", itemizeItem(itemIndex, index));
+          newContent = content.replaceFirst("^\\s*" + itemIndex + "(?![^.,:\\s])", itemizedIndex);
         }
         //  返回
         return "#{" + newContent + "}";
@@ -15,10 +15,17 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
+
+import org.apache.ibatis.session.Configuration;
+
 /**
  * @author Clinton Begin
  */
-public class IfSqlNode implements SqlNode {
+public class IfSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = -8701916292026727346L;
+
   private final ExpressionEvaluator evaluator;
   // 表达式判断
   private final String test;
@@ -26,9 +33,32 @@ public class IfSqlNode implements SqlNode {
   private final SqlNode contents;
 
   public IfSqlNode(SqlNode contents, String test) {
+    this(contents, test, new ExpressionEvaluator());
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public IfSqlNode(Configuration configuration, SqlNode contents, String test) {
+    this(contents, test, configuration.getExpressionEvaluator());
+  }
+
+  private IfSqlNode(SqlNode contents, String test, ExpressionEvaluator evaluator) {
     this.test = test;
     this.contents = contents;
-    this.evaluator = new ExpressionEvaluator();
+    this.evaluator = evaluator;
+  }
+
+  ExpressionEvaluator getEvaluator() {
+    return evaluator;
+  }
+
+  String getTest() {
+    return test;
+  }
+
+  SqlNode getContents() {
+    return contents;
   }
 
   @Override
@@ -15,13 +15,17 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * @author Clinton Begin
  */
 // 混合的 SqlNode 实现类
-public class MixedSqlNode implements SqlNode {
+public class MixedSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = 4873533845632214866L;
+
   // 内嵌的 SqlNode 数组
   private final List<SqlNode> contents;
 
@@ -29,6 +33,10 @@ public class MixedSqlNode implements SqlNode {
     this.contents = contents;
   }
 
+  List<SqlNode> getContents() {
+    return contents;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // 遍历 SqlNode 数组，逐个应用
@@ -0,0 +1,708 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.scripting.ScriptingException;
+import org.apache.ibatis.type.SimpleTypeRegistry;
+
+/**
+ * Compiles a tree of {@link SqlNode}s into a tree of {@link Step}s that append the SQL with its {@code #{}}
+ * placeholders already replaced by {@code ?} and collect the placeholders as they go.
+ * <p>
+ * Each step reproduces the output of the node it is compiled from, including the separators added by
+ * {@link DynamicContext}, the trimming of {@link TrimSqlNode} and the renaming of foreach items, but the contents of
+ * {@code #{}} are parsed once at compile time. Only text produced by {@code ${}} is parsed again per call.
+ *
+ * @since 3.5.4
+ * @see CompiledSqlSource
+ */
+// 将 SqlNode 树编译成 Step 树，静态文本中的 #{} 在编译期解析
+final class SqlNodeCompiler {
+
+  private static final Text EMPTY = new Text("", Collections.emptyList());
+  // 覆盖的前后缀、trim 的前后缀中出现这些字符时，替换成 ? 的结果可能与原始的 SqlNode 不同
+  private static final String UNSAFE_OVERRIDE_CHARS = "#{}?\\";
+
+  private final SqlSourceBuilder sqlSourceBuilder;
+
+  SqlNodeCompiler(SqlSourceBuilder sqlSourceBuilder) {
+    this.sqlSourceBuilder = sqlSourceBuilder;
+  }
+
+  /**
+   * @return the compiled node, or {@code null} if the tree contains a node that can not be compiled
+   */
+  Step compile(SqlNode node) {
+    try {
+      return compileNode(node);
+    } catch (Fallback | BuilderException e) {
+      // 无法编译的节点和错误的 #{} 仍由 DynamicSqlSource 在运行时处理
+      return null;
+    }
+  }
+
+  private Step compileNode(SqlNode node) {
+    Class<?> type = node.getClass();
+    if (type == StaticTextSqlNode.class) {
+      return new StaticTextStep(parseText(((StaticTextSqlNode) node).getText()));
+    } else if (type == TextSqlNode.class) {
+      TextSqlNode textSqlNode = (TextSqlNode) node;
+      return new TextStep(this, splitTokens(textSqlNode.getText()), textSqlNode.getInjectionFilter());
+    } else if (type == MixedSqlNode.class) {
+      return new MixedStep(compileNodes(((MixedSqlNode) node).getContents()));
+    } else if (type == IfSqlNode.class) {
+      IfSqlNode ifSqlNode = (IfSqlNode) node;
+      return new IfStep(ifSqlNode.getEvaluator(), ifSqlNode.getTest(), compileNode(ifSqlNode.getContents()));
+    } else if (type == ChooseSqlNode.class) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      SqlNode defaultSqlNode = chooseSqlNode.getDefaultSqlNode();
+      return new ChooseStep(compileNodes(chooseSqlNode.getIfSqlNodes()),
+          defaultSqlNode == null ? null : compileNode(defaultSqlNode));
+    } else if (type == VarDeclSqlNode.class) {
+      VarDeclSqlNode varDeclSqlNode = (VarDeclSqlNode) node;
+      return new BindStep(varDeclSqlNode.getName(), varDeclSqlNode.getExpression());
+    } else if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+      TrimSqlNode trimSqlNode = (TrimSqlNode) node;
+      return new TrimStep(compileNode(trimSqlNode.getContents()), checkAffix(trimSqlNode.getPrefix()),
+          checkAffix(trimSqlNode.getSuffix()), checkOverrides(trimSqlNode.getPrefixesToOverride()),
+          checkOverrides(trimSqlNode.getSuffixesToOverride()));
+    } else if (type == ForEachSqlNode.class) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      if (forEachSqlNode.isArray()) {
+        // 数组绑定由 ForEachSqlNode 执行
+        throw Fallback.INSTANCE;
+      }
+      String separator = forEachSqlNode.getSeparator();
+      return new ForEachStep(forEachSqlNode.getEvaluator(), forEachSqlNode.getCollectionExpression(),
+          compileNode(forEachSqlNode.getContents()), parseNullableText(forEachSqlNode.getOpen()),
+          parseNullableText(forEachSqlNode.getClose()), separator == null ? EMPTY : parseText(separator),
+          checkName(forEachSqlNode.getItem()), forEachSqlNode.getIndex() == null ? null : checkName(forEachSqlNode.getIndex()),
+          forEachSqlNode.isPositional(), forEachSqlNode.getPadding());
+    }
+    // 自定义的 SqlNode
+    throw Fallback.INSTANCE;
+  }
+
+  private Step[] compileNodes(List<SqlNode> nodes) {
+    Step[] steps = new Step[nodes.size()];
+    for (int i = 0; i < steps.length; i++) {
+      steps[i] = compileNode(nodes.get(i));
+    }
+    return steps;
+  }
+
+  private static String checkAffix(String affix) {
+    if (affix != null && (affix.contains("#{") || endsWithEscape(affix))) {
+      throw Fallback.INSTANCE;
+    }
+    return affix;
+  }
+
+  private static List<String> checkOverrides(List<String> overrides) {
+    if (overrides != null) {
+      for (String override : overrides) {
+        for (int i = 0; i < override.length(); i++) {
+          if (UNSAFE_OVERRIDE_CHARS.indexOf(override.charAt(i)) > -1) {
+            throw Fallback.INSTANCE;
+          }
+        }
+      }
+    }
+    return overrides;
+  }
+
+  // item 和 index 在 ForEachSqlNode 中会被当成正则表达式，只编译普通的名字
+  private static String checkName(String name) {
+    if (name == null || name.isEmpty()) {
+      throw Fallback.INSTANCE;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (!Character.isJavaIdentifierPart(name.charAt(i)) || name.charAt(i) == '$') {
+        throw Fallback.INSTANCE;
+      }
+    }
+    return name;
+  }
+
+  // 去掉末尾空白（trim 会去掉）后以 \ 或 # 结尾的文本可能与下一段文本组成 #{
+  private static boolean endsWithEscape(String text) {
+    int last = text.length() - 1;
+    while (last >= 0 && text.charAt(last) <= ' ') {
+      last--;
+    }
+    return last >= 0 && (text.charAt(last) == '\\' || text.charAt(last) == '#');
+  }
+
+  private Text parseNullableText(String text) {
+    return text == null ? null : parseText(text);
+  }
+
+  /**
+   * Replaces the {@code #{}} placeholders of the text by {@code ?} like {@link SqlSourceBuilder} does. Text whose
+   * placeholders could depend on the neighbouring text (escaped or unclosed placeholders, or a trailing {@code #} or
+   * {@code \}) is not supported.
+   */
+  Text parseText(String text) {
+    if (endsWithEscape(text)) {
+      throw Fallback.INSTANCE;
+    }
+    int start = text.indexOf("#{");
+    if (start == -1) {
+      return new Text(text, Collections.emptyList());
+    }
+    StringBuilder sql = new StringBuilder(text.length());
+    List<Parameter> parameters = new ArrayList<>();
+    int offset = 0;
+    while (start > -1) {
+      int end = text.indexOf('}', start + 2);
+      if ((start > 0 && text.charAt(start - 1) == '\\') || end == -1
+          || (end > start + 2 && text.charAt(end - 1) == '\\')) {
+        throw Fallback.INSTANCE;
+      }
+      String content = text.substring(start + 2, end);
+      Map<String, String> properties = sqlSourceBuilder.parseParameterMapping(content);
+      parameters.add(new Parameter(content, properties.get("property"), properties));
+      sql.append(text, offset, start).append('?');
+      offset = end + 1;
+      start = text.indexOf("#{", offset);
+    }
+    sql.append(text, offset, text.length());
+    return new Text(sql.toString(), parameters);
+  }
+
+  // 与 GenericTokenParser 相同地拆分 ${}，返回文本和表达式交替的数组，首尾都是文本
+  private static String[] splitTokens(String text) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder builder = new StringBuilder();
+    StringBuilder expression = new StringBuilder();
+    int offset = 0;
+    int start = text.indexOf("${");
+    while (start > -1) {
+      if (start > 0 && text.charAt(start - 1) == '\\') {
+        builder.append(text, offset, start - 1).append("${");
+        offset = start + 2;
+      } else {
+        expression.setLength(0);
+        builder.append(text, offset, start);
+        offset = start + 2;
+        int end = text.indexOf('}', offset);
+        while (end > -1) {
+          if (end > offset && text.charAt(end - 1) == '\\') {
+            expression.append(text, offset, end - 1).append('}');
+            offset = end + 1;
+            end = text.indexOf('}', offset);
+          } else {
+            expression.append(text, offset, end);
+            break;
+          }
+        }
+        if (end == -1) {
+          builder.append(text, start, text.length());
+          offset = text.length();
+        } else {
+          tokens.add(builder.toString());
+          tokens.add(expression.toString());
+          builder.setLength(0);
+          offset = end + 1;
+        }
+      }
+      start = text.indexOf("${", offset);
+    }
+    builder.append(text, offset, text.length());
+    tokens.add(builder.toString());
+    return tokens.toArray(new String[0]);
+  }
+
+  private static boolean isBlank(String sql) {
+    return sql.trim().isEmpty();
+  }
+
+  /**
+   * Text whose {@code #{}} placeholders have been replaced by {@code ?}.
+   */
+  static final class Text {
+    final String sql;
+    final List<Parameter> parameters;
+    final boolean blank;
+
+    Text(String sql, List<Parameter> parameters) {
+      this.sql = sql;
+      this.parameters = parameters;
+      this.blank = isBlank(sql);
+    }
+  }
+
+  /**
+   * A {@code #{}} placeholder.
+   */
+  static final class Parameter {
+    // #{} 中的内容，仅用于错误信息
+    final String content;
+    final String property;
+    final Map<String, String> properties;
+
+    Parameter(String content, String property, Map<String, String> properties) {
+      this.content = content;
+      this.property = property;
+      this.properties = properties;
+    }
+
+    // 与 ForEachSqlNode 中的 content.replaceFirst("^\\s*" + name + "(?![^.,:\\s])", itemized) 等价
+    Parameter itemize(String name, String itemized) {
+      if (property == null || !property.startsWith(name)) {
+        return this;
+      }
+      if (property.length() > name.length()) {
+        char next = property.charAt(name.length());
+        if (next != '.' && next != ',' && next != ':' && !isRegexWhitespace(next)) {
+          return this;
+        }
+      }
+      int start = content.indexOf(property);
+      for (int i = 0; i < start; i++) {
+        if (!isRegexWhitespace(content.charAt(i))) {
+          return this;
+        }
+      }
+      String newProperty = itemized + property.substring(name.length());
+      return new Parameter(newProperty + content.substring(start + property.length()), newProperty, properties);
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+  }
+
+  /**
+   * Thrown when a statement, or the text produced by one of its {@code ${}} at run time, can not be compiled.
+   */
+  static final class Fallback extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    static final Fallback INSTANCE = new Fallback();
+
+    private Fallback() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Receives the SQL appended by the steps, like {@link DynamicContext#appendSql(String)}.
+   */
+  abstract static class Sink {
+    abstract void append(String sql, List<Parameter> parameters);
+
+    final void append(Text text) {
+      append(text.sql, text.parameters);
+    }
+  }
+
+  /**
+   * Joins the SQL with spaces like {@link DynamicContext}.
+   */
+  static final class RootSink extends Sink {
+    final StringBuilder sql;
+    final List<Parameter> parameters = new ArrayList<>();
+    private boolean first = true;
+
+    RootSink(int capacity) {
+      this.sql = new StringBuilder(capacity);
+    }
+
+    @Override
+    void append(String sql, List<Parameter> parameters) {
+      if (first) {
+        first = false;
+      } else {
+        this.sql.append(' ');
+      }
+      this.sql.append(sql);
+      this.parameters.addAll(parameters);
+    }
+  }
+
+  /**
+   * A compiled {@link SqlNode}.
+   */
+  interface Step {
+    boolean apply(DynamicContext context, Sink sink);
+  }
+
+  private static final class StaticTextStep implements Step {
+    private final Text text;
+
+    StaticTextStep(Text text) {
+      this.text = text;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      sink.append(text);
+      return true;
+    }
+  }
+
+  // TextSqlNode：先替换 ${}，再解析结果中的 #{}
+  private static final class TextStep implements Step {
+    private final SqlNodeCompiler compiler;
+    private final String[] tokens;
+    private final Pattern injectionFilter;
+
+    TextStep(SqlNodeCompiler compiler, String[] tokens, Pattern injectionFilter) {
+      this.compiler = compiler;
+      this.tokens = tokens;
+      this.injectionFilter = injectionFilter;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      Map<String, Object> bindings = context.getBindings();
+      StringBuilder builder = new StringBuilder(tokens[0]);
+      for (int i = 1; i < tokens.length; i += 2) {
+        Object parameter = bindings.get(DynamicContext.PARAMETER_OBJECT_KEY);
+        if (parameter == null) {
+          bindings.put("value", null);
+        } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
+          bindings.put("value", parameter);
+        }
+        Object value = OgnlCache.getValue(tokens[i], bindings);
+        String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
+        if (injectionFilter != null && !injectionFilter.matcher(srtValue).matches()) {
+          throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
+        }
+        builder.append(srtValue).append(tokens[i + 1]);
+      }
+      sink.append(compiler.parseText(builder.toString()));
+      return true;
+    }
+  }
+
+  private static final class MixedStep implements Step {
+    private final Step[] contents;
+
+    MixedStep(Step[] contents) {
+      this.contents = contents;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      for (Step step : contents) {
+        step.apply(context, sink);
+      }
+      return true;
+    }
+  }
+
+  private static final class IfStep implements Step {
+    private final ExpressionEvaluator evaluator;
+    private final String test;
+    private final Step contents;
+
+    IfStep(ExpressionEvaluator evaluator, String test, Step contents) {
+      this.evaluator = evaluator;
+      this.test = test;
+      this.contents = contents;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      if (evaluator.evaluateBoolean(test, context.getBindings())) {
+        contents.apply(context, sink);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static final class ChooseStep implements Step {
+    private final Step[] whens;
+    private final Step otherwise;
+
+    ChooseStep(Step[] whens, Step otherwise) {
+      this.whens = whens;
+      this.otherwise = otherwise;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      for (Step when : whens) {
+        if (when.apply(context, sink)) {
+          return true;
+        }
+      }
+      if (otherwise != null) {
+        otherwise.apply(context, sink);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static final class BindStep implements Step {
+    private final String name;
+    private final String expression;
+
+    BindStep(String name, String expression) {
+      this.name = name;
+      this.expression = expression;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      context.bind(name, OgnlCache.getValue(expression, context.getBindings()));
+      return true;
+    }
+  }
+
+  private static final class TrimStep implements Step {
+    private final Step contents;
+    private final String prefix;
+    private final String suffix;
+    private final List<String> prefixesToOverride;
+    private final List<String> suffixesToOverride;
+
+    TrimStep(Step contents, String prefix, String suffix, List<String> prefixesToOverride,
+        List<String> suffixesToOverride) {
+      this.contents = contents;
+      this.prefix = prefix;
+      this.suffix = suffix;
+      this.prefixesToOverride = prefixesToOverride;
+      this.suffixesToOverride = suffixesToOverride;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      TrimSink trimSink = new TrimSink();
+      boolean result = contents.apply(context, trimSink);
+      sink.append(trim(trimSink.buffer), trimSink.parameters);
+      return result;
+    }
+
+    // 与 TrimSqlNode.FilteredDynamicContext#applyAll 相同
+    private String trim(StringBuilder buffer) {
+      String trimmed = buffer.toString().trim();
+      if (trimmed.isEmpty()) {
+        return trimmed;
+      }
+      String trimmedUppercaseSql = trimmed.toUpperCase(Locale.ENGLISH);
+      StringBuilder sql = new StringBuilder(trimmed.length() + 16).append(trimmed);
+      if (prefixesToOverride != null) {
+        for (String toRemove : prefixesToOverride) {
+          if (trimmedUppercaseSql.startsWith(toRemove)) {
+            sql.delete(0, toRemove.trim().length());
+            break;
+          }
+        }
+      }
+      if (prefix != null) {
+        sql.insert(0, ' ').insert(0, prefix);
+      }
+      if (suffixesToOverride != null) {
+        for (String toRemove : suffixesToOverride) {
+          if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
+            sql.setLength(sql.length() - toRemove.trim().length());
+            break;
+          }
+        }
+      }
+      if (suffix != null) {
+        sql.append(' ').append(suffix);
+      }
+      return sql.toString();
+    }
+  }
+
+  // trim 的内容之间不加空格
+  private static final class TrimSink extends Sink {
+    private final StringBuilder buffer = new StringBuilder();
+    private final List<Parameter> parameters = new ArrayList<>();
+
+    @Override
+    void append(String sql, List<Parameter> parameters) {
+      buffer.append(sql);
+      this.parameters.addAll(parameters);
+    }
+  }
+
+  private static final class ForEachStep implements Step {
+    private final ExpressionEvaluator evaluator;
+    private final String collectionExpression;
+    private final Step contents;
+    private final Text open;
+    private final Text close;
+    private final Text separator;
+    private final String item;
+    private final String index;
+    private final boolean positional;
+    private final int[] padding;
+
+    ForEachStep(ExpressionEvaluator evaluator, String collectionExpression, Step contents, Text open, Text close,
+        Text separator, String item, String index, boolean positional, int[] padding) {
+      this.evaluator = evaluator;
+      this.collectionExpression = collectionExpression;
+      this.contents = contents;
+      this.open = open;
+      this.close = close;
+      this.separator = separator;
+      this.item = item;
+      this.index = index;
+      this.positional = positional;
+      this.padding = padding;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context, Sink sink) {
+      Map<String, Object> bindings = context.getBindings();
+      Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+      if (!iterable.iterator().hasNext()) {
+        return true;
+      }
+      if (padding != null) {
+        iterable = ForEachSqlNode.pad(iterable, padding);
+      }
+      boolean first = true;
+      if (open != null) {
+        sink.append(open);
+      }
+      int i = 0;
+      int loopNumber = 0;
+      List<Object> items = null;
+      List<Object> indexes = null;
+      if (positional) {
+        loopNumber = context.getUniqueNumber();
+        items = new ArrayList<>(ForEachSqlNode.sizeOf(iterable));
+        context.bind(ForEachSqlNode.ITEM_PREFIX + item + "_" + loopNumber, items);
+        if (index != null) {
+          indexes = new ArrayList<>(ForEachSqlNode.sizeOf(iterable));
+          context.bind(ForEachSqlNode.ITEM_PREFIX + index + "_" + loopNumber, indexes);
+        }
+      }
+      for (Object o : iterable) {
+        PrefixedSink prefixedSink = new PrefixedSink(sink, first ? EMPTY : separator);
+        // Issue #709
+        Object key;
+        Object value;
+        if (o instanceof Map.Entry) {
+          Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+          key = mapEntry.getKey();
+          value = mapEntry.getValue();
+        } else {
+          key = i;
+          value = o;
+        }
+        String itemizedItem;
+        String itemizedIndex = null;
+        if (positional) {
+          itemizedItem = ForEachSqlNode.positionOf(item, loopNumber, i);
+          if (index != null) {
+            itemizedIndex = ForEachSqlNode.positionOf(index, loopNumber, i);
+            context.bind(index, key);
+            indexes.add(key);
+          }
+          context.bind(item, value);
+          items.add(value);
+        } else {
+          int uniqueNumber = context.getUniqueNumber();
+          itemizedItem = ForEachSqlNode.ITEM_PREFIX + item + "_" + uniqueNumber;
+          if (index != null) {
+            itemizedIndex = ForEachSqlNode.ITEM_PREFIX + index + "_" + uniqueNumber;
+            context.bind(index, key);
+            context.bind(itemizedIndex, key);
+          }
+          context.bind(item, value);
+          context.bind(itemizedItem, value);
+        }
+        contents.apply(context, new ItemSink(prefixedSink, item, itemizedItem, index, itemizedIndex));
+        if (first) {
+          first = !prefixedSink.prefixApplied;
+        }
+        i++;
+      }
+      if (close != null) {
+        sink.append(close);
+      }
+      bindings.remove(item);
+      bindings.remove(index);
+      return true;
+    }
+  }
+
+  // 在第一段非空白的 SQL 前添加分隔符
+  private static final class PrefixedSink extends Sink {
+    private final Sink delegate;
+    private final Text prefix;
+    private boolean prefixApplied;
+
+    PrefixedSink(Sink delegate, Text prefix) {
+      this.delegate = delegate;
+      this.prefix = prefix;
+    }
+
+    @Override
+    void append(String sql, List<Parameter> parameters) {
+      if (!prefixApplied && !isBlank(sql)) {
+        delegate.append(prefix);
+        prefixApplied = true;
+      }
+      delegate.append(sql, parameters);
+    }
+  }
+
+  // 将对 item 和 index 的引用替换成本次迭代的唯一名字
+  private static final class ItemSink extends Sink {
+    private final Sink delegate;
+    private final String item;
+    private final String itemizedItem;
+    private final String index;
+    private final String itemizedIndex;
+
+    ItemSink(Sink delegate, String item, String itemizedItem, String index, String itemizedIndex) {
+      this.delegate = delegate;
+      this.item = item;
+      this.itemizedItem = itemizedItem;
+      this.index = index;
+      this.itemizedIndex = itemizedIndex;
+    }
+
+    @Override
+    void append(String sql, List<Parameter> parameters) {
+      List<Parameter> itemized = parameters;
+      for (int i = 0; i < parameters.size(); i++) {
+        Parameter parameter = parameters.get(i);
+        Parameter renamed = parameter.itemize(item, itemizedItem);
+        if (renamed == parameter && index != null) {
+          renamed = parameter.itemize(index, itemizedIndex);
+        }
+        if (renamed != parameter) {
+          if (itemized == parameters) {
+            itemized = new ArrayList<>(parameters);
+          }
+          itemized.set(i, renamed);
+        }
+      }
+      delegate.append(sql, itemized);
+    }
+  }
+
+}
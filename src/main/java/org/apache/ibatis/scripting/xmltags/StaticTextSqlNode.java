@@ -15,17 +15,26 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
+
 /**
  * @author Clinton Begin
  */
 // 静态文档Sql
-public class StaticTextSqlNode implements SqlNode {
+public class StaticTextSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = 725605022900569750L;
+
   private final String text;
 
   public StaticTextSqlNode(String text) {
     this.text = text;
   }
 
+  String getText() {
+    return text;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     context.appendSql(text);
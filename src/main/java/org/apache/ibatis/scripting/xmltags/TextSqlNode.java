@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
@@ -25,7 +26,10 @@ import org.apache.ibatis.type.SimpleTypeRegistry;
 /**
  * @author Clinton Begin
  */
-public class TextSqlNode implements SqlNode {
+public class TextSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = -988484659860534479L;
+
   private final String text;
   private final Pattern injectionFilter;
 
@@ -45,6 +49,14 @@ public class TextSqlNode implements SqlNode {
     return checker.isDynamic();
   }
 
+  String getText() {
+    return text;
+  }
+
+  Pattern getInjectionFilter() {
+    return injectionFilter;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -29,7 +30,9 @@ import org.apache.ibatis.session.Configuration;
  * @author Clinton Begin
  */
 //  trim 标签的实现类
-public class TrimSqlNode implements SqlNode {
+public class TrimSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = 6676414980184883669L;
 
   //  trim 内部的结点
   private final SqlNode contents;
@@ -57,6 +60,26 @@ public class TrimSqlNode implements SqlNode {
     this.configuration = configuration;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getPrefix() {
+    return prefix;
+  }
+
+  String getSuffix() {
+    return suffix;
+  }
+
+  List<String> getPrefixesToOverride() {
+    return prefixesToOverride;
+  }
+
+  List<String> getSuffixesToOverride() {
+    return suffixesToOverride;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // FilteredDynamicContext 构建
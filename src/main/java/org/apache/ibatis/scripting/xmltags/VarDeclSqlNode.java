@@ -15,11 +15,15 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.io.Serializable;
+
 /**
  * @author Frank D. Martinez [mnesarco]
  */
 // <bind/> 标签的实现类
-public class VarDeclSqlNode implements SqlNode {
+public class VarDeclSqlNode implements SqlNode, Serializable {
+
+  private static final long serialVersionUID = 4839737740167390478L;
 
   // 名字
   private final String name;
@@ -31,6 +35,14 @@ public class VarDeclSqlNode implements SqlNode {
     expression = exp;
   }
 
+  String getName() {
+    return name;
+  }
+
+  String getExpression() {
+    return expression;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     // 获取值
@@ -218,8 +218,11 @@ public class XMLScriptBuilder extends BaseBuilder {
       String open = nodeToHandle.getStringAttribute("open");
       String close = nodeToHandle.getStringAttribute("close");
       String separator = nodeToHandle.getStringAttribute("separator");
+      boolean positional = nodeToHandle.getBooleanAttribute("positional", false);
+      String padding = nodeToHandle.getStringAttribute("padding");
+      boolean array = nodeToHandle.getBooleanAttribute("array", false);
       // 构建一个 ForEachSqlNode 对象，并添加到 targetContents
-      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, positional, padding, array);
       targetContents.add(forEachSqlNode);
     }
   }
@@ -237,7 +240,7 @@ public class XMLScriptBuilder extends BaseBuilder {
       // 获取 test 属性
       String test = nodeToHandle.getStringAttribute("test");
       // 构建IfSqlNode对象，并添加到targetContents
-      IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, test);
+      IfSqlNode ifSqlNode = new IfSqlNode(configuration, mixedSqlNode, test);
       targetContents.add(ifSqlNode);
     }
   }
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,20 +26,30 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
+import org.apache.ibatis.builder.xml.LazyMapperBuilder;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CompactCacheKey;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
+import org.apache.ibatis.cache.serializer.Serializer;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
@@ -67,6 +78,7 @@ import org.apache.ibatis.logging.nologging.NoLoggingImpl;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.logging.stdout.StdOutImpl;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
@@ -86,6 +98,9 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.CompiledLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -113,6 +128,14 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean compactCacheKeys;
+  protected boolean useCompiledRowMappers;
+  protected int dynamicSqlCacheSize;
+  protected String foreachArrayTemplate = "UNNEST(?)";
+  protected boolean sealConfiguration;
+  protected boolean parallelMapperParsing;
+  protected boolean lazyMapperParsing;
+  protected String configurationSnapshot;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
@@ -134,6 +157,8 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected Serializer serializer = new JavaSerializer();
+  protected ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator();
 
   protected String databaseId;
   /**
@@ -155,14 +180,25 @@ public class Configuration {
           ". please check " + savedValue.getResource() + " and " + targetValue.getResource());
   // Cache 对象集合，KEY ： 命名空间,开启二级缓存，在 mybatis-config.xml 配置 <setting name="cacheEnabled" value="true"/>
   protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
+  // 创建 Cache 的 CacheBuilder，写入 ConfigurationSnapshot 时使用
+  protected final Map<String, CacheBuilder> cacheBuilders = new HashMap<>();
   protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
   protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<>("Key Generators collection");
+  // 封存后按 id 查找语句的映射，不包含有歧义的短名称
+  protected volatile Map<String, MappedStatement> sealedMappedStatements;
 
   // 已经加载的资源文件
   protected final Set<String> loadedResources = new HashSet<>();
   protected final Map<String, XNode> sqlFragments = new StrictMap<>("XML fragments parsed from previous mappers");
 
+  // 按需构建的 mapper XML，KEY：命名空间
+  protected final Map<String, List<LazyMapperBuilder>> lazyMappers = new ConcurrentHashMap<>();
+  // 当前正在构建的命名空间，由 lazyMappers 的锁保护
+  private final Set<String> lazyNamespacesInProgress = new HashSet<>();
+  // 构建失败的命名空间与其异常，由 lazyMappers 的锁保护
+  private final Map<String, RuntimeException> lazyMapperFailures = new HashMap<>();
+
   protected final Collection<XMLStatementBuilder> incompleteStatements = new LinkedList<>();
   // 不兼容的 CacheRefs
   protected final Collection<CacheRefResolver> incompleteCacheRefs = new LinkedList<>();
@@ -196,11 +232,14 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("TINYLFU", TinyLfuCache.class);
+    typeAliasRegistry.registerAlias("OFFHEAP", OffHeapCache.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
+    typeAliasRegistry.registerAlias("COMPILED_XML", CompiledLanguageDriver.class);
 
     typeAliasRegistry.registerAlias("SLF4J", Slf4jImpl.class);
     typeAliasRegistry.registerAlias("COMMONS_LOGGING", JakartaCommonsLoggingImpl.class);
@@ -213,6 +252,12 @@ public class Configuration {
     typeAliasRegistry.registerAlias("CGLIB", CglibProxyFactory.class);
     typeAliasRegistry.registerAlias("JAVASSIST", JavassistProxyFactory.class);
 
+    typeAliasRegistry.registerAlias("JAVA", JavaSerializer.class);
+    typeAliasRegistry.registerAlias("COMPACT", CompactSerializer.class);
+
+    typeAliasRegistry.registerAlias("OGNL", ExpressionEvaluator.class);
+    typeAliasRegistry.registerAlias("COMPILED", CompiledExpressionEvaluator.class);
+
     // 这里注册 XMLLanguageDriver为默认到 languageRegistry 中
     languageRegistry.setDefaultDriverClass(XMLLanguageDriver.class);
     // 注册 RawLanguageDriver
@@ -273,6 +318,166 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public boolean isCompactCacheKeys() {
+    return compactCacheKeys;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public void setCompactCacheKeys(boolean compactCacheKeys) {
+    this.compactCacheKeys = compactCacheKeys;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isUseCompiledRowMappers() {
+    return useCompiledRowMappers;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public void setUseCompiledRowMappers(boolean useCompiledRowMappers) {
+    this.useCompiledRowMappers = useCompiledRowMappers;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public int getDynamicSqlCacheSize() {
+    return dynamicSqlCacheSize;
+  }
+
+  /**
+   * @param dynamicSqlCacheSize the maximum number of SQL shapes cached per dynamic statement, or 0 to disable the cache
+   * @since 3.5.4
+   */
+  public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+    this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public String getForeachArrayTemplate() {
+    return foreachArrayTemplate;
+  }
+
+  /**
+   * @param foreachArrayTemplate the SQL that a {@code <foreach array="true">} generates for its collection, in which
+   *          {@code ?} stands for the collection bound as one database array
+   * @since 3.5.4
+   */
+  public void setForeachArrayTemplate(String foreachArrayTemplate) {
+    this.foreachArrayTemplate = foreachArrayTemplate;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isSealConfiguration() {
+    return sealConfiguration;
+  }
+
+  /**
+   * @param sealConfiguration whether {@link SqlSessionFactoryBuilder#build(Configuration)} {@link #seal() seals} the
+   *          configuration
+   * @since 3.5.4
+   */
+  public void setSealConfiguration(boolean sealConfiguration) {
+    this.sealConfiguration = sealConfiguration;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isParallelMapperParsing() {
+    return parallelMapperParsing;
+  }
+
+  /**
+   * @param parallelMapperParsing whether the mapper XML documents of the configuration and of scanned mapper packages
+   *          are parsed in parallel before they are built one by one
+   * @since 3.5.4
+   */
+  public void setParallelMapperParsing(boolean parallelMapperParsing) {
+    this.parallelMapperParsing = parallelMapperParsing;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isLazyMapperParsing() {
+    return lazyMapperParsing;
+  }
+
+  /**
+   * @param lazyMapperParsing whether the mapper XML files of the configuration are only indexed at start-up and built
+   *          the first time one of their elements is looked up
+   * @since 3.5.4
+   */
+  public void setLazyMapperParsing(boolean lazyMapperParsing) {
+    this.lazyMapperParsing = lazyMapperParsing;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public String getConfigurationSnapshot() {
+    return configurationSnapshot;
+  }
+
+  /**
+   * @param configurationSnapshot the path of the {@link ConfigurationSnapshot} file from which the mappers of an XML
+   *          configuration are loaded, and to which they are written when the file is missing or out of date
+   * @since 3.5.4
+   */
+  public void setConfigurationSnapshot(String configurationSnapshot) {
+    this.configurationSnapshot = configurationSnapshot;
+  }
+
+  /**
+   * Builds all the pending statements and makes the statements, result maps, parameter maps, caches, key generators,
+   * mappers and interceptors read only. Statements are then looked up without checking for incomplete statements.
+   *
+   * @throws IncompleteElementException if an element of a mapper can not be resolved
+   * @since 3.5.4
+   */
+  public void seal() {
+    if (sealedMappedStatements != null) {
+      return;
+    }
+    buildLazyMappers();
+    buildAllStatements();
+    Map<String, MappedStatement> statements = new HashMap<>();
+    for (Map.Entry<String, MappedStatement> entry : mappedStatements.entrySet()) {
+      // 有歧义的短名称仍由 StrictMap 报错
+      Object value = entry.getValue();
+      if (value instanceof MappedStatement) {
+        statements.put(entry.getKey(), (MappedStatement) value);
+      }
+    }
+    sealedMappedStatements = statements;
+  }
+
+  /**
+   * @since 3.5.4
+   */
+  public boolean isSealed() {
+    return sealedMappedStatements != null;
+  }
+
+  private void checkNotSealed() {
+    if (sealedMappedStatements != null) {
+      throw new IllegalStateException("The configuration is sealed and can not be modified.");
+    }
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -370,6 +575,36 @@ public class Configuration {
     this.proxyFactory = proxyFactory;
   }
 
+  public Serializer getSerializer() {
+    return serializer;
+  }
+
+  /**
+   * @param serializer the default serializer of read-write caches and lazy loading proxies
+   * @since 3.5.4
+   */
+  public void setSerializer(Serializer serializer) {
+    if (serializer == null) {
+      serializer = new JavaSerializer();
+    }
+    this.serializer = serializer;
+  }
+
+  public ExpressionEvaluator getExpressionEvaluator() {
+    return expressionEvaluator;
+  }
+
+  /**
+   * @param expressionEvaluator the evaluator of the test and collection expressions in dynamic SQL
+   * @since 3.5.4
+   */
+  public void setExpressionEvaluator(ExpressionEvaluator expressionEvaluator) {
+    if (expressionEvaluator == null) {
+      expressionEvaluator = new ExpressionEvaluator();
+    }
+    this.expressionEvaluator = expressionEvaluator;
+  }
+
   public boolean isAggressiveLazyLoading() {
     return aggressiveLazyLoading;
   }
@@ -578,6 +813,13 @@ public class Configuration {
     return getDefaultScriptingLanguageInstance();
   }
 
+  /**
+   * @since 3.5.4
+   */
+  public CacheKey newCacheKey() {
+    return compactCacheKeys ? new CompactCacheKey() : new CacheKey();
+  }
+
   public MetaObject newMetaObject(Object object) {
     return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory);
   }
@@ -636,98 +878,135 @@ public class Configuration {
   }
 
   public void addKeyGenerator(String id, KeyGenerator keyGenerator) {
+    checkNotSealed();
     keyGenerators.put(id, keyGenerator);
   }
 
   public Collection<String> getKeyGeneratorNames() {
+    buildLazyMappers();
     return keyGenerators.keySet();
   }
 
   public Collection<KeyGenerator> getKeyGenerators() {
+    buildLazyMappers();
     return keyGenerators.values();
   }
 
   public KeyGenerator getKeyGenerator(String id) {
+    buildLazyMapper(id);
     return keyGenerators.get(id);
   }
 
   public boolean hasKeyGenerator(String id) {
+    buildLazyMapper(id);
     return keyGenerators.containsKey(id);
   }
 
   public void addCache(Cache cache) {
+    checkNotSealed();
     caches.put(cache.getId(), cache);
   }
 
+  /**
+   * Adds a cache with the builder that built it, which a {@link ConfigurationSnapshot} uses to build the cache again.
+   *
+   * @since 3.5.4
+   */
+  public void addCache(Cache cache, CacheBuilder builder) {
+    addCache(cache);
+    cacheBuilders.put(cache.getId(), builder);
+  }
+
   public Collection<String> getCacheNames() {
+    buildLazyMappers();
     return caches.keySet();
   }
 
   public Collection<Cache> getCaches() {
+    buildLazyMappers();
     return caches.values();
   }
 
   public Cache getCache(String id) {
+    buildLazyMapper(id);
     return caches.get(id);
   }
 
   public boolean hasCache(String id) {
+    buildLazyMapper(id);
     return caches.containsKey(id);
   }
 
   public void addResultMap(ResultMap rm) {
+    checkNotSealed();
     resultMaps.put(rm.getId(), rm);
     checkLocallyForDiscriminatedNestedResultMaps(rm);
     checkGloballyForDiscriminatedNestedResultMaps(rm);
   }
 
   public Collection<String> getResultMapNames() {
+    buildLazyMappers();
     return resultMaps.keySet();
   }
 
   public Collection<ResultMap> getResultMaps() {
+    buildLazyMappers();
     return resultMaps.values();
   }
 
   public ResultMap getResultMap(String id) {
+    buildLazyMapper(id);
     return resultMaps.get(id);
   }
 
   public boolean hasResultMap(String id) {
+    buildLazyMapper(id);
     return resultMaps.containsKey(id);
   }
 
   public void addParameterMap(ParameterMap pm) {
+    checkNotSealed();
     parameterMaps.put(pm.getId(), pm);
   }
 
   public Collection<String> getParameterMapNames() {
+    buildLazyMappers();
     return parameterMaps.keySet();
   }
 
   public Collection<ParameterMap> getParameterMaps() {
+    buildLazyMappers();
     return parameterMaps.values();
   }
 
   public ParameterMap getParameterMap(String id) {
+    buildLazyMapper(id);
     return parameterMaps.get(id);
   }
 
   public boolean hasParameterMap(String id) {
+    buildLazyMapper(id);
     return parameterMaps.containsKey(id);
   }
 
   public void addMappedStatement(MappedStatement ms) {
+    checkNotSealed();
     mappedStatements.put(ms.getId(), ms);
   }
 
   public Collection<String> getMappedStatementNames() {
-    buildAllStatements();
+    if (sealedMappedStatements == null) {
+      buildLazyMappers();
+      buildAllStatements();
+    }
     return mappedStatements.keySet();
   }
 
   public Collection<MappedStatement> getMappedStatements() {
-    buildAllStatements();
+    if (sealedMappedStatements == null) {
+      buildLazyMappers();
+      buildAllStatements();
+    }
     return mappedStatements.values();
   }
 
@@ -768,6 +1047,13 @@ public class Configuration {
   }
 
   public MappedStatement getMappedStatement(String id, boolean validateIncompleteStatements) {
+    // 封存后直接查找，找不到时由 StrictMap 报错
+    Map<String, MappedStatement> sealedStatements = sealedMappedStatements;
+    if (sealedStatements != null) {
+      MappedStatement ms = sealedStatements.get(id);
+      return ms != null ? ms : mappedStatements.get(id);
+    }
+    buildLazyStatement(id);
     // 是否校验所有的 MappedStatement 都已经加载
     if (validateIncompleteStatements) {
       buildAllStatements();
@@ -781,18 +1067,22 @@ public class Configuration {
   }
 
   public void addInterceptor(Interceptor interceptor) {
+    checkNotSealed();
     interceptorChain.addInterceptor(interceptor);
   }
 
   public void addMappers(String packageName, Class<?> superType) {
+    checkNotSealed();
     mapperRegistry.addMappers(packageName, superType);
   }
 
   public void addMappers(String packageName) {
+    checkNotSealed();
     mapperRegistry.addMappers(packageName);
   }
 
   public <T> void addMapper(Class<T> type) {
+    checkNotSealed();
     mapperRegistry.addMapper(type);
   }
 
@@ -809,8 +1099,11 @@ public class Configuration {
   }
 
   public boolean hasStatement(String statementName, boolean validateIncompleteStatements) {
-    if (validateIncompleteStatements) {
-      buildAllStatements();
+    if (sealedMappedStatements == null) {
+      buildLazyStatement(statementName);
+      if (validateIncompleteStatements) {
+        buildAllStatements();
+      }
     }
     return mappedStatements.containsKey(statementName);
   }
@@ -819,12 +1112,117 @@ public class Configuration {
     cacheRefMap.put(namespace, referencedNamespace);
   }
 
+  /**
+   * Adds a mapper XML file whose elements are built the first time one of them, or its namespace, is looked up.
+   *
+   * @since 3.5.4
+   */
+  public void addLazyMapper(LazyMapperBuilder mapper) {
+    checkNotSealed();
+    lazyMappers.computeIfAbsent(mapper.getNamespace(), k -> new ArrayList<>()).add(mapper);
+  }
+
+  /**
+   * Builds the mapper XML files that were added by {@link #addLazyMapper(LazyMapperBuilder)} for a namespace, or for
+   * the namespace of a statement, result map, parameter map, key generator or fragment id. Other threads wait until
+   * they are built and then see all their elements. If a file fails to build, every later lookup in its namespace throws
+   * a {@link BuilderException} caused by the same error.
+   *
+   * @param id a namespace or the full id of an element
+   * @since 3.5.4
+   */
+  public void buildLazyMapper(String id) {
+    if (lazyMappers.isEmpty() || id == null) {
+      return;
+    }
+    // id 可能是命名空间本身（缓存、Mapper 接口），也可能是命名空间下的元素
+    buildLazyNamespace(id);
+    String namespace = extractNamespace(id);
+    if (namespace != null) {
+      buildLazyNamespace(namespace);
+    }
+  }
+
+  private void buildLazyStatement(String id) {
+    if (lazyMappers.isEmpty() || id == null) {
+      return;
+    }
+    if (id.indexOf('.') < 0) {
+      // 短名称：构建所有包含该语句的命名空间，有歧义时仍由 StrictMap 报错
+      for (Map.Entry<String, List<LazyMapperBuilder>> entry : lazyMappers.entrySet()) {
+        if (entry.getValue().stream().anyMatch(mapper -> mapper.getStatementIds().contains(id))) {
+          buildLazyNamespace(entry.getKey());
+        }
+      }
+    } else {
+      buildLazyMapper(id);
+    }
+  }
+
+  private void buildLazyNamespace(String namespace) {
+    if (!lazyMappers.containsKey(namespace)) {
+      return;
+    }
+    synchronized (lazyMappers) {
+      // 构建失败的命名空间可能只注册了部分元素，之后的查找都报告原来的错误
+      RuntimeException failure = lazyMapperFailures.get(namespace);
+      if (failure != null) {
+        throw new BuilderException("Error building the mapper XML files of namespace " + namespace + ". Cause: " + failure, failure);
+      }
+      List<LazyMapperBuilder> mappers = lazyMappers.get(namespace);
+      // 同一线程在构建中引用正在构建的命名空间时不再构建，由 incomplete 元素在之后解析
+      if (mappers != null && lazyNamespacesInProgress.add(namespace)) {
+        try {
+          for (LazyMapperBuilder mapper : mappers) {
+            mapper.build();
+          }
+          // 构建完成后才移除，其它线程看到移除时也能看到构建出的元素
+          lazyMappers.remove(namespace);
+        } catch (RuntimeException e) {
+          lazyMapperFailures.put(namespace, e);
+          throw e;
+        } finally {
+          lazyNamespacesInProgress.remove(namespace);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds all the mapper XML files added by {@link #addLazyMapper(LazyMapperBuilder)} that are not built yet.
+   *
+   * @since 3.5.4
+   */
+  protected void buildLazyMappers() {
+    for (String namespace : lazyMappers.keySet()) {
+      buildLazyNamespace(namespace);
+    }
+  }
+
+  /**
+   * @return {@code true} if some statements, cache refs, result maps or methods are not resolved yet
+   * @since 3.5.4
+   */
+  protected boolean hasIncompleteElements() {
+    return !incompleteStatements.isEmpty() || !incompleteCacheRefs.isEmpty() || !incompleteResultMaps.isEmpty()
+        || !incompleteMethods.isEmpty();
+  }
+
   /*
    * Parses all the unprocessed statement nodes in the cache. It is recommended
    * to call this method once all the mappers are added as it provides fail-fast
    * statement validation.
    */
   protected void buildAllStatements() {
+    if (!lazyMappers.isEmpty() && !Thread.holdsLock(lazyMappers)) {
+      // 还有按需构建的 mapper 时，与 buildLazyNamespace 按相同顺序加锁，避免死锁和并发修改
+      if (hasIncompleteElements()) {
+        synchronized (lazyMappers) {
+          buildAllStatements();
+        }
+      }
+      return;
+    }
     parsePendingResultMaps();
     if (!incompleteCacheRefs.isEmpty()) {
       synchronized (incompleteCacheRefs) {  // 确保 incompleteCacheRefs 加载完
@@ -921,7 +1319,15 @@ public class Configuration {
     }
   }
 
-  protected static class StrictMap<V> extends HashMap<String, V> {
+  /**
+   * A map that rejects a second value for a key and reports missing and ambiguous keys.
+   * <p>
+   * Since 3.5.4 it is a {@link ConcurrentHashMap}, so that lazily built mappers can add elements while others are
+   * looked up. A {@code null} key is handled as before: it is not found by {@link #get(Object)}, which throws an
+   * {@link IllegalArgumentException}, nor by the other lookups. A {@code null} value can not be stored and is rejected
+   * with an {@link IllegalArgumentException} as well.
+   */
+  protected static class StrictMap<V> extends ConcurrentHashMap<String, V> {
 
     private static final long serialVersionUID = -4950446264854982944L;
     private final String name;
@@ -963,6 +1369,9 @@ public class Configuration {
     @Override
     @SuppressWarnings("unchecked")
     public V put(String key, V value) {
+      if (value == null) {
+        throw new IllegalArgumentException(name + " can not contain a null value for " + key);
+      }
       if (containsKey(key)) {
         throw new IllegalArgumentException(name + " already contains value for " + key
             + (conflictMessageProducer == null ? "" : conflictMessageProducer.apply(super.get(key), value)));
@@ -980,7 +1389,7 @@ public class Configuration {
 
     @Override
     public V get(Object key) {
-      V value = super.get(key);
+      V value = key == null ? null : super.get(key);
       if (value == null) {
         throw new IllegalArgumentException(name + " does not contain value for " + key);
       }
@@ -991,6 +1400,33 @@ public class Configuration {
       return value;
     }
 
+    // ConcurrentHashMap 的 containsKey 和 getOrDefault 会调用 get，这里不能报错，也和 HashMap 一样接受 null
+    @Override
+    public boolean containsKey(Object key) {
+      return key != null && super.get(key) != null;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+      V value = key == null ? null : super.get(key);
+      return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+      return value != null && super.containsValue(value);
+    }
+
+    @Override
+    public V remove(Object key) {
+      return key == null ? null : super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      return key != null && value != null && super.remove(key, value);
+    }
+
     protected static class Ambiguity {
       final private String subject;
 
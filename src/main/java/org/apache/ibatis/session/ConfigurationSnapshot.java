@@ -0,0 +1,683 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerReference;
+
+/**
+ * A file holding what the mappers of a configuration built: its mapped statements, result maps, parameter maps, caches,
+ * key generators, cache references and mapper interfaces. Loading it into a configuration with the same settings, type
+ * aliases and type handlers replaces parsing the mapper XML files and annotations.
+ * <p>
+ * A snapshot is only loaded when the checksum of its sources, given with the {@code add} methods together with the
+ * variables and database id of the configuration, is unchanged, and so is every class it refers to, including the
+ * classes of MyBatis. The checksums in the file only detect stale or damaged snapshots: anyone who can write the file
+ * can also write matching checksums. What is deserialized is therefore restricted by a list that the file can not
+ * extend: the classes of the MyBatis mapping, scripting, builder and type packages, the JDK strings, numbers and
+ * collections, enums, the type aliases and the types with a type handler of the configuration that loads the
+ * snapshot, and classes named in its sources. Other classes can only be read as the value of a {@code Class}, which
+ * is not possible for a serializable class, so a snapshot referring to a serializable class that is not in the list,
+ * such as a result type found by reflection, is not loaded and the mappers are parsed instead.
+ * <p>
+ * The configuration, type handlers, language drivers, expression evaluator, serializer and logs are not written but
+ * taken from the configuration that loads the snapshot, and caches are built again with the {@link CacheBuilder} that
+ * built them.
+ * <p>
+ * A configuration is only written when all its elements are resolved and can be written that way, so mappers using
+ * their own implementations of {@code SqlSource}, {@code SqlNode} or {@code KeyGenerator}, or caches that were not
+ * built by a {@link CacheBuilder}, are always parsed. SQL fragments are not written: a mapper added to a loaded
+ * configuration can not include the fragments of the loaded mappers.
+ *
+ * @since 3.5.4
+ * @see Configuration#setConfigurationSnapshot(String)
+ */
+// 配置快照：将 mapper 构建出的 MappedStatement、ResultMap 等序列化到文件，源文件和类都未改变时直接加载
+public class ConfigurationSnapshot {
+
+  private static final Log log = LogFactory.getLog(ConfigurationSnapshot.class);
+
+  // 文件头和格式版本
+  private static final int MAGIC = 0x4D425353;
+  private static final int VERSION = 2;
+  // 不论文件内容如何都可以反序列化的 JDK 类
+  private static final Set<String> JDK_CLASSES = new HashSet<>(Arrays.asList(
+      "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Number", "java.lang.Byte",
+      "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+      "java.lang.Enum", "java.lang.Class", "java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap",
+      "java.util.LinkedHashMap", "java.util.TreeMap", "java.util.Hashtable", "java.util.Properties",
+      "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet", "java.util.Arrays$ArrayList",
+      "java.util.Collections$EmptyList", "java.util.Collections$EmptyMap", "java.util.Collections$EmptySet",
+      "java.util.Collections$SingletonList", "java.util.Collections$SingletonMap", "java.util.Collections$SingletonSet",
+      "java.util.Collections$UnmodifiableCollection", "java.util.Collections$UnmodifiableList",
+      "java.util.Collections$UnmodifiableRandomAccessList", "java.util.Collections$UnmodifiableMap",
+      "java.util.Collections$UnmodifiableSortedMap", "java.util.Collections$UnmodifiableSet",
+      "java.util.Collections$UnmodifiableSortedSet"));
+  // 可以反序列化的 MyBatis 包
+  private static final String[] MYBATIS_PACKAGES = { "org.apache.ibatis.mapping.", "org.apache.ibatis.scripting.",
+      "org.apache.ibatis.builder.", "org.apache.ibatis.type.", "org.apache.ibatis.executor.keygen." };
+
+  private final Configuration configuration;
+  private final File file;
+  // 所有源文件的摘要
+  private final MessageDigest sources = newDigest();
+  // 所有源文件的内容，其中出现的类名可以反序列化
+  private ByteArrayOutputStream sourceText = new ByteArrayOutputStream();
+  private String checksum;
+
+  public ConfigurationSnapshot(Configuration configuration, File file) {
+    this.configuration = configuration;
+    this.file = file;
+  }
+
+  /**
+   * Adds a source of the mappers given as text, such as the XML configuration.
+   */
+  public void addSource(String source) {
+    update(source.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Adds the XML mapper at a class path resource.
+   */
+  public void addResource(String resource) throws IOException {
+    addSource(resource);
+    try (InputStream in = Resources.getResourceAsStream(resource)) {
+      update(readAll(in));
+    }
+  }
+
+  /**
+   * Adds the XML mapper at a URL.
+   */
+  public void addUrl(String url) throws IOException {
+    addSource(url);
+    try (InputStream in = Resources.getUrlAsStream(url)) {
+      update(readAll(in));
+    }
+  }
+
+  /**
+   * Adds a mapper interface and the XML mapper next to it.
+   */
+  public void addMapperClass(Class<?> type) throws IOException {
+    addSource(type.getName());
+    update(readClass(type));
+    try (InputStream in = MapperAnnotationBuilder.openXmlResource(type)) {
+      if (in != null) {
+        update(readAll(in));
+      }
+    }
+  }
+
+  /**
+   * Adds the mapper interfaces of a package, as {@link Configuration#addMappers(String)} finds them.
+   */
+  public void addMapperPackage(String packageName) throws IOException {
+    addSource(packageName);
+    ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+    resolverUtil.find(new ResolverUtil.IsA(Object.class), packageName);
+    List<Class<?>> types = new ArrayList<>(resolverUtil.getClasses());
+    types.sort(Comparator.comparing(Class::getName));
+    for (Class<?> type : types) {
+      if (type.isInterface()) {
+        addMapperClass(type);
+      }
+    }
+  }
+
+  /**
+   * Loads the snapshot into the configuration, which must not have any mapper yet.
+   *
+   * @return {@code false} if the file is missing, out of date or can not be read, in which case the configuration
+   *         is left unchanged
+   */
+  public boolean load() {
+    if (!file.isFile()) {
+      return false;
+    }
+    Content content;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      content = read(in);
+    } catch (Exception e) {
+      log.debug("Could not read the configuration snapshot " + file + ". Cause: " + e);
+      return false;
+    } finally {
+      sourceText = null;
+    }
+    if (content == null) {
+      log.debug("The configuration snapshot " + file + " is out of date.");
+      return false;
+    }
+    content.apply(configuration);
+    return true;
+  }
+
+  /**
+   * Writes the mappers of the configuration to the snapshot file.
+   *
+   * @return {@code false} if the configuration has unresolved elements or elements that can not be written
+   */
+  public boolean store() {
+    // 按需构建的 mapper 也写入快照
+    configuration.buildLazyMappers();
+    if (configuration.hasIncompleteElements()) {
+      log.debug("The configuration has unresolved elements and is not written to " + file + ".");
+      return false;
+    }
+    File temp = null;
+    try {
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      Map<String, String> classes;
+      try (SnapshotOutputStream out = new SnapshotOutputStream(body, configuration)) {
+        out.writeObject(new Content(configuration));
+        classes = out.classes;
+      }
+      File directory = file.getAbsoluteFile().getParentFile();
+      Files.createDirectories(directory.toPath());
+      // 先写入临时文件再替换，其它进程不会读到写了一半的快照
+      temp = File.createTempFile(file.getName(), ".tmp", directory);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(getChecksum());
+        out.writeInt(classes.size());
+        for (Map.Entry<String, String> entry : classes.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeUTF(entry.getValue());
+        }
+        out.writeUTF(toHex(newDigest().digest(body.toByteArray())));
+        out.writeInt(body.size());
+        body.writeTo(out);
+      }
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      return true;
+    } catch (Exception e) {
+      log.debug("Could not write the configuration snapshot " + file + ". Cause: " + e);
+      if (temp != null && !temp.delete()) {
+        temp.deleteOnExit();
+      }
+      return false;
+    }
+  }
+
+  // 校验文件头、源文件和类的摘要后读取内容，过期时返回 null
+  private Content read(DataInputStream in) throws IOException, ClassNotFoundException {
+    if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(getChecksum())) {
+      return null;
+    }
+    int classCount = in.readInt();
+    Set<String> classes = new HashSet<>();
+    for (int i = 0; i < classCount; i++) {
+      String className = in.readUTF();
+      String classChecksum = in.readUTF();
+      Class<?> type;
+      try {
+        type = Resources.classForName(className);
+      } catch (ClassNotFoundException e) {
+        return null;
+      }
+      if (!classChecksum.equals(checksumOf(type))) {
+        return null;
+      }
+      classes.add(className);
+    }
+    String bodyChecksum = in.readUTF();
+    byte[] body = new byte[in.readInt()];
+    in.readFully(body);
+    if (!bodyChecksum.equals(toHex(newDigest().digest(body)))) {
+      return null;
+    }
+    String names = new String(sourceText.toByteArray(), StandardCharsets.ISO_8859_1);
+    try (SnapshotInputStream objects = new SnapshotInputStream(new ByteArrayInputStream(body), configuration, classes, names)) {
+      Content content = (Content) objects.readObject();
+      content.cacheBuilders = objects.cacheBuilders;
+      return content;
+    }
+  }
+
+  private String getChecksum() {
+    if (checksum == null) {
+      // 变量会替换 mapper 中的 ${}，databaseId 决定加载哪些语句
+      Map<String, String> variables = new TreeMap<>();
+      if (configuration.getVariables() != null) {
+        configuration.getVariables().stringPropertyNames()
+            .forEach(name -> variables.put(name, configuration.getVariables().getProperty(name)));
+      }
+      addSource(variables.toString());
+      addSource(String.valueOf(configuration.getDatabaseId()));
+      checksum = toHex(sources.digest());
+    }
+    return checksum;
+  }
+
+  private void update(byte[] bytes) {
+    if (checksum != null) {
+      throw new IllegalStateException("The sources of a configuration snapshot can not change after it was used.");
+    }
+    sources.update(bytes);
+    // 分隔相邻的源
+    sources.update((byte) 0);
+    // 读取快照后不再需要
+    if (sourceText != null) {
+      sourceText.write(bytes, 0, bytes.length);
+      sourceText.write(0);
+    }
+  }
+
+  private static String checksumOf(Class<?> type) throws IOException {
+    return toHex(newDigest().digest(readClass(type)));
+  }
+
+  private static byte[] readClass(Class<?> type) throws IOException {
+    String resource = type.getName().replace('.', '/') + ".class";
+    try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+      // 运行时生成的类没有 class 文件
+      return in == null ? new byte[0] : readAll(in);
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) > 0) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  // 快照的内容，mapper 对 Configuration 的所有修改
+  private static class Content implements Serializable {
+
+    private static final long serialVersionUID = -3160941329218577206L;
+
+    private final List<String> loadedResources;
+    private final List<Class<?>> mappers;
+    private final Map<String, Cache> caches;
+    private final Map<String, ParameterMap> parameterMaps;
+    private final Map<String, ResultMap> resultMaps;
+    private final Map<String, MappedStatement> mappedStatements;
+    private final Map<String, KeyGenerator> keyGenerators;
+    private final Map<String, String> cacheRefs;
+    private transient Map<Cache, CacheBuilder> cacheBuilders;
+
+    Content(Configuration configuration) {
+      loadedResources = new ArrayList<>(configuration.loadedResources);
+      Collections.sort(loadedResources);
+      mappers = new ArrayList<>(configuration.getMapperRegistry().getMappers());
+      mappers.sort(Comparator.comparing(Class::getName));
+      caches = entries(configuration.caches, Cache.class);
+      parameterMaps = entries(configuration.parameterMaps, ParameterMap.class);
+      resultMaps = entries(configuration.resultMaps, ResultMap.class);
+      mappedStatements = entries(configuration.mappedStatements, MappedStatement.class);
+      keyGenerators = entries(configuration.keyGenerators, KeyGenerator.class);
+      cacheRefs = new TreeMap<>(configuration.cacheRefMap);
+    }
+
+    // StrictMap 中除了短名称和 Ambiguity 以外的元素
+    private static <V> Map<String, V> entries(Map<String, V> map, Class<V> type) {
+      Set<Object> qualified = Collections.newSetFromMap(new IdentityHashMap<>());
+      map.forEach((key, value) -> {
+        if (key.contains(".")) {
+          qualified.add(value);
+        }
+      });
+      Map<String, V> entries = new TreeMap<>();
+      map.forEach((key, value) -> {
+        if (type.isInstance(value) && (key.contains(".") || !qualified.contains(value))) {
+          entries.put(key, value);
+        }
+      });
+      return entries;
+    }
+
+    void apply(Configuration configuration) {
+      loadedResources.forEach(configuration::addLoadedResource);
+      caches.values().forEach(cache -> configuration.addCache(cache, cacheBuilders.get(cache)));
+      parameterMaps.values().forEach(configuration::addParameterMap);
+      resultMaps.values().forEach(configuration::addResultMap);
+      mappedStatements.values().forEach(configuration::addMappedStatement);
+      keyGenerators.forEach(configuration::addKeyGenerator);
+      cacheRefs.forEach(configuration::addCacheRef);
+      // 资源已加载，只注册 mapper 接口而不再解析注解
+      mappers.forEach(configuration::addMapper);
+    }
+
+  }
+
+  // 写入快照时代替运行期对象，读取时从新的 Configuration 中取回
+  private interface Reference extends Serializable {
+    Object resolve(SnapshotInputStream in) throws IOException;
+  }
+
+  private enum Singleton implements Reference {
+    CONFIGURATION, EXPRESSION_EVALUATOR, OGNL_EXPRESSION_EVALUATOR, SERIALIZER, JDBC3_KEY_GENERATOR, NO_KEY_GENERATOR;
+
+    @Override
+    public Object resolve(SnapshotInputStream in) {
+      switch (this) {
+        case CONFIGURATION:
+          return in.configuration;
+        case EXPRESSION_EVALUATOR:
+          return in.configuration.getExpressionEvaluator();
+        case OGNL_EXPRESSION_EVALUATOR:
+          return new ExpressionEvaluator();
+        case SERIALIZER:
+          return in.configuration.getSerializer();
+        case JDBC3_KEY_GENERATOR:
+          return Jdbc3KeyGenerator.INSTANCE;
+        default:
+          return NoKeyGenerator.INSTANCE;
+      }
+    }
+  }
+
+  private static class CacheReference implements Reference {
+
+    private static final long serialVersionUID = 6071326016632815470L;
+
+    private final CacheBuilder builder;
+
+    CacheReference(CacheBuilder builder) {
+      this.builder = builder;
+    }
+
+    @Override
+    public Object resolve(SnapshotInputStream in) {
+      Cache cache = builder.build();
+      in.cacheBuilders.put(cache, builder);
+      return cache;
+    }
+  }
+
+  private static class LanguageDriverReference implements Reference {
+
+    private static final long serialVersionUID = -7012469725530512916L;
+
+    private final Class<? extends LanguageDriver> type;
+
+    LanguageDriverReference(Class<? extends LanguageDriver> type) {
+      this.type = type;
+    }
+
+    @Override
+    public Object resolve(SnapshotInputStream in) {
+      return in.configuration.getLanguageDriver(type);
+    }
+  }
+
+  private static class MethodReference implements Reference {
+
+    private static final long serialVersionUID = 4391580683209337437L;
+
+    private final Class<?> declaringClass;
+    private final String name;
+    private final Class<?>[] parameterTypes;
+
+    MethodReference(Method method) {
+      this.declaringClass = method.getDeclaringClass();
+      this.name = method.getName();
+      this.parameterTypes = method.getParameterTypes();
+    }
+
+    @Override
+    public Object resolve(SnapshotInputStream in) throws IOException {
+      try {
+        return declaringClass.getDeclaredMethod(name, parameterTypes);
+      } catch (NoSuchMethodException e) {
+        throw new InvalidObjectException("The method " + name + " of " + declaringClass + " no longer exists.");
+      }
+    }
+  }
+
+  private static class SnapshotOutputStream extends ObjectOutputStream {
+
+    private final Configuration configuration;
+    // 快照引用的类与其 class 文件的摘要
+    private final Map<String, String> classes = new LinkedHashMap<>();
+
+    SnapshotOutputStream(OutputStream out, Configuration configuration) throws IOException {
+      super(out);
+      this.configuration = configuration;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected void annotateClass(Class<?> type) throws IOException {
+      while (type.isArray()) {
+        type = type.getComponentType();
+      }
+      // JDK 的类不记录
+      if (type.getClassLoader() != null && !classes.containsKey(type.getName())) {
+        classes.put(type.getName(), checksumOf(type));
+      }
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+      if (obj == configuration) {
+        return Singleton.CONFIGURATION;
+      } else if (obj instanceof TypeHandler) {
+        TypeHandlerReference reference = TypeHandlerReference.of(configuration.getTypeHandlerRegistry(), (TypeHandler<?>) obj);
+        if (reference == null) {
+          throw new NotSerializableException(obj.getClass().getName());
+        }
+        return reference;
+      } else if (obj instanceof Cache) {
+        CacheBuilder builder = configuration.cacheBuilders.get(((Cache) obj).getId());
+        if (builder == null) {
+          throw new NotSerializableException(obj.getClass().getName());
+        }
+        return new CacheReference(builder);
+      } else if (obj instanceof LanguageDriver) {
+        Class<? extends LanguageDriver> type = ((LanguageDriver) obj).getClass();
+        if (configuration.getLanguageRegistry().getDriver(type) != obj) {
+          throw new NotSerializableException(type.getName());
+        }
+        return new LanguageDriverReference(type);
+      } else if (obj == configuration.getExpressionEvaluator()) {
+        return Singleton.EXPRESSION_EVALUATOR;
+      } else if (obj != null && obj.getClass() == ExpressionEvaluator.class) {
+        return Singleton.OGNL_EXPRESSION_EVALUATOR;
+      } else if (obj == configuration.getSerializer()) {
+        return Singleton.SERIALIZER;
+      } else if (obj == Jdbc3KeyGenerator.INSTANCE) {
+        return Singleton.JDBC3_KEY_GENERATOR;
+      } else if (obj == NoKeyGenerator.INSTANCE) {
+        return Singleton.NO_KEY_GENERATOR;
+      } else if (obj instanceof Method) {
+        return new MethodReference((Method) obj);
+      }
+      return obj;
+    }
+  }
+
+  private static class SnapshotInputStream extends ObjectInputStream {
+
+    private final Configuration configuration;
+    // 文件头中列出并校验过的类
+    private final Set<String> classes;
+    // 源文件的内容，按 ISO-8859-1 解码
+    private final String sourceText;
+    // 重新创建的 Cache 与其 CacheBuilder
+    private final Map<Cache, CacheBuilder> cacheBuilders = new IdentityHashMap<>();
+
+    SnapshotInputStream(InputStream in, Configuration configuration, Set<String> classes, String sourceText)
+        throws IOException {
+      super(in);
+      this.configuration = configuration;
+      this.classes = classes;
+      this.sourceText = sourceText;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      Class<?> type;
+      try {
+        type = Resources.classForName(desc.getName());
+      } catch (ClassNotFoundException e) {
+        // 基本类型等
+        type = super.resolveClass(desc);
+      }
+      checkClass(type);
+      return type;
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+      // 快照中不会写入代理对象
+      throw new InvalidClassException("A configuration snapshot can not contain proxies.");
+    }
+
+    // 文件头中的类只用于判断快照是否过期，能否反序列化由文件无法修改的规则决定
+    private void checkClass(Class<?> type) throws InvalidClassException {
+      Class<?> componentType = type;
+      while (componentType.isArray()) {
+        componentType = componentType.getComponentType();
+      }
+      if (componentType.getClassLoader() != null && !classes.contains(componentType.getName())) {
+        throw new InvalidClassException(componentType.getName(), "The class is not listed in the configuration snapshot.");
+      }
+      if (!isAllowed(componentType)) {
+        throw new InvalidClassException(componentType.getName(), "The class can not be read from a configuration snapshot.");
+      }
+    }
+
+    private boolean isAllowed(Class<?> type) {
+      String name = type.getName();
+      if (type.isPrimitive() || JDK_CLASSES.contains(name) || Enum.class.isAssignableFrom(type)) {
+        return true;
+      }
+      if (type.getClassLoader() == ConfigurationSnapshot.class.getClassLoader()) {
+        if (name.startsWith(ConfigurationSnapshot.class.getName() + "$") || type == MapperMethod.ParamMap.class) {
+          return true;
+        }
+        for (String packageName : MYBATIS_PACKAGES) {
+          if (name.startsWith(packageName)) {
+            return true;
+          }
+        }
+      }
+      // 不可序列化的类只能作为 Class 的值读取，不会被实例化
+      if (!Serializable.class.isAssignableFrom(type)) {
+        return true;
+      }
+      return configuration.getTypeAliasRegistry().getTypeAliases().containsValue(type)
+          || configuration.getTypeHandlerRegistry().hasTypeHandler(type) || isNamedInSources(name);
+    }
+
+    // 源文件中的类名，XML 中写作 a.b.C，class 文件中写作 a/b/C
+    private boolean isNamedInSources(String name) {
+      String encoded = new String(name.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+      return containsName(encoded) || containsName(encoded.replace('.', '/'));
+    }
+
+    private boolean containsName(String encoded) {
+      int index = sourceText.indexOf(encoded);
+      while (index >= 0) {
+        int end = index + encoded.length();
+        // 不能只是更长的类名的前缀
+        if (end == sourceText.length() || !Character.isJavaIdentifierPart(sourceText.charAt(end))) {
+          return true;
+        }
+        index = sourceText.indexOf(encoded, index + 1);
+      }
+      return false;
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) throws IOException {
+      if (obj instanceof Reference) {
+        return ((Reference) obj).resolve(this);
+      } else if (obj instanceof TypeHandlerReference) {
+        return ((TypeHandlerReference) obj).resolve(configuration.getTypeHandlerRegistry());
+      }
+      return obj;
+    }
+  }
+
+}
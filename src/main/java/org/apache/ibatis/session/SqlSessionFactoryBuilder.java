@@ -103,6 +103,9 @@ public class SqlSessionFactoryBuilder {
   }
 
   public SqlSessionFactory build(Configuration config) {
+    if (config.isSealConfiguration()) {
+      config.seal();
+    }
     return new DefaultSqlSessionFactory(config);
   }
 
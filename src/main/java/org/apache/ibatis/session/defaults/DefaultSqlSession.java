@@ -78,7 +78,19 @@ public class DefaultSqlSession implements SqlSession {
   public <T> T selectOne(String statement, Object parameter) {
     // Popular vote was to return null on 0 results and throw exception on too many.
     //  最终会调用 selectList
-    List<T> list = this.selectList(statement, parameter);
+    return singleResult(this.selectList(statement, parameter));
+  }
+
+  /**
+   * Same as {@link #selectOne(String, Object)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public <T> T selectOne(MappedStatement ms, Object parameter) {
+    return singleResult(this.selectList(ms, parameter, RowBounds.DEFAULT));
+  }
+
+  private <T> T singleResult(List<T> list) {
     if (list.size() == 1) {
       return list.get(0);
     } else if (list.size() > 1) {
@@ -102,7 +114,19 @@ public class DefaultSqlSession implements SqlSession {
   @Override
   public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
     // 查询结果集
-    final List<? extends V> list = selectList(statement, parameter, rowBounds);
+    return toMap(selectList(statement, parameter, rowBounds), mapKey);
+  }
+
+  /**
+   * Same as {@link #selectMap(String, Object, String, RowBounds)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public <K, V> Map<K, V> selectMap(MappedStatement ms, Object parameter, String mapKey, RowBounds rowBounds) {
+    return toMap(selectList(ms, parameter, rowBounds), mapKey);
+  }
+
+  private <K, V> Map<K, V> toMap(List<? extends V> list, String mapKey) {
     // 创建 DefaultMapResultHandler
     final DefaultMapResultHandler<K, V> mapResultHandler = new DefaultMapResultHandler<>(mapKey,
             configuration.getObjectFactory(), configuration.getObjectWrapperFactory(), configuration.getReflectorFactory());
@@ -131,8 +155,16 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds) {
+    return selectCursor(getMappedStatement(statement, "Error querying database.  Cause: "), parameter, rowBounds);
+  }
+
+  /**
+   * Same as {@link #selectCursor(String, Object, RowBounds)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public <T> Cursor<T> selectCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) {
     try {
-      MappedStatement ms = configuration.getMappedStatement(statement);
       Cursor<T> cursor = executor.queryCursor(ms, wrapCollection(parameter), rowBounds);
       registerCursor(cursor);
       return cursor;
@@ -155,8 +187,16 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
+    return selectList(getMappedStatement(statement, "Error querying database.  Cause: "), parameter, rowBounds);
+  }
+
+  /**
+   * Same as {@link #selectList(String, Object, RowBounds)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public <E> List<E> selectList(MappedStatement ms, Object parameter, RowBounds rowBounds) {
     try {
-      MappedStatement ms = configuration.getMappedStatement(statement);
       return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
@@ -177,9 +217,17 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+    // 获得 MappedStatement 对象
+    select(getMappedStatement(statement, "Error querying database.  Cause: "), parameter, rowBounds, handler);
+  }
+
+  /**
+   * Same as {@link #select(String, Object, RowBounds, ResultHandler)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public void select(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler handler) {
     try {
-      // 获得 MappedStatement 对象
-      MappedStatement ms = configuration.getMappedStatement(statement);
       // 执行查询
       executor.query(ms, wrapCollection(parameter), rowBounds, handler);
     } catch (Exception e) {
@@ -206,11 +254,19 @@ public class DefaultSqlSession implements SqlSession {
 
   @Override
   public int update(String statement, Object parameter) {
+    // MappedStatement
+    return update(getMappedStatement(statement, "Error updating database.  Cause: "), parameter);
+  }
+
+  /**
+   * Same as {@link #update(String, Object)}, with a statement that was looked up beforehand.
+   *
+   * @since 3.5.4
+   */
+  public int update(MappedStatement ms, Object parameter) {
     try {
       // dirty 标志位 true ，也就说执行过写操作
       dirty = true;
-      // MappedStatement
-      MappedStatement ms = configuration.getMappedStatement(statement);
       // 执行 更新操作
       return executor.update(ms, wrapCollection(parameter));
     } catch (Exception e) {
@@ -220,6 +276,17 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  // 查找 MappedStatement，找不到时与执行语句的异常一样包装
+  private MappedStatement getMappedStatement(String statement, String message) {
+    try {
+      return configuration.getMappedStatement(statement);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException(message + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public int delete(String statement) {
     return update(statement, null);
@@ -31,6 +31,7 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -64,6 +65,7 @@ public class ArrayTypeHandler extends BaseTypeHandler<Object> {
     STANDARD_MAPPING.put(Long.class, JdbcType.BIGINT.name());
     STANDARD_MAPPING.put(OffsetDateTime.class, JdbcType.TIMESTAMP_WITH_TIMEZONE.name());
     STANDARD_MAPPING.put(OffsetTime.class, JdbcType.TIME_WITH_TIMEZONE.name());
+    STANDARD_MAPPING.put(short.class, JdbcType.SMALLINT.name());
     STANDARD_MAPPING.put(Short.class, JdbcType.SMALLINT.name());
     STANDARD_MAPPING.put(String.class, JdbcType.VARCHAR.name());
     STANDARD_MAPPING.put(Time.class, JdbcType.TIME.name());
@@ -82,19 +84,64 @@ public class ArrayTypeHandler extends BaseTypeHandler<Object> {
       // it's the user's responsibility to properly free() the Array instance
       ps.setArray(i, (Array) parameter);
     } else {
-      if (!parameter.getClass().isArray()) {
+      Object[] elements;
+      Class<?> componentType;
+      if (parameter instanceof Collection) {
+        elements = ((Collection<?>) parameter).toArray();
+        componentType = Object.class;
+      } else if (parameter.getClass().isArray()) {
+        componentType = parameter.getClass().getComponentType();
+        elements = componentType.isPrimitive() ? toObjectArray(parameter, componentType) : (Object[]) parameter;
+      } else {
         throw new TypeException(
-            "ArrayType Handler requires SQL array or java array parameter and does not support type "
+            "ArrayType Handler requires SQL array, java array or collection parameter and does not support type "
                 + parameter.getClass());
       }
-      Class<?> componentType = parameter.getClass().getComponentType();
-      String arrayTypeName = resolveTypeName(componentType);
-      Array array = ps.getConnection().createArrayOf(arrayTypeName, (Object[]) parameter);
+      // Object[] 和集合按第一个非空元素的类型确定数组类型，没有元素时使用 VARCHAR
+      if (componentType == Object.class) {
+        componentType = elementTypeOf(elements);
+      }
+      String arrayTypeName = componentType == null ? JdbcType.VARCHAR.name() : resolveTypeName(componentType);
+      Array array = ps.getConnection().createArrayOf(arrayTypeName, elements);
       ps.setArray(i, array);
       array.free();
     }
   }
 
+  private static Class<?> elementTypeOf(Object[] elements) {
+    for (Object element : elements) {
+      if (element != null) {
+        return element.getClass();
+      }
+    }
+    return null;
+  }
+
+  // 基本类型数组装箱，createArrayOf 只接受 Object[]
+  private static Object[] toObjectArray(Object array, Class<?> componentType) {
+    if (componentType == long.class) {
+      long[] values = (long[]) array;
+      Long[] elements = new Long[values.length];
+      for (int i = 0; i < values.length; i++) {
+        elements[i] = values[i];
+      }
+      return elements;
+    } else if (componentType == int.class) {
+      int[] values = (int[]) array;
+      Integer[] elements = new Integer[values.length];
+      for (int i = 0; i < values.length; i++) {
+        elements[i] = values[i];
+      }
+      return elements;
+    }
+    int length = java.lang.reflect.Array.getLength(array);
+    Object[] elements = new Object[length];
+    for (int i = 0; i < length; i++) {
+      elements[i] = java.lang.reflect.Array.get(array, i);
+    }
+    return elements;
+  }
+
   protected String resolveTypeName(Class<?> type) {
     return STANDARD_MAPPING.getOrDefault(type, JdbcType.JAVA_OBJECT.name());
   }
@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.io.Serializable;
+import java.util.Map.Entry;
+
+/**
+ * A serializable reference to a type handler of a {@link TypeHandlerRegistry}. It is resolved against a registry with
+ * the same registrations, which returns the same handler instance or, for a handler created by
+ * {@link TypeHandlerRegistry#getInstance(Class, Class)}, an equal new one.
+ *
+ * @since 3.5.4
+ * @see org.apache.ibatis.session.ConfigurationSnapshot
+ */
+// TypeHandler 的可序列化引用，从注册了相同 TypeHandler 的 TypeHandlerRegistry 中取回
+public final class TypeHandlerReference implements Serializable {
+
+  private static final long serialVersionUID = 2986624452113862312L;
+
+  private enum Kind {
+    UNKNOWN, REGISTERED, JDBC, MAPPING, INSTANCE
+  }
+
+  private final Kind kind;
+  private final Class<?> handlerType;
+  private final Class<?> javaType;
+  private final JdbcType jdbcType;
+
+  private TypeHandlerReference(Kind kind, Class<?> handlerType, Class<?> javaType, JdbcType jdbcType) {
+    this.kind = kind;
+    this.handlerType = handlerType;
+    this.javaType = javaType;
+    this.jdbcType = jdbcType;
+  }
+
+  /**
+   * @return the reference, or {@code null} if the handler was neither registered to nor created by the registry
+   */
+  public static TypeHandlerReference of(TypeHandlerRegistry registry, TypeHandler<?> handler) {
+    Class<?> handlerType = handler.getClass();
+    if (handler == registry.getUnknownTypeHandler()) {
+      return new TypeHandlerReference(Kind.UNKNOWN, handlerType, null, null);
+    }
+    // 先按注册的类型查找，取回时会同样地注册按需创建的 TypeHandler（如枚举的）
+    Entry<Class<?>, JdbcType> registration = registry.findRegistration(handler);
+    if (registration != null) {
+      return new TypeHandlerReference(Kind.REGISTERED, handlerType, registration.getKey(), registration.getValue());
+    }
+    JdbcType jdbcRegistration = registry.findJdbcRegistration(handler);
+    if (jdbcRegistration != null) {
+      return new TypeHandlerReference(Kind.JDBC, handlerType, null, jdbcRegistration);
+    }
+    @SuppressWarnings("unchecked")
+    Class<? extends TypeHandler<?>> mappingType = (Class<? extends TypeHandler<?>>) handlerType;
+    if (registry.getMappingTypeHandler(mappingType) == handler) {
+      return new TypeHandlerReference(Kind.MAPPING, handlerType, null, null);
+    }
+    if (registry.isInstance(handler)) {
+      return new TypeHandlerReference(Kind.INSTANCE, handlerType, registry.getInstanceJavaType(handler), null);
+    }
+    return null;
+  }
+
+  /**
+   * @throws TypeException if the registry does not provide a handler of the referenced type
+   */
+  public TypeHandler<?> resolve(TypeHandlerRegistry registry) {
+    TypeHandler<?> handler;
+    switch (kind) {
+      case UNKNOWN:
+        handler = registry.getUnknownTypeHandler();
+        break;
+      case REGISTERED:
+        handler = registry.getTypeHandler(javaType, jdbcType);
+        break;
+      case JDBC:
+        handler = registry.getTypeHandler(jdbcType);
+        break;
+      case MAPPING:
+        @SuppressWarnings("unchecked")
+        Class<? extends TypeHandler<?>> mappingType = (Class<? extends TypeHandler<?>>) handlerType;
+        handler = registry.getMappingTypeHandler(mappingType);
+        break;
+      default:
+        handler = registry.getInstance(javaType, handlerType);
+        break;
+    }
+    if (handler == null || handler.getClass() != handlerType) {
+      throw new TypeException("The type handler registry provides no " + handlerType.getName() + " for "
+          + kind + " " + javaType + " " + jdbcType + ".");
+    }
+    return handler;
+  }
+
+}
@@ -33,11 +33,13 @@ import java.time.Year;
 import java.time.YearMonth;
 import java.time.ZonedDateTime;
 import java.time.chrono.JapaneseDate;
+import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -74,6 +76,10 @@ public final class TypeHandlerRegistry {
    * value: TypeHandler 对象
    */
   private final Map<Class<?>, TypeHandler<?>> allTypeHandlersMap = new HashMap<>();
+  /**
+   * 由 {@link #getInstance(Class, Class)} 创建的 TypeHandler 对象与创建时的 Java Type，用于 {@link TypeHandlerReference}
+   */
+  private final Map<TypeHandler<?>, Class<?>> instanceJavaTypes = Collections.synchronizedMap(new IdentityHashMap<>());
 
   /**
    * 空 TypeHandler 集合的标识，即使 {@link #typeHandlerMap} 中，某个 KEY1 对应的 Map<JdbcType, TypeHandler<?>> 为空。
@@ -250,8 +256,8 @@ public final class TypeHandlerRegistry {
 
   @SuppressWarnings("unchecked")
   private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
-    // ParamMap 不管
-    if (ParamMap.class.equals(type)) {
+    // ParamMap（包括 IndexedParamMap）不管
+    if (type instanceof Class && ParamMap.class.isAssignableFrom((Class<?>) type)) {
       return null;
     }
 
@@ -270,6 +276,10 @@ public final class TypeHandlerRegistry {
         // #591
         handler = pickSoleHandler(jdbcHandlerMap);
       }
+    } else if (jdbcType == JdbcType.ARRAY && type instanceof Class
+        && (Collection.class.isAssignableFrom((Class<?>) type) || ((Class<?>) type).isArray())) {
+      // 没有注册处理器的集合和数组，使用 Object 的 ARRAY 处理器绑定成数据库数组
+      handler = getTypeHandler(Object.class, JdbcType.ARRAY);
     }
     // type drives generics here
     return (TypeHandler<T>) handler;
@@ -482,8 +492,14 @@ public final class TypeHandlerRegistry {
 
   // Construct a handler (used also from Builders)
 
-  @SuppressWarnings("unchecked")
   public <T> TypeHandler<T> getInstance(Class<?> javaTypeClass, Class<?> typeHandlerClass) {
+    TypeHandler<T> handler = newInstance(javaTypeClass, typeHandlerClass);
+    instanceJavaTypes.put(handler, javaTypeClass);
+    return handler;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> TypeHandler<T> newInstance(Class<?> javaTypeClass, Class<?> typeHandlerClass) {
     if (javaTypeClass != null) {
       try {
         // 获取 Class 类型的构造方法
@@ -522,6 +538,38 @@ public final class TypeHandlerRegistry {
 
   // get information
 
+  // 查找注册了该 TypeHandler 对象的 Java Type（仅限 Class）和 JDBC Type
+  Entry<Class<?>, JdbcType> findRegistration(TypeHandler<?> handler) {
+    for (Entry<Type, Map<JdbcType, TypeHandler<?>>> entry : typeHandlerMap.entrySet()) {
+      if (entry.getKey() instanceof Class) {
+        for (Entry<JdbcType, TypeHandler<?>> jdbcEntry : entry.getValue().entrySet()) {
+          if (jdbcEntry.getValue() == handler) {
+            return new AbstractMap.SimpleImmutableEntry<>((Class<?>) entry.getKey(), jdbcEntry.getKey());
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  // 查找只按 JDBC Type 注册了该 TypeHandler 对象的 JDBC Type
+  JdbcType findJdbcRegistration(TypeHandler<?> handler) {
+    for (Entry<JdbcType, TypeHandler<?>> entry : jdbcTypeHandlerMap.entrySet()) {
+      if (entry.getValue() == handler) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  boolean isInstance(TypeHandler<?> handler) {
+    return instanceJavaTypes.containsKey(handler);
+  }
+
+  Class<?> getInstanceJavaType(TypeHandler<?> handler) {
+    return instanceJavaTypes.get(handler);
+  }
+
   /**
    * @since 3.2.2
    */
@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GeneratedMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setup() throws Exception {
+    DataSource dataSource = BaseDataTest.createBlogDataSource();
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DDL);
+    BaseDataTest.runScript(dataSource, BaseDataTest.BLOG_DATA);
+    Configuration configuration = new Configuration(new Environment("Production", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(AuthorMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Test
+  void shouldGenerateCheckedInImplementation() throws Exception {
+    String name = MapperGenerator.getImplementationName(AuthorMapper.class);
+    assertEquals("org.apache.ibatis.binding.GeneratedMapperTest_AuthorMapper_MapperImpl", name);
+    String source = new String(Files.readAllBytes(Paths.get("src/test/java", name.replace('.', '/') + ".java")),
+        StandardCharsets.UTF_8);
+    assertEquals(source.substring(source.indexOf("package ")), MapperGenerator.generate(AuthorMapper.class));
+  }
+
+  @Test
+  void shouldUseGeneratedImplementation() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      AuthorMapper mapper = session.getMapper(AuthorMapper.class);
+      assertEquals(GeneratedMapperTest_AuthorMapper_MapperImpl.class, mapper.getClass());
+      assertEquals(2, mapper.count());
+      assertEquals(4, mapper.countTwice());
+      assertEquals("jim", mapper.selectById(101).getUsername());
+      List<Author> authors = mapper.selectAll();
+      assertEquals(2, authors.size());
+      assertEquals(102, mapper.selectByUsernameAndEmail("sally", "sally@ibatis.apache.org").getId());
+      assertEquals(1, mapper.updateBio(101, "changed"));
+      assertEquals("changed", mapper.selectById(101).getBio());
+      session.rollback(true);
+      assertThrows(BindingException.class, mapper::unbound);
+    }
+  }
+
+  @Test
+  void shouldFallBackToProxyWithoutGeneratedImplementation() {
+    MapperProxyFactory<BaseMapper> factory = new MapperProxyFactory<>(BaseMapper.class);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      assertTrue(java.lang.reflect.Proxy.isProxyClass(factory.newInstance(session).getClass()));
+    }
+  }
+
+  interface BaseMapper<T> {
+    @Select("select * from author where id = #{id}")
+    T selectById(int id);
+  }
+
+  interface AuthorMapper extends BaseMapper<Author> {
+    @Select("select count(*) from author")
+    int count();
+
+    @Select("select * from author order by id")
+    List<Author> selectAll();
+
+    @Select("select * from author where username = #{username} and email = #{email}")
+    Author selectByUsernameAndEmail(@Param("username") String username, @Param("email") String email);
+
+    @Update("update author set bio = #{bio} where id = #{id}")
+    int updateBio(@Param("id") int id, @Param("bio") String bio);
+
+    void unbound();
+
+    default int countTwice() {
+      return count() * 2;
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+/**
+ * Generated by {@link org.apache.ibatis.binding.MapperGenerator} from {@link org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper}. Do not edit.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class GeneratedMapperTest_AuthorMapper_MapperImpl implements org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper {
+
+  public static final java.util.List<java.lang.reflect.Method> METHODS;
+
+  static {
+    try {
+      METHODS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("count"),
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("selectAll"),
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("selectById", int.class),
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("selectByUsernameAndEmail", java.lang.String.class, java.lang.String.class),
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("unbound"),
+          org.apache.ibatis.binding.GeneratedMapperTest.AuthorMapper.class.getMethod("updateBio", int.class, java.lang.String.class)));
+    } catch (NoSuchMethodException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final org.apache.ibatis.session.SqlSession sqlSession;
+  private final org.apache.ibatis.binding.MapperMethodTable methods;
+
+  public GeneratedMapperTest_AuthorMapper_MapperImpl(org.apache.ibatis.session.SqlSession sqlSession, org.apache.ibatis.binding.MapperMethodTable methods) {
+    this.sqlSession = sqlSession;
+    this.methods = methods;
+  }
+
+  @Override
+  public int count() {
+    return (int) methods.get(0, sqlSession).execute(sqlSession, null);
+  }
+
+  @Override
+  public java.util.List selectAll() {
+    return (java.util.List) methods.get(1, sqlSession).execute(sqlSession, null);
+  }
+
+  @Override
+  public org.apache.ibatis.domain.blog.Author selectById(int arg0) {
+    return (org.apache.ibatis.domain.blog.Author) methods.get(2, sqlSession).execute(sqlSession, new Object[] { arg0 });
+  }
+
+  @Override
+  public org.apache.ibatis.domain.blog.Author selectByUsernameAndEmail(java.lang.String arg0, java.lang.String arg1) {
+    return (org.apache.ibatis.domain.blog.Author) methods.get(3, sqlSession).execute(sqlSession, new Object[] { arg0, arg1 });
+  }
+
+  @Override
+  public void unbound() {
+    methods.get(4, sqlSession).execute(sqlSession, null);
+  }
+
+  @Override
+  public int updateBio(int arg0, java.lang.String arg1) {
+    return (int) methods.get(5, sqlSession).execute(sqlSession, new Object[] { arg0, arg1 });
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.junit.jupiter.api.Test;
+
+class IndexedParamMapTest {
+
+  private final IndexedParamMap.Layout layout = new IndexedParamMap.Layout(
+      new String[] { "id", "param1", "name", "param2" }, new int[] { 0, 0, 2, 2 });
+
+  @Test
+  void shouldReadArgumentsLikeParamMap() {
+    IndexedParamMap map = new IndexedParamMap(layout, new Object[] { 1, "skipped", "cbegin" });
+    assertEquals(1, map.get("id"));
+    assertEquals("cbegin", map.get("param2"));
+    assertTrue(map.containsKey("name"));
+    assertFalse(map.containsKey("skipped"));
+    assertEquals(4, map.size());
+    assertEquals(2, layout.indexOf("name"));
+    assertEquals(-1, layout.indexOf("missing"));
+    assertEquals("cbegin", map.getArgument(layout.indexOf("name")));
+
+    BindingException e = assertThrows(BindingException.class, () -> map.get("missing"));
+    assertTrue(e.getMessage().startsWith("Parameter 'missing' not found. Available parameters are ["), e.getMessage());
+  }
+
+  @Test
+  void shouldCopyArgumentsBeforeOtherOperations() {
+    IndexedParamMap map = new IndexedParamMap(layout, new Object[] { 1, null, "cbegin" });
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("param1", 1);
+    expected.put("name", "cbegin");
+    expected.put("param2", "cbegin");
+    assertEquals(expected, map);
+    assertEquals(expected.toString(), map.toString());
+
+    map.put("name", "norm");
+    map.put("extra", true);
+    assertEquals("norm", map.get("name"));
+    assertEquals("norm", map.getArgument(layout.indexOf("name")));
+    assertEquals(true, map.get("extra"));
+    assertEquals(5, map.size());
+  }
+
+  @Test
+  void shouldSerializeAsParamMap() throws Exception {
+    IndexedParamMap map = new IndexedParamMap(layout, new Object[] { 1, null, "cbegin" });
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Object copy = in.readObject();
+      assertEquals(ParamMap.class, copy.getClass());
+      assertEquals(map, copy);
+    }
+  }
+
+}
@@ -18,17 +18,30 @@ package org.apache.ibatis.builder;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
+import org.apache.ibatis.cache.serializer.JavaSerializer;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -41,8 +54,11 @@ import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
@@ -57,12 +73,14 @@ import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
@@ -79,6 +97,16 @@ class XmlConfigBuilderTest {
       assertThat(config.getAutoMappingUnknownColumnBehavior()).isEqualTo(AutoMappingUnknownColumnBehavior.NONE);
       assertThat(config.isCacheEnabled()).isTrue();
       assertThat(config.getProxyFactory()).isInstanceOf(JavassistProxyFactory.class);
+      assertThat(config.getSerializer()).isInstanceOf(JavaSerializer.class);
+      assertThat(config.getExpressionEvaluator()).isExactlyInstanceOf(ExpressionEvaluator.class);
+      assertThat(config.isCompactCacheKeys()).isFalse();
+      assertThat(config.isUseCompiledRowMappers()).isFalse();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(0);
+      assertThat(config.getForeachArrayTemplate()).isEqualTo("UNNEST(?)");
+      assertThat(config.isSealConfiguration()).isFalse();
+      assertThat(config.isParallelMapperParsing()).isFalse();
+      assertThat(config.isLazyMapperParsing()).isFalse();
+      assertThat(config.getConfigurationSnapshot()).isNull();
       assertThat(config.isLazyLoadingEnabled()).isFalse();
       assertThat(config.isAggressiveLazyLoading()).isFalse();
       assertThat(config.isMultipleResultSetsEnabled()).isTrue();
@@ -173,6 +201,17 @@ class XmlConfigBuilderTest {
       assertThat(config.getAutoMappingUnknownColumnBehavior()).isEqualTo(AutoMappingUnknownColumnBehavior.WARNING);
       assertThat(config.isCacheEnabled()).isFalse();
       assertThat(config.getProxyFactory()).isInstanceOf(CglibProxyFactory.class);
+      assertThat(config.getSerializer()).isInstanceOf(CompactSerializer.class);
+      assertThat(config.getExpressionEvaluator()).isInstanceOf(CompiledExpressionEvaluator.class);
+      assertThat(config.getExpressionEvaluator()).hasFieldOrPropertyWithValue("compiler.reflectorFactory", config.getReflectorFactory());
+      assertThat(config.isCompactCacheKeys()).isTrue();
+      assertThat(config.isUseCompiledRowMappers()).isTrue();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(128);
+      assertThat(config.getForeachArrayTemplate()).isEqualTo("SELECT UNNEST(?)");
+      assertThat(config.isSealConfiguration()).isTrue();
+      assertThat(config.isParallelMapperParsing()).isTrue();
+      assertThat(config.isLazyMapperParsing()).isTrue();
+      assertThat(config.getConfigurationSnapshot()).isEqualTo("target/snapshots/CustomizedSettingsMapperConfig.snapshot");
       assertThat(config.isLazyLoadingEnabled()).isTrue();
       assertThat(config.isAggressiveLazyLoading()).isTrue();
       assertThat(config.isMultipleResultSetsEnabled()).isFalse();
@@ -302,4 +341,124 @@ class XmlConfigBuilderTest {
       .hasMessageContaining("The properties element cannot specify both a URL and a resource based property file reference.  Please specify one or the other.");
   }
 
+  @Test
+  void shouldParseMappersInParallelLikeSequentially() throws Exception {
+    Configuration sequential = parseMapperConfig(false, "");
+    Configuration parallel = parseMapperConfig(true, "");
+    assertThat(parallel.isParallelMapperParsing()).isTrue();
+    assertThat(new HashSet<>(parallel.getMappedStatementNames())).isEqualTo(new HashSet<>(sequential.getMappedStatementNames()));
+    assertThat(new HashSet<>(parallel.getResultMapNames())).isEqualTo(new HashSet<>(sequential.getResultMapNames()));
+    assertThat(new HashSet<>(parallel.getCacheNames())).isEqualTo(new HashSet<>(sequential.getCacheNames()));
+    assertThat(parallel.hasMapper(CustomMapper.class)).isTrue();
+  }
+
+  @Test
+  void shouldUseMapperDocumentsParsedInParallel() throws Exception {
+    String resource = "org/apache/ibatis/builder/BlogMapper.xml";
+    AtomicInteger reads = new AtomicInteger();
+    Resources.setDefaultClassLoader(new ClassLoader(getClass().getClassLoader()) {
+      @Override
+      public InputStream getResourceAsStream(String name) {
+        if (resource.equals(name)) {
+          reads.incrementAndGet();
+        }
+        return super.getResourceAsStream(name);
+      }
+    });
+    try {
+      parseMapperConfig(true, "");
+    } finally {
+      Resources.setDefaultClassLoader(null);
+    }
+    assertThat(reads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportMapperErrorsInOrderWhenParsingInParallel() throws Exception {
+    String missing = "    <mapper resource=\"org/apache/ibatis/builder/MissingMapper.xml\"/>\n";
+    BuilderException expected = assertThrows(BuilderException.class, () -> parseMapperConfig(false, missing));
+    BuilderException actual = assertThrows(BuilderException.class, () -> parseMapperConfig(true, missing));
+    assertThat(actual.getMessage()).isEqualTo(expected.getMessage());
+  }
+
+  @Test
+  void shouldBuildLazyMappersOnDemand() throws Exception {
+    Configuration eager = parseMapperConfig("lazyMapperParsing", false, "");
+    Configuration lazy = parseMapperConfig("lazyMapperParsing", true, "");
+    assertThat(lazy.isLazyMapperParsing()).isTrue();
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/BlogMapper.xml")).isFalse();
+    assertThat(lazy.hasMapper(CustomMapper.class)).isTrue();
+
+    assertNotNull(lazy.getMappedStatement("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogWithPostsUsingSubSelect"));
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/BlogMapper.xml")).isTrue();
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/AuthorMapper.xml")).isFalse();
+    assertThat(lazy.hasStatement("selectPostLite")).isTrue();
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/PostMapper.xml")).isTrue();
+    assertNotNull(lazy.getCache("org.apache.ibatis.builder.CachedAuthorMapper"));
+    assertThat(lazy.hasMapper(NestedBlogMapper.class)).isTrue();
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/AuthorMapper.xml")).isFalse();
+
+    assertThat(new HashSet<>(lazy.getMappedStatementNames())).isEqualTo(new HashSet<>(eager.getMappedStatementNames()));
+    assertThat(new HashSet<>(lazy.getResultMapNames())).isEqualTo(new HashSet<>(eager.getResultMapNames()));
+    assertThat(new HashSet<>(lazy.getCacheNames())).isEqualTo(new HashSet<>(eager.getCacheNames()));
+    assertThat(lazy.isResourceLoaded("org/apache/ibatis/builder/AuthorMapper.xml")).isTrue();
+  }
+
+  @Test
+  void shouldBuildLazyMapperOnceForConcurrentLookups() throws Exception {
+    Configuration lazy = parseMapperConfig("lazyMapperParsing", true, "");
+    String id = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor";
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<MappedStatement>> lookups = IntStream.range(0, 32)
+          .mapToObj(i -> (Callable<MappedStatement>) () -> lazy.getMappedStatement(id)).collect(Collectors.toList());
+      MappedStatement expected = lazy.getMappedStatement(id);
+      for (Future<MappedStatement> future : executor.invokeAll(lookups)) {
+        assertThat(future.get()).isSameAs(expected);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldReportLazyMapperErrorsWhenBuilt() throws Exception {
+    String missing = "    <mapper resource=\"org/apache/ibatis/builder/MissingMapper.xml\"/>\n";
+    assertThrows(BuilderException.class, () -> parseMapperConfig("lazyMapperParsing", true, missing));
+  }
+
+  @Test
+  void shouldReportLazyMapperErrorsOnEveryLookup(@TempDir Path tempDir) throws Exception {
+    Path mapper = tempDir.resolve("BrokenMapper.xml");
+    Files.write(mapper, ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"org.apache.ibatis.builder.BrokenMapper\">\n"
+        + "  <sql id=\"columns\">id</sql>\n"
+        + "  <resultMap id=\"broken\" type=\"org.apache.ibatis.builder.NoSuchType\"/>\n"
+        + "  <select id=\"select\" resultMap=\"broken\">select <include refid=\"columns\"/> from author</select>\n"
+        + "</mapper>\n").getBytes(StandardCharsets.UTF_8));
+    Configuration lazy = parseMapperConfig("lazyMapperParsing", true,
+        "    <mapper url=\"" + mapper.toUri() + "\"/>\n");
+    String id = "org.apache.ibatis.builder.BrokenMapper.select";
+    BuilderException first = assertThrows(BuilderException.class, () -> lazy.getMappedStatement(id));
+    // 之后的查找仍然报告原来的错误，而不是使用构建了一半的命名空间
+    BuilderException second = assertThrows(BuilderException.class, () -> lazy.getMappedStatement(id));
+    assertThat(second.getCause()).isSameAs(first);
+    BuilderException resultMap = assertThrows(BuilderException.class,
+        () -> lazy.getResultMap("org.apache.ibatis.builder.BrokenMapper.broken"));
+    assertThat(resultMap.getCause()).isSameAs(first);
+  }
+
+  private Configuration parseMapperConfig(boolean parallel, String extraMappers) throws Exception {
+    return parseMapperConfig("parallelMapperParsing", parallel, extraMappers);
+  }
+
+  private Configuration parseMapperConfig(String setting, boolean value, String extraMappers) throws Exception {
+    String config = new String(Files.readAllBytes(Resources.getResourceAsFile("org/apache/ibatis/builder/MapperConfig.xml").toPath()),
+        StandardCharsets.UTF_8);
+    config = config.replace("<settings>", "<settings>\n    <setting name=\"" + setting + "\" value=\"" + value + "\"/>")
+        .replace("</mappers>", extraMappers + "    <package name=\"org.apache.ibatis.builder.mapper\"/>\n  </mappers>");
+    return new XMLConfigBuilder(new StringReader(config)).parse();
+  }
+
 }
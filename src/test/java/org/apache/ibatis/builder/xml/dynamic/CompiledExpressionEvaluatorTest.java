@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionEvaluatorTest {
+
+  private final ExpressionEvaluator ognl = new ExpressionEvaluator();
+  private final CompiledExpressionEvaluator compiled = new CompiledExpressionEvaluator();
+
+  @Test
+  void shouldEvaluateLikeOgnl() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("name", "cbegin");
+    param.put("blank", " ");
+    param.put("empty", "");
+    param.put("zero", 0);
+    param.put("one", 1L);
+    param.put("half", 0.5d);
+    param.put("flag", Boolean.TRUE);
+    param.put("falseString", "false");
+    param.put("nothing", null);
+    param.put("ids", Arrays.asList(1, 2, 3));
+    param.put("tags", new HashSet<>(Collections.singletonList("x")));
+    param.put("array", new int[] { 1, 2 });
+    param.put("nested", Collections.singletonMap("size", 7));
+    param.put("author", new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS));
+    String[] expressions = {
+        "name", "nothing", "zero", "one", "half", "flag", "falseString", "missing",
+        "name != null", "name == null", "nothing == null", "null == nothing", "zero != null",
+        "name == 'cbegin'", "name eq \"cbegin\"", "name neq 'norm'", "empty == ''", "zero == 0",
+        "one == 1", "one == 1.0", "half > 0.4", "half < -1", "one >= 1", "one <= 0", "zero lt 1", "zero gte 0",
+        "ids != null and ids.size() > 0", "ids.size == 3", "ids.isEmpty()", "ids.empty", "tags.size() == 1",
+        "tags.isEmpty", "array.length == 2", "nested.size", "nested.size() == 1",
+        "name.length() > 3", "blank.trim() == ''", "name.isEmpty()",
+        "author.username == 'cbegin'", "author.password == null", "author.id == 1", "author.favouriteSection",
+        "!flag", "not flag", "!(zero == 0)", "name and zero", "zero or name", "nothing || one", "flag && name",
+        "(zero == 0 or one == 0) and !(half > 1)" };
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), param).getBindings();
+    for (String expression : expressions) {
+      assertTrue(compiled.isCompiled(expression), expression);
+      assertEquals(ognl.evaluateBoolean(expression, param), compiled.evaluateBoolean(expression, param), expression);
+      assertEquals(ognl.evaluateBoolean(expression, bindings), compiled.evaluateBoolean(expression, bindings), expression);
+    }
+    assertTrue(compiled.evaluateBoolean("_parameter.name == 'cbegin' and _databaseId == null", bindings));
+  }
+
+  @Test
+  void shouldEvaluateBeanRoot() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS);
+    assertTrue(compiled.evaluateBoolean("username == 'cbegin' and password == null", author));
+    assertFalse(compiled.evaluateBoolean("id > 1", author));
+    Author other = new Author(2, "norm", null, "norm@apache.org", "N/A", Section.NEWS);
+    assertTrue(compiled.evaluateBoolean("id > 1", other));
+  }
+
+  @Test
+  void shouldEvaluateIterable() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("array", new String[] { "1", "2", "3" });
+    assertIterableEquals(Arrays.asList("1", "2", "3"), compiled.evaluateIterable("array", param));
+  }
+
+  @Test
+  void shouldFallBackToOgnlForUnsupportedSyntax() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("name", "cbegin");
+    param.put("ids", Arrays.asList(1, 2, 3));
+    String[] expressions = { "ids[0] == 1", "name.startsWith('c')", "name != null ? true : false", "1 + 1 == 2",
+        "#this != null", "@java.lang.Integer@MAX_VALUE > 0", "1 in ids", "ids.{? #this > 1}.size() == 2", "2L == 2" };
+    for (String expression : expressions) {
+      assertFalse(compiled.isCompiled(expression), expression);
+      assertEquals(ognl.evaluateBoolean(expression, param), compiled.evaluateBoolean(expression, param), expression);
+    }
+  }
+
+  @Test
+  void shouldReportErrorsLikeOgnl() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("nothing", null);
+    BuilderException expected = assertThrows(BuilderException.class, () -> ognl.evaluateBoolean("nothing.name", param));
+    BuilderException actual = assertThrows(BuilderException.class, () -> compiled.evaluateBoolean("nothing.name", param));
+    assertEquals(expected.getMessage(), actual.getMessage());
+  }
+
+}
@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledSqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledSqlSourceTest {
+
+  private final Configuration configuration = new Configuration();
+  private final LanguageDriver xml = new XMLLanguageDriver();
+  private final LanguageDriver compiled = new CompiledLanguageDriver();
+
+  @Test
+  void shouldBuildSameSqlAsDynamicSqlSource() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("name", "cbegin");
+    param.put("ids", Arrays.asList(1, 2, 3));
+    param.put("empty", Collections.emptyList());
+    param.put("column", "username");
+    Map<String, Object> codes = new LinkedHashMap<>();
+    codes.put("a", 1);
+    codes.put("b", 2);
+    param.put("codes", codes);
+    param.put("matrix", Arrays.asList(Arrays.asList(1, 2), Collections.emptyList(), Arrays.asList(3)));
+    String[] scripts = {
+        "select * from author <where> <if test='id != null'>and id = #{id}</if> <if test='name != null'>AND name = #{name, jdbcType=VARCHAR}</if></where>",
+        "select * from author <where> <if test='missing != null'>and id = #{id}</if> </where>",
+        "update author <set> <if test='name != null'>name = #{name},</if> <if test='id != null'>id = #{id},</if> </set> where id = #{id}",
+        "select * from author where id in <foreach collection='ids' item='item' index='i' open='(' separator=',' close=')'>#{item} + #{i}</foreach>",
+        "select * from author where id in <foreach collection='empty' item='item' open='(' separator=',' close=')'>#{item}</foreach>",
+        "select * from author <trim prefix='where' prefixOverrides='or |and ' suffix='order by id' suffixOverrides=','>and #{ item.id , jdbcType=INTEGER}, </trim>",
+        "<foreach collection='codes' index='key' item='value' separator='or'>(#{key} = #{value})</foreach>",
+        "<foreach collection='ids' item='item' separator=','><if test='item != 1'>#{item}</if></foreach>",
+        "<foreach collection='codes' index='key' item='value' separator='or' positional='true'>(#{key} = #{value})</foreach>",
+        "<foreach collection='ids' item='item' index='i' separator=',' padding='true'>#{item}:#{i}</foreach>",
+        "<foreach collection='codes' index='key' item='value' separator='or' positional='true' padding='5,10'>(#{key} = #{value})</foreach>",
+        "<foreach collection='matrix' item='row' index='r' separator=';' positional='true'><foreach collection='row' item='cell' separator=','>#{cell}:#{r}</foreach></foreach>",
+        "<foreach collection='matrix' item='row' separator=';'><foreach collection='row' item='cell' index='i' open='[' close=']' separator=','>${row.size()}:#{cell}:#{i}:#{itemx}</foreach></foreach>",
+        "<choose><when test='id == 0'>a = #{id}</when><when test='id == 1'>b = #{id}</when><otherwise>c</otherwise></choose>",
+        "<bind name='pattern' value=\"'%' + name + '%'\"/> select * from author where ${column} like #{pattern} order by ${column}",
+        "<trim prefix='(' suffix=')' prefixOverrides=','>,${column}</trim> values <foreach collection='ids' item='item' separator=','>${item}</foreach>",
+        "select 1 where ${column} = #{id} <if test='false'>x</if>" };
+    for (String script : scripts) {
+      assertSameBoundSql(script, param);
+    }
+  }
+
+  @Test
+  void shouldBuildSameSqlForBeanParameter() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS);
+    assertSameBoundSql("select * from author <where><if test='username != null'>username = #{username}</if>"
+        + "<if test='password == null'>and password is null</if> and bio = #{bio} and id = ${id}</where>", author);
+    assertSameBoundSql("select * from author where id = ${value} <if test='true'>or id = #{value}</if>", 3);
+  }
+
+  @Test
+  void shouldReuseDynamicSqlSourceWhenTextCanNotBeCompiled() {
+    SqlSource source = compiled.createSqlSource(configuration,
+        "<script>select '\\#{id}' <if test='true'>#{id}</if></script>", Object.class);
+    assertTrue(source instanceof DynamicSqlSource);
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("text", "#{id");
+    assertSameBoundSql("select <if test='true'>${text}</if> }", param);
+  }
+
+  @Test
+  void shouldReportErrorsLikeDynamicSqlSource() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("column", "#{id, foo=bar}");
+    for (String script : new String[] { "<if test='true'>#{id, foo=bar}</if>", "<if test='true'>${column}</if>" }) {
+      BuilderException expected = assertThrows(BuilderException.class, () -> boundSql(xml, script, param));
+      BuilderException actual = assertThrows(BuilderException.class, () -> boundSql(compiled, script, param));
+      assertEquals(expected.getMessage(), actual.getMessage());
+    }
+  }
+
+  private void assertSameBoundSql(String script, Object param) {
+    assertTrue(compiled.createSqlSource(configuration, "<script>" + script + "</script>", Object.class) instanceof CompiledSqlSource, script);
+    BoundSql expected = boundSql(xml, script, param);
+    BoundSql actual = boundSql(compiled, script, param);
+    assertEquals(expected.getSql(), actual.getSql(), script);
+    List<ParameterMapping> expectedMappings = expected.getParameterMappings();
+    List<ParameterMapping> actualMappings = actual.getParameterMappings();
+    assertEquals(expectedMappings.size(), actualMappings.size(), script);
+    for (int i = 0; i < expectedMappings.size(); i++) {
+      ParameterMapping expectedMapping = expectedMappings.get(i);
+      ParameterMapping actualMapping = actualMappings.get(i);
+      assertEquals(expectedMapping.getProperty(), actualMapping.getProperty(), script);
+      assertEquals(expectedMapping.getJavaType(), actualMapping.getJavaType(), script);
+      assertEquals(expectedMapping.getJdbcType(), actualMapping.getJdbcType(), script);
+      assertEquals(expectedMapping.getTypeHandler().getClass(), actualMapping.getTypeHandler().getClass(), script);
+      String property = expectedMapping.getProperty();
+      if (expected.hasAdditionalParameter(property)) {
+        assertEquals(expected.getAdditionalParameter(property), actual.getAdditionalParameter(property), script);
+      }
+    }
+  }
+
+  private BoundSql boundSql(LanguageDriver driver, String script, Object param) {
+    return driver.createSqlSource(configuration, "<script>" + script + "</script>", Object.class).getBoundSql(param);
+  }
+
+}
@@ -16,17 +16,21 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
@@ -376,6 +380,71 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldBindForEachItemsPositionally() throws Exception {
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(new Bean("a"), new Bean("b"), new Bean("c")));
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item.id} + #{i}")), "list", "i",
+            "item", "(", ")", ",", true));
+    BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? + ? , ? + ? , ? + ? )", boundSql.getSql());
+    assertEquals(6, boundSql.getParameterMappings().size());
+    assertEquals("__frch_item_0[0].id", boundSql.getParameterMappings().get(0).getProperty());
+    assertEquals("__frch_i_0[0]", boundSql.getParameterMappings().get(1).getProperty());
+    assertEquals("__frch_item_0[2].id", boundSql.getParameterMappings().get(4).getProperty());
+    assertEquals("__frch_i_0[2]", boundSql.getParameterMappings().get(5).getProperty());
+    assertEquals("b", boundSql.getAdditionalParameter("__frch_item_0[1].id"));
+    assertEquals(2, boundSql.getAdditionalParameter("__frch_i_0[2]"));
+    assertFalse(boundSql.hasAdditionalParameter("__frch_item_1"));
+    assertFalse(boundSql.hasAdditionalParameter("item"));
+  }
+
+  @Test
+  void shouldPadForEachItems() throws Exception {
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList("a", "b", "c"));
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "list", null,
+            "item", "(", ")", ",", false, "true"));
+    BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? , ? , ? )", boundSql.getSql());
+    assertEquals("c", boundSql.getAdditionalParameter("__frch_item_3"));
+    param.put("list", Arrays.asList("a", "b", "c", "d"));
+    assertEquals(4, source.getBoundSql(param).getParameterMappings().size());
+    param.put("list", Arrays.asList("a", "b", "c", "d", "e"));
+    assertEquals(8, source.getBoundSql(param).getParameterMappings().size());
+  }
+
+  @Test
+  void shouldPadForEachItemsToConfiguredSizes() throws Exception {
+    final Map<String, Object> param = new HashMap<>();
+    DynamicSqlSource source = createDynamicSqlSource(
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "list", null,
+            "item", "(", ")", ",", true, "2, 5"));
+    int[][] paddedSizes = { { 1, 2 }, { 2, 2 }, { 3, 5 }, { 5, 5 }, { 6, 10 }, { 11, 15 } };
+    for (int[] paddedSize : paddedSizes) {
+      List<Integer> list = new ArrayList<>();
+      for (int i = 0; i < paddedSize[0]; i++) {
+        list.add(i);
+      }
+      param.put("list", list);
+      BoundSql boundSql = source.getBoundSql(param);
+      assertEquals(paddedSize[1], boundSql.getParameterMappings().size());
+      assertEquals(paddedSize[0] - 1, boundSql.getAdditionalParameter("__frch_item_0[" + (paddedSize[1] - 1) + "]"));
+    }
+  }
+
+  @Test
+  void shouldRejectInvalidForEachPadding() {
+    for (String padding : new String[] { "yes", "0", "5,5", "10,5" }) {
+      assertThrows(BuilderException.class, () -> new ForEachSqlNode(new Configuration(), mixedContents(),
+          "list", null, "item", "(", ")", ",", false, padding));
+    }
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
@@ -399,6 +468,49 @@ class DynamicSqlSourceTest extends BaseDataTest {
     Assertions.assertEquals("id=", sql);
   }
 
+  @Test
+  void shouldReuseParsedSqlForRepeatedShapes() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(16);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "array", null, "item", "(", ")", ",")));
+    Map<String, Object> param = new HashMap<>();
+    param.put("array", new Integer[] { 1, 2 });
+    BoundSql first = source.getBoundSql(param);
+    param.put("array", new Integer[] { 3, 4 });
+    BoundSql second = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? )", second.getSql());
+    assertEquals(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(3, second.getAdditionalParameter("__frch_item_0"));
+    assertEquals(4, second.getAdditionalParameter("__frch_item_1"));
+
+    param.put("array", new Integer[] { 5, 6, 7 });
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? , ? )", source.getBoundSql(param).getSql());
+    param.put("array", new String[] { "a", "b" });
+    assertEquals(String.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+
+    assertEquals(1, source.getTemplateCacheHits());
+    assertEquals(3, source.getTemplateCacheMisses());
+    assertEquals(3, source.getTemplateCacheSize());
+  }
+
+  @Test
+  void shouldNotCacheShapesWithTypesTakenFromMapValues() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(16);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item.id}")), "list", null, "item", "(", ")", ",")));
+    Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(new HashMap<>(Collections.singletonMap("id", 1))));
+    assertEquals(Integer.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+    param.put("list", Arrays.asList(new HashMap<>(Collections.singletonMap("id", "a"))));
+    assertEquals(String.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+    assertEquals(0, source.getTemplateCacheHits());
+    assertEquals(0, source.getTemplateCacheSize());
+  }
+
   public static class Bean {
     public String id;
     Bean(String property) {
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.junit.jupiter.api.Test;
+
+class BlockingCacheTest {
+
+  @Test
+  void shouldLoadMissedKeyOnlyOnce() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          Object value = cache.getObject("key");
+          if (value == null) {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            value = "value";
+            cache.putObject("key", value);
+          }
+          return value;
+        }));
+      }
+      start.countDown();
+      for (Future<Object> future : futures) {
+        assertEquals("value", future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, loads.get());
+    assertEquals(0, flights(cache).size());
+  }
+
+  @Test
+  void shouldHandOverLoadWhenOwnerGivesUp() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+      Thread.sleep(100);
+      assertFalse(waiter.isDone());
+      cache.removeObject("key");
+      assertNull(waiter.get(5, TimeUnit.SECONDS));
+      // the waiter owns the key now
+      assertEquals(1, flights(cache).size());
+      executor.submit(() -> cache.removeObject("key")).get();
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(0, flights(cache).size());
+  }
+
+  @Test
+  void shouldNotKeepStateForLoadedKeys() {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    for (int i = 0; i < 100; i++) {
+      assertNull(cache.getObject(i));
+      // a second miss in the same thread does not block
+      assertNull(cache.getObject(i));
+      cache.putObject(i, i);
+      assertEquals(i, cache.getObject(i));
+    }
+    assertEquals(100, cache.getSize());
+    assertEquals(0, flights(cache).size());
+  }
+
+  @Test
+  void shouldTimeOutWaitingForAnotherThread() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    cache.setTimeout(50);
+    assertNull(cache.getObject("key"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Object> waiter = executor.submit(() -> cache.getObject("key"));
+      Exception e = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof CacheException);
+    } finally {
+      executor.shutdown();
+      cache.removeObject("key");
+    }
+  }
+
+  @Test
+  void shouldTakeOverKeyOfDeadThread() throws Exception {
+    BlockingCache cache = new BlockingCache(new PerpetualCache("default"));
+    Thread owner = new Thread(() -> cache.getObject("key"));
+    owner.start();
+    owner.join();
+    assertEquals(1, flights(cache).size());
+    assertNull(cache.getObject("key"));
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    assertEquals(0, flights(cache).size());
+  }
+
+  private Map<?, ?> flights(BlockingCache cache) {
+    try {
+      Field field = BlockingCache.class.getDeclaredField("flights");
+      field.setAccessible(true);
+      return (Map<?, ?>) field.get(cache);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
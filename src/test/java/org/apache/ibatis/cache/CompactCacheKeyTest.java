@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class CompactCacheKeyTest {
+
+  @Test
+  void shouldTestCacheKeysEqual() {
+    Date date = new Date();
+    CacheKey key1 = new CompactCacheKey(new Object[] { 1, "hello", null, new Date(date.getTime()) });
+    CacheKey key2 = new CompactCacheKey(new Object[] { 1, "hello", null, new Date(date.getTime()) });
+    assertEquals(key1, key2);
+    assertEquals(key2, key1);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals(key1.toString(), key2.toString());
+  }
+
+  @Test
+  void shouldTestCacheKeysNotEqualDueToOrder() {
+    CacheKey key1 = new CompactCacheKey(new Object[] { 1, "hello", null });
+    CacheKey key2 = new CompactCacheKey(new Object[] { 1, null, "hello" });
+    assertNotEquals(key1, key2);
+    assertNotEquals(key1.hashCode(), key2.hashCode());
+    assertNotEquals(key1.toString(), key2.toString());
+  }
+
+  @Test
+  void shouldTreatBoxedAndPrimitiveUpdatesAlike() {
+    CacheKey key1 = new CompactCacheKey();
+    key1.updateInt(42);
+    key1.updateLong(42L);
+    CacheKey key2 = new CompactCacheKey(new Object[] { 42, 42L });
+    assertEquals(key1, key2);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals("42:42", key1.toString().substring(key1.toString().indexOf(':') + 1));
+  }
+
+  @Test
+  void shouldDistinguishIntFromLong() {
+    CacheKey key1 = new CompactCacheKey(new Object[] { 1 });
+    CacheKey key2 = new CompactCacheKey(new Object[] { 1L });
+    assertNotEquals(key1, key2);
+  }
+
+  @Test
+  void shouldGrowBeyondInitialCapacity() throws Exception {
+    CompactCacheKey key1 = new CompactCacheKey();
+    CompactCacheKey key2 = new CompactCacheKey();
+    for (int i = 0; i < 100; i++) {
+      key1.update("value" + i);
+      key1.updateInt(i);
+      key2.update("value" + i);
+      key2.update(i);
+    }
+    assertEquals(200, key1.getUpdateCount());
+    assertEquals(key1, key2);
+    assertEquals(key1.longHashCode(), key2.longHashCode());
+    CacheKey clone = key1.clone();
+    clone.updateInt(0);
+    assertNotEquals(key1, clone);
+    assertEquals(200, key1.getUpdateCount());
+  }
+
+  @Test
+  void shouldTestCacheKeysWithBinaryArrays() {
+    CacheKey key1 = new CompactCacheKey(new Object[] { new byte[] { 1 } });
+    CacheKey key2 = new CompactCacheKey(new Object[] { new byte[] { 1 } });
+    assertEquals(key1, key2);
+  }
+
+  @Test
+  void shouldNeverEqualPlainCacheKey() {
+    assertNotEquals(new CacheKey(new Object[] { 1, "hello" }), new CompactCacheKey(new Object[] { 1, "hello" }));
+    assertNotEquals(new CompactCacheKey(new Object[] { 1, "hello" }), new CacheKey(new Object[] { 1, "hello" }));
+  }
+
+  @Test
+  void serializationTest() throws Exception {
+    CacheKey cacheKey = new CompactCacheKey();
+    cacheKey.update("serializable");
+    cacheKey.updateInt(Integer.MAX_VALUE);
+    assertEquals(cacheKey, serialize(cacheKey));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T serialize(T object) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ObjectOutputStream(baos).writeObject(object);
+
+    ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+    return (T) new ObjectInputStream(bais).readObject();
+  }
+
+}
@@ -0,0 +1,225 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldReturnCopiesOfResultLists() {
+    OffHeapCache cache = new OffHeapCache("default");
+    List<Object> rows = new ArrayList<>();
+    rows.add(new Author(101, "jim", "********", "jim@ibatis.apache.org", "Something...", Section.NEWS));
+    Map<String, Object> row = new HashMap<>();
+    row.put("ID", 102L);
+    row.put("PRICE", new BigDecimal("19.99"));
+    row.put("CREATED", Timestamp.valueOf("2020-01-02 03:04:05.123456789"));
+    row.put("UPDATED", LocalDateTime.of(2020, 1, 2, 3, 4));
+    row.put("DATA", new byte[] { 1, 2, 3 });
+    rows.add(row);
+    rows.add(null);
+    CacheKey key = new CacheKey(new Object[] { "selectAuthors", 0, Integer.MAX_VALUE, "select * from author" });
+    cache.putObject(key, rows);
+
+    @SuppressWarnings("unchecked")
+    List<Object> copy = (List<Object>) cache.getObject(key);
+    assertNotSame(rows, copy);
+    assertEquals(rows.get(0), copy.get(0));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> rowCopy = (Map<String, Object>) copy.get(1);
+    assertEquals(102L, rowCopy.get("ID"));
+    assertEquals(new BigDecimal("19.99"), rowCopy.get("PRICE"));
+    assertEquals(row.get("CREATED"), rowCopy.get("CREATED"));
+    assertEquals(row.get("UPDATED"), rowCopy.get("UPDATED"));
+    assertArrayEquals((byte[]) row.get("DATA"), (byte[]) rowCopy.get("DATA"));
+    assertNull(copy.get(2));
+  }
+
+  @Test
+  void shouldPreserveSharedAndCyclicReferences() {
+    OffHeapCache cache = new OffHeapCache("default");
+    Author author = new Author(101);
+    List<Object> rows = new ArrayList<>(Arrays.asList(author, author));
+    rows.add(rows);
+    cache.putObject(0, rows);
+
+    List<?> copy = (List<?>) cache.getObject(0);
+    assertSame(copy.get(0), copy.get(1));
+    assertSame(copy, copy.get(2));
+  }
+
+  @Test
+  void shouldFindEqualKeys() {
+    OffHeapCache cache = new OffHeapCache("default");
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 101);
+    parameter.put("name", "jim");
+    CacheKey key = new CacheKey(new Object[] { "selectAuthor", parameter, parameter });
+    cache.putObject(key, "cached");
+    Map<String, Object> equalParameter = new HashMap<>(64);
+    equalParameter.put("name", new String("jim"));
+    equalParameter.put("id", 101);
+    CacheKey equalKey = new CacheKey(new Object[] { "selectAuthor", equalParameter, new HashMap<>(parameter) });
+    assertEquals(key, equalKey);
+    assertEquals("cached", cache.getObject(equalKey));
+    cache.removeObject(equalKey);
+    assertNull(cache.getObject(key));
+  }
+
+  @Test
+  void shouldFallBackToJavaSerialization() {
+    OffHeapCache cache = new OffHeapCache("default");
+    List<String> fixed = Arrays.asList("a", "b");
+    cache.putObject(0, fixed);
+    assertEquals(fixed, cache.getObject(0));
+    assertThrows(CacheException.class, () -> cache.putObject(1, new Object()));
+  }
+
+  @Test
+  void shouldEvictOldestEntriesWhenFull() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setMaxBytes(64 * 1024);
+    char[] chars = new char[500];
+    Arrays.fill(chars, 'x');
+    String value = new String(chars);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(i, value);
+      assertEquals(value, cache.getObject(i));
+    }
+    assertTrue(cache.getSize() < 1000);
+    assertTrue(cache.getSize() > 50);
+    assertNull(cache.getObject(0));
+    assertEquals(value, cache.getObject(999));
+  }
+
+  @Test
+  void shouldNotExceedMaximumSize() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(i, i);
+    }
+    assertTrue(cache.getSize() <= 100);
+    assertEquals(999, cache.getObject(999));
+  }
+
+  @Test
+  void shouldReplaceItem() {
+    Cache cache = new OffHeapCache("default");
+    cache.putObject(0, "a");
+    cache.putObject(0, "b");
+    assertEquals("b", cache.getObject(0));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new OffHeapCache("default");
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    cache.removeObject(50);
+    assertNull(cache.getObject(50));
+    assertEquals(99, cache.getSize());
+    for (int i = 0; i < 100; i++) {
+      if (i != 50) {
+        assertEquals(i, cache.getObject(i));
+      }
+    }
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new OffHeapCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getSize());
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+  }
+
+  @Test
+  void shouldStoreEntriesInMappedFile() throws Exception {
+    File file = File.createTempFile("mybatis-offheap", ".cache");
+    file.deleteOnExit();
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setFile(file.getAbsolutePath());
+    cache.setMaxBytes(1024 * 1024);
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, "value " + i);
+    }
+    assertEquals(1024 * 1024, file.length());
+    assertEquals("value 42", cache.getObject(42));
+  }
+
+  @Test
+  void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setMaxBytes(256 * 1024);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int seed = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 20000; i++) {
+            int key = (i * 31 + seed) % 4096;
+            Object value = cache.getObject(key);
+            if (value == null) {
+              cache.putObject(key, "value " + key);
+            } else {
+              assertEquals("value " + key, value);
+            }
+            if (i % 1000 == 0) {
+              cache.removeObject(key);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    cache.putObject(-1, -1);
+    assertEquals(-1, cache.getObject(-1));
+  }
+
+}
@@ -0,0 +1,184 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.serializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.junit.jupiter.api.Test;
+
+class CompactSerializerTest {
+
+  private final Serializer serializer = new CompactSerializer();
+
+  @Test
+  void shouldCopyScalars() {
+    List<Object> values = Arrays.asList(null, true, 'c', (byte) -1, (short) 300, -7, Long.MIN_VALUE, 1.5f, Math.PI,
+        new BigInteger("-123456789012345678901234567890"), new Date(86400000L), new Time(3600000L),
+        new java.util.Date(1234L), LocalDate.of(2019, 12, 31), LocalTime.of(23, 59, 59, 999), Instant.ofEpochSecond(-1, 5),
+        "café 😀", Section.VIDEOS, int.class, String.class);
+    for (Object value : values) {
+      assertEquals(value, copy(value));
+    }
+  }
+
+  @Test
+  void shouldCopyCollectionsKeepingTheirOrder() {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("b", 1);
+    row.put("a", Arrays.asList("x", "y").toArray(new String[0]));
+    Set<Integer> ids = new LinkedHashSet<>(Arrays.asList(3, 1, 2));
+    row.put("ids", ids);
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> copy = (Map<String, Object>) copy(row);
+    assertEquals(LinkedHashMap.class, copy.getClass());
+    assertEquals(Arrays.asList("b", "a", "ids"), new ArrayList<>(copy.keySet()));
+    assertArrayEquals(new String[] { "x", "y" }, (String[]) copy.get("a"));
+    assertEquals(Arrays.asList(3, 1, 2), new ArrayList<>((Set<?>) copy.get("ids")));
+  }
+
+  @Test
+  void shouldCopyBeansFieldByField() {
+    Bean bean = new Bean();
+    bean.number = 42;
+    bean.ratio = 0.25;
+    bean.flag = true;
+    bean.letter = 'z';
+    bean.author = new Author(101, "jim", "********", "jim@ibatis.apache.org", "Something...", Section.NEWS);
+    bean.cache = "not copied";
+
+    Bean copy = (Bean) copy(bean);
+    assertEquals(42, copy.number);
+    assertEquals(0.25, copy.ratio);
+    assertTrue(copy.flag);
+    assertEquals('z', copy.letter);
+    assertEquals(bean.author, copy.author);
+    assertNull(copy.cache);
+  }
+
+  @Test
+  void shouldFallBackToJavaSerialization() {
+    List<String> unmodifiable = Collections.unmodifiableList(Arrays.asList("a", "b"));
+    assertEquals(unmodifiable, copy(unmodifiable));
+    CustomBean custom = new CustomBean();
+    custom.value = "v";
+    assertEquals("v!", ((CustomBean) copy(custom)).value);
+  }
+
+  @Test
+  void shouldRejectNonSerializableObjects() {
+    assertThrows(CacheException.class, () -> serializer.serialize(new Object()));
+  }
+
+  @Test
+  void shouldBeSmallerThanJavaSerialization() {
+    List<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      authors.add(new Author(i, "user" + i, "********", "user" + i + "@ibatis.apache.org", "bio", Section.NEWS));
+    }
+    assertTrue(serializer.serialize(authors).length < new JavaSerializer().serialize(authors).length);
+  }
+
+  @Test
+  void shouldCopyResultsOfSerializedCache() {
+    Cache cache = new SerializedCache(new PerpetualCache("default"), serializer);
+    Author author = new Author(101);
+    cache.putObject(0, author);
+    Object copy = cache.getObject(0);
+    assertNotSame(author, copy);
+    assertEquals(author, copy);
+  }
+
+  private Object copy(Object value) {
+    return serializer.deserialize(serializer.serialize(value));
+  }
+
+  static class Bean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    int number;
+    double ratio;
+    boolean flag;
+    char letter;
+    Author author;
+    transient String cache;
+  }
+
+  @Test
+  void shouldEncodeEqualKeysToEqualBytes() {
+    CompactSerializer compact = new CompactSerializer();
+    Map<String, Object> small = new HashMap<>();
+    Map<String, Object> large = new HashMap<>(1024);
+    Set<String> tags = new HashSet<>(Arrays.asList("x", "y", "z"));
+    for (int i = 0; i < 100; i++) {
+      small.put("key" + i, i);
+      large.put("key" + (99 - i), 99 - i);
+    }
+    small.put("tags", tags);
+    large.put("tags", new HashSet<>(Arrays.asList("z", "y", "x")));
+    assertEquals(small, large);
+    assertArrayEquals(compact.serializeKey(small), compact.serializeKey(large));
+    assertEquals(small, compact.deserialize(compact.serializeKey(small)));
+
+    String shared = new String("shared");
+    List<Object> sharing = Arrays.asList(shared, shared);
+    List<Object> distinct = Arrays.asList(new String("shared"), new String("shared"));
+    assertArrayEquals(compact.serializeKey(sharing), compact.serializeKey(distinct));
+    assertEquals(distinct, compact.deserialize(compact.serializeKey(sharing)));
+  }
+
+  @Test
+  void shouldRejectCyclicKeys() {
+    List<Object> cyclic = new ArrayList<>();
+    cyclic.add(cyclic);
+    assertThrows(CacheException.class, () -> new CompactSerializer().serializeKey(cyclic));
+  }
+
+  static class CustomBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    String value;
+
+    private Object readResolve() {
+      CustomBean resolved = new CustomBean();
+      resolved.value = value + "!";
+      return resolved;
+    }
+  }
+
+}
@@ -0,0 +1,221 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.junit.jupiter.api.Test;
+
+class PoolMaintainerTest {
+
+  @Test
+  void shouldOpenMinimumIdleConnections() throws Exception {
+    shouldOpenMinimumIdleConnections(new PooledDataSource());
+    shouldOpenMinimumIdleConnections(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldOpenMinimumIdleConnections(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolMinimumIdleConnections(3);
+      ds.maintainIdleConnections();
+      assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotOpenMoreThanMaximumActiveConnections() throws Exception {
+    shouldNotOpenMoreThanMaximumActiveConnections(new PooledDataSource());
+    shouldNotOpenMoreThanMaximumActiveConnections(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldNotOpenMoreThanMaximumActiveConnections(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolMaximumActiveConnections(2);
+      ds.setPoolMinimumIdleConnections(3);
+      Connection c = ds.getConnection();
+      ds.maintainIdleConnections();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseConnectionsIdleForTooLongDownToMinimum() throws Exception {
+    shouldCloseConnectionsIdleForTooLongDownToMinimum(new PooledDataSource());
+    shouldCloseConnectionsIdleForTooLongDownToMinimum(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldCloseConnectionsIdleForTooLongDownToMinimum(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolMaximumIdleTime(10);
+      ds.setPoolMinimumIdleConnections(1);
+      checkOutAndReturn(ds, 3);
+      assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+      Thread.sleep(50);
+      ds.maintainIdleConnections();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldReplaceConnectionsPastMaximumLifetime() throws Exception {
+    shouldReplaceConnectionsPastMaximumLifetime(new PooledDataSource());
+    shouldReplaceConnectionsPastMaximumLifetime(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldReplaceConnectionsPastMaximumLifetime(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolMaximumLifetime(10);
+      ds.setPoolMinimumIdleConnections(1);
+      Connection c = ds.getConnection();
+      Connection realConnection = PooledDataSource.unwrapConnection(c);
+      c.close();
+      Thread.sleep(50);
+      ds.setPoolMaximumLifetime(10000);
+      ds.maintainIdleConnections();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+      assertFalse(realConnection.isClosed());
+      ds.setPoolMaximumLifetime(10);
+      ds.maintainIdleConnections();
+      assertTrue(realConnection.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldPingIdleConnectionsSoThatCheckoutDoesNotHaveTo() throws Exception {
+    shouldPingIdleConnectionsSoThatCheckoutDoesNotHaveTo(new PooledDataSource());
+    shouldPingIdleConnectionsSoThatCheckoutDoesNotHaveTo(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldPingIdleConnectionsSoThatCheckoutDoesNotHaveTo(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+      ds.setPoolPingConnectionsNotUsedFor(10);
+      checkOutAndReturn(ds, 1);
+      Thread.sleep(50);
+      ds.maintainIdleConnections();
+      Connection c = ds.getConnection();
+      PooledConnection pooledConnection = unwrapPooledConnection(c);
+      assertNotEquals(0, pooledConnection.getLastValidatedTimestamp());
+      assertFalse(ds.isPingDue(pooledConnection));
+      c.close();
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldDiscardIdleConnectionsThatFailThePing() throws Exception {
+    shouldDiscardIdleConnectionsThatFailThePing(new PooledDataSource());
+    shouldDiscardIdleConnectionsThatFailThePing(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldDiscardIdleConnectionsThatFailThePing(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+      ds.setPoolPingConnectionsNotUsedFor(0);
+      Connection c = ds.getConnection();
+      Connection realConnection = PooledDataSource.unwrapConnection(c);
+      c.close();
+      realConnection.close();
+      Thread.sleep(10);
+      ds.maintainIdleConnections();
+      assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(1, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldStartMaintainerOnFirstCheckout() throws Exception {
+    shouldStartMaintainerOnFirstCheckout(new PooledDataSource());
+    shouldStartMaintainerOnFirstCheckout(new ConcurrentPooledDataSource());
+  }
+
+  private void shouldStartMaintainerOnFirstCheckout(PooledDataSource ds) throws Exception {
+    configure(ds);
+    try {
+      ds.setPoolMinimumIdleConnections(2);
+      ds.setPoolMaintenanceInterval(10);
+      Thread.sleep(50);
+      assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+      ds.getConnection().close();
+      long deadline = System.currentTimeMillis() + 5000;
+      while (ds.getPoolState().getIdleConnectionCount() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      // the minimum only counts idle connections, so the maintainer may top up the pool while the connection is
+      // still checked out, which then adds exactly one more idle connection
+      int idle = ds.getPoolState().getIdleConnectionCount();
+      assertTrue(idle == 2 || idle == 3, "idle connections: " + idle);
+      assertTrue(idle <= ds.getPoolMaximumIdleConnections());
+    } finally {
+      ds.setPoolMaintenanceInterval(0);
+      ds.forceCloseAll();
+    }
+  }
+
+  private void checkOutAndReturn(PooledDataSource ds, int count) throws Exception {
+    List<Connection> connections = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      connections.add(ds.getConnection());
+    }
+    for (Connection c : connections) {
+      c.close();
+    }
+  }
+
+  private PooledConnection unwrapPooledConnection(Connection c) {
+    return (PooledConnection) Proxy.getInvocationHandler(c);
+  }
+
+  private void configure(PooledDataSource ds) throws Exception {
+    Properties props = Resources.getResourceAsProperties(BaseDataTest.JPETSTORE_PROPERTIES);
+    ds.setDriver(props.getProperty("driver"));
+    ds.setUrl(props.getProperty("url"));
+    ds.setUsername(props.getProperty("username"));
+    ds.setPassword(props.getProperty("password"));
+  }
+
+}
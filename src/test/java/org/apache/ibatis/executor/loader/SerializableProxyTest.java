@@ -27,6 +27,7 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.executor.ExecutorException;
@@ -176,6 +177,44 @@ public abstract class SerializableProxyTest {
     assertEquals(999, author2.getId());
   }
 
+  @Test
+  void shouldSerializeAProxyWithTheConfiguredSerializer() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setSerializer(new CompactSerializer());
+    ResultLoaderMap loader = new ResultLoaderMap();
+    loader.addLoader("id", null, null);
+    Object proxy = proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    Author author2 = (Author) deserialize(serialize(deserialize(serialize((Serializable) proxy))));
+    assertEquals(author.getUsername(), author2.getUsername());
+    Assertions.assertThrows(ExecutorException.class, author2::getId);
+  }
+
+  @Test
+  void shouldSerializeAProxyWithoutDefaultConstructorWithTheConfiguredSerializer() throws Exception {
+    AuthorWithoutDefaultConstructor author = new AuthorWithoutDefaultConstructor(999, "someone", "!@#@!#!@#", "someone@somewhere.com", "blah", Section.NEWS);
+    ArrayList<Class<?>> argTypes = new ArrayList<>();
+    argTypes.add(Integer.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(Section.class);
+    ArrayList<Object> argValues = new ArrayList<>();
+    argValues.add(999);
+    argValues.add("someone");
+    argValues.add("!@#@!#!@#");
+    argValues.add("someone@somewhere.com");
+    argValues.add("blah");
+    argValues.add(Section.NEWS);
+    Configuration configuration = new Configuration();
+    configuration.setSerializer(new CompactSerializer());
+    ResultLoaderMap loader = new ResultLoaderMap();
+    loader.addLoader("id", null, null);
+    Object proxy = proxyFactory.createProxy(author, loader, configuration, new DefaultObjectFactory(), argTypes, argValues);
+    Object proxy2 = deserialize(serialize((Serializable) proxy));
+    assertEquals(author, proxy2);
+  }
+
   byte[] serialize(Serializable value) throws Exception {
     try(ByteArrayOutputStream bos = new ByteArrayOutputStream();
         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
@@ -18,11 +18,22 @@ package org.apache.ibatis.mapping;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.cache.serializer.CompactSerializer;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
 import static org.assertj.core.api.BDDAssertions.then;
@@ -43,11 +54,85 @@ class CacheBuilderTest {
       .hasMessage("Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
-  @SuppressWarnings("unchecked")
+  @Test
+  void shouldNotSynchronizeTinyLfuCache() {
+    Cache cache = new CacheBuilder("test").implementation(TinyLfuCache.class).addDecorator(LruCache.class).size(10).build();
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    TinyLfuCache tinyLfuCache = unwrap(cache);
+    for (int i = 0; i < 20; i++) {
+      tinyLfuCache.putObject(i, i);
+    }
+    Assertions.assertThat(tinyLfuCache.getSize()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldCountConcurrentRequestsOfTinyLfuCache() throws Exception {
+    Cache cache = new CacheBuilder("test").implementation(TinyLfuCache.class).size(100).clearInterval(3600000L).build();
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(i, i);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            cache.getObject(i % 20);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    Assertions.assertThat((Object) unwrap(cache, "requests")).isEqualTo(80000);
+    Assertions.assertThat((Object) unwrap(cache, "hits")).isEqualTo(40000);
+  }
+
+  @Test
+  void shouldReplacePerpetualCacheWithTinyLfuEviction() {
+    Cache cache = new CacheBuilder("test").implementation(PerpetualCache.class).addDecorator(TinyLfuCache.class)
+      .readWrite(true).build();
+
+    Cache serializedCache = unwrap(cache);
+    Assertions.assertThat(serializedCache).isInstanceOf(SerializedCache.class);
+    Assertions.assertThat((Object) unwrap(serializedCache)).isInstanceOf(TinyLfuCache.class);
+  }
+
+  @Test
+  void shouldNotSerializeOrSynchronizeOffHeapCache() {
+    Cache cache = new CacheBuilder("test").implementation(OffHeapCache.class).readWrite(true).size(10).build();
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    OffHeapCache offHeapCache = unwrap(cache);
+    for (int i = 0; i < 20; i++) {
+      offHeapCache.putObject(i, i);
+    }
+    Assertions.assertThat(offHeapCache.getSize()).isLessThanOrEqualTo(10);
+  }
+
+  @Test
+  void shouldCopyReadWriteCacheResultsWithTheSerializer() {
+    Cache cache = new CacheBuilder("test").readWrite(true).serializer(new CompactSerializer()).build();
+    Cache serializedCache = unwrap(unwrap(cache));
+    Assertions.assertThat(serializedCache).isInstanceOf(SerializedCache.class);
+    Assertions.assertThat((Object) unwrap(serializedCache, "serializer")).isInstanceOf(CompactSerializer.class);
+  }
+
   private <T> T unwrap(Cache cache) {
+    return unwrap(cache, "delegate");
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T unwrap(Cache cache, String fieldName) {
     Field field;
     try {
-      field = cache.getClass().getDeclaredField("delegate");
+      field = cache.getClass().getDeclaredField(fieldName);
     } catch (NoSuchFieldException e) {
       throw new IllegalStateException(e);
     }
@@ -17,7 +17,12 @@ package org.apache.ibatis.plugin;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +43,119 @@ class PluginTest {
     assertNotEquals("Always", map.toString());
   }
 
+  @Test
+  void shouldComposeInterceptorsLikeNestedPlugins() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new TracingPlugin("a", calls));
+    chain.addInterceptor(new TracingPlugin("b", calls));
+    chain.addInterceptor(new CustomPlugin(calls));
+    chain.addInterceptor(new TracingPlugin("c", calls));
+    Map<String, String> target = new HashMap<>();
+    target.put("key", "value");
+    @SuppressWarnings("unchecked")
+    Map<String, String> map = (Map<String, String>) chain.pluginAll(target);
+
+    assertEquals("value", map.get("key"));
+    assertEquals(Arrays.asList("c", "custom", "b", "a"), calls);
+    calls.clear();
+    assertEquals(1, map.size());
+    assertEquals(Collections.singletonList("custom"), calls);
+    assertEquals(target.toString(), map.toString());
+
+    // the target of an invocation goes through the remaining interceptors
+    calls.clear();
+    TracingPlugin outer = new TracingPlugin("outer", calls);
+    InterceptorChain other = new InterceptorChain();
+    other.addInterceptor(new TracingPlugin("inner", calls));
+    other.addInterceptor(outer);
+    @SuppressWarnings("unchecked")
+    Map<String, String> wrapped = (Map<String, String>) other.pluginAll(target);
+    wrapped.get("key");
+    assertEquals(Arrays.asList("outer", "inner"), calls);
+    calls.clear();
+    assertEquals("value", ((Map<?, ?>) outer.lastTarget).get("key"));
+    assertEquals(Collections.singletonList("inner"), calls);
+  }
+
+  @Test
+  void shouldWrapTargetExceptionsInComposedChain() {
+    InterceptorChain chain = new InterceptorChain();
+    List<Throwable> caught = new ArrayList<>();
+    chain.addInterceptor(new RethrowingPlugin(caught));
+    chain.addInterceptor(new RethrowingPlugin(caught));
+    @SuppressWarnings("unchecked")
+    Map<String, String> map = (Map<String, String>) chain.pluginAll(Collections.emptyMap());
+    assertThrows(UnsupportedOperationException.class, () -> map.put("key", "value"));
+    assertEquals(2, caught.size());
+    for (Throwable t : caught) {
+      assertTrue(t instanceof InvocationTargetException);
+      assertTrue(t.getCause() instanceof UnsupportedOperationException);
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class TracingPlugin implements Interceptor {
+    private final String name;
+    private final List<String> calls;
+    private Object lastTarget;
+
+    TracingPlugin(String name, List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name);
+      lastTarget = invocation.getTarget();
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class}),
+      @Signature(type = Map.class, method = "size", args = {})})
+  public static class CustomPlugin implements Interceptor {
+    private final List<String> calls;
+
+    CustomPlugin(List<String> calls) {
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add("custom");
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "put", args = {Object.class, Object.class})})
+  public static class RethrowingPlugin implements Interceptor {
+    private final List<Throwable> caught;
+
+    RethrowingPlugin(List<Throwable> caught) {
+      this.caught = caught;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      try {
+        return invocation.proceed();
+      } catch (InvocationTargetException e) {
+        caught.add(e);
+        throw e;
+      }
+    }
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
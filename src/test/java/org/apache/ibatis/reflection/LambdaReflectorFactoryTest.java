@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.junit.jupiter.api.Test;
+
+class LambdaReflectorFactoryTest {
+
+  @Test
+  void shouldGetAndSetThroughLambdas() throws Exception {
+    Reflector reflector = new LambdaReflectorFactory().findForClass(Bean.class);
+    Bean bean = new Bean();
+    Invoker setName = reflector.getSetInvoker("name");
+    Invoker setAge = reflector.getSetInvoker("age");
+    assertTrue(setName instanceof LambdaMethodInvoker);
+    assertTrue(setAge instanceof LambdaMethodInvoker);
+    setName.invoke(bean, new Object[] { "foo" });
+    setAge.invoke(bean, new Object[] { 3 });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, null));
+    assertEquals(3, reflector.getGetInvoker("age").invoke(bean, null));
+    assertEquals(int.class, reflector.getGetInvoker("age").getType());
+  }
+
+  @Test
+  void shouldFallBackToReflectionForInaccessibleMembers() throws Exception {
+    Reflector reflector = new LambdaReflectorFactory().findForClass(HiddenBean.class);
+    HiddenBean bean = new HiddenBean();
+    Invoker setter = reflector.getSetInvoker("value");
+    assertEquals(MethodInvoker.class, setter.getClass());
+    setter.invoke(bean, new Object[] { "bar" });
+    assertEquals("bar", reflector.getGetInvoker("value").invoke(bean, null));
+  }
+
+  @Test
+  void shouldWrapExceptionsLikeReflection() {
+    Reflector reflector = new LambdaReflectorFactory().findForClass(Bean.class);
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getGetInvoker("broken").invoke(new Bean(), null));
+    assertTrue(e.getTargetException() instanceof IllegalStateException);
+  }
+
+  @Test
+  void shouldRejectInvalidArgumentsLikeReflection() throws Exception {
+    Reflector reflector = new LambdaReflectorFactory().findForClass(Bean.class);
+    Invoker setName = reflector.getSetInvoker("name");
+    Invoker setAge = reflector.getSetInvoker("age");
+    assertThrows(IllegalArgumentException.class, () -> setName.invoke(new Bean(), new Object[] { 3 }));
+    assertThrows(IllegalArgumentException.class, () -> setAge.invoke(new Bean(), new Object[] { "3" }));
+    assertThrows(IllegalArgumentException.class, () -> setAge.invoke(new Bean(), new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getGetInvoker("name").invoke("bean", null));
+    Bean bean = new Bean();
+    setName.invoke(bean, new Object[] { null });
+    assertNull(bean.getName());
+  }
+
+  @Test
+  void shouldCacheReflectors() {
+    ReflectorFactory reflectorFactory = new LambdaReflectorFactory();
+    assertSame(reflectorFactory.findForClass(Bean.class), reflectorFactory.findForClass(Bean.class));
+    reflectorFactory.setClassCacheEnabled(false);
+    assertNotSame(reflectorFactory.findForClass(Bean.class), reflectorFactory.findForClass(Bean.class));
+  }
+
+  public static class Bean {
+    private String name;
+    private int age;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    public String getBroken() {
+      throw new IllegalStateException();
+    }
+  }
+
+  static class HiddenBean {
+    private String value;
+
+    String getValue() {
+      return value;
+    }
+
+    void setValue(String value) {
+      this.value = value;
+    }
+  }
+
+}
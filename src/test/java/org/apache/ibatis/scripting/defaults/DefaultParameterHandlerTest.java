@@ -18,11 +18,16 @@ package org.apache.ibatis.scripting.defaults;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.ibatis.binding.IndexedParamMap;
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
@@ -36,6 +41,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +76,82 @@ class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  void shouldSetParametersWithResolvedBinding() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    List<ParameterMapping> parameterMappings = Arrays.asList(
+        new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build(),
+        new ParameterMapping.Builder(config, "username", registry.getTypeHandler(String.class)).build(),
+        new ParameterMapping.Builder(config, "favouriteSection.name", registry.getTypeHandler(String.class)).build());
+    BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, null);
+
+    for (int i = 0; i < 3; i++) {
+      Author author = new Author(i, "user" + i, null, null, null, Section.NEWS);
+      PreparedStatement ps = mock(PreparedStatement.class);
+      new DefaultParameterHandler(mappedStatement, author, boundSql).setParameters(ps);
+      verify(ps).setInt(1, i);
+      verify(ps).setString(2, "user" + i);
+      verify(ps).setString(3, "NEWS");
+    }
+    Assertions.assertNotNull(ParameterBinding.forStatement(mappedStatement, parameterMappings, new Author()));
+
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 7);
+    param.put("username", null);
+    param.put("favouriteSection", Section.IMAGES);
+    for (int i = 0; i < 3; i++) {
+      PreparedStatement ps = mock(PreparedStatement.class);
+      new DefaultParameterHandler(mappedStatement, param, boundSql).setParameters(ps);
+      verify(ps).setInt(1, 7);
+      verify(ps).setNull(2, JdbcType.OTHER.TYPE_CODE);
+      verify(ps).setString(3, "IMAGES");
+    }
+
+    IndexedParamMap.Layout layout = new IndexedParamMap.Layout(
+        new String[] { "id", "param1", "username", "param2", "favouriteSection", "param3" }, new int[] { 0, 0, 1, 1, 2, 2 });
+    for (int i = 0; i < 3; i++) {
+      PreparedStatement ps = mock(PreparedStatement.class);
+      Object[] args = { i, "user" + i, Section.VIDEOS };
+      new DefaultParameterHandler(mappedStatement, new IndexedParamMap(layout, args), boundSql).setParameters(ps);
+      verify(ps).setInt(1, i);
+      verify(ps).setString(2, "user" + i);
+      verify(ps).setString(3, "VIDEOS");
+    }
+  }
+
+  @Test
+  void shouldKeepBindingsOfAlternatingShapes() {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    List<ParameterMapping> byId = Collections.singletonList(
+        new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build());
+    List<ParameterMapping> byName = Collections.singletonList(
+        new ParameterMapping.Builder(config, "username", registry.getTypeHandler(String.class)).build());
+    Map<String, Object> param = new HashMap<>();
+
+    // 两种形状和两种参数类型交替出现，第二次遇到时都能得到解析好的计划
+    Assertions.assertNull(ParameterBinding.forStatement(mappedStatement, byId, new Author()));
+    Assertions.assertNull(ParameterBinding.forStatement(mappedStatement, byName, new Author()));
+    Assertions.assertNull(ParameterBinding.forStatement(mappedStatement, byId, param));
+    ParameterBinding idBinding = ParameterBinding.forStatement(mappedStatement, byId, new Author());
+    Assertions.assertNotNull(idBinding);
+    ParameterBinding nameBinding = ParameterBinding.forStatement(mappedStatement, byName, new Author());
+    Assertions.assertNotNull(nameBinding);
+    Assertions.assertNotNull(ParameterBinding.forStatement(mappedStatement, byId, param));
+    Assertions.assertSame(idBinding, ParameterBinding.forStatement(mappedStatement, byId, new Author()));
+    Assertions.assertSame(nameBinding, ParameterBinding.forStatement(mappedStatement, byName, new Author()));
+
+    // 每次都生成新 ParameterMapping 的 SQL 不会挤掉已解析的计划
+    for (int i = 0; i < 100; i++) {
+      Assertions.assertNull(ParameterBinding.forStatement(mappedStatement, new ArrayList<>(byId), new Author()));
+    }
+    Assertions.assertSame(idBinding, ParameterBinding.forStatement(mappedStatement, byId, new Author()));
+    Assertions.assertSame(nameBinding, ParameterBinding.forStatement(mappedStatement, byName, new Author()));
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
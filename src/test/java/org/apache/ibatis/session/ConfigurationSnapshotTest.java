@@ -0,0 +1,272 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BoundAuthorMapper;
+import org.apache.ibatis.binding.BoundBlogMapper;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Post;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigurationSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeAll
+  static void setup() throws Exception {
+    BaseDataTest.createBlogDataSource();
+  }
+
+  @Test
+  void shouldLoadMappersFromSnapshot() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    Configuration parsed = build(file, "1");
+    assertTrue(file.isFile());
+    Configuration loaded = build(file, "1");
+
+    // 从快照加载时不解析 XML，也就没有 SQL 片段
+    assertFalse(parsed.getSqlFragments().isEmpty());
+    assertTrue(loaded.getSqlFragments().isEmpty());
+    assertEquals(new HashSet<>(parsed.getMappedStatementNames()), new HashSet<>(loaded.getMappedStatementNames()));
+    assertEquals(new HashSet<>(parsed.getResultMapNames()), new HashSet<>(loaded.getResultMapNames()));
+    assertEquals(new HashSet<>(parsed.getParameterMapNames()), new HashSet<>(loaded.getParameterMapNames()));
+    assertEquals(new HashSet<>(parsed.getKeyGeneratorNames()), new HashSet<>(loaded.getKeyGeneratorNames()));
+    assertEquals(new HashSet<>(parsed.getCacheNames()), new HashSet<>(loaded.getCacheNames()));
+    assertEquals(new HashSet<>(parsed.getMapperRegistry().getMappers()), new HashSet<>(loaded.getMapperRegistry().getMappers()));
+
+    MappedStatement statement = loaded.getMappedStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor");
+    assertSame(loaded, statement.getConfiguration());
+    assertSame(loaded.getResultMap("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor"), statement.getResultMaps().get(0));
+    assertNotNull(statement.getStatementLog());
+    MappedStatement cached = loaded.getMappedStatement("org.apache.ibatis.builder.CachedAuthorMapper.selectAllAuthors");
+    assertSame(loaded.getCache("org.apache.ibatis.builder.CachedAuthorMapper"), cached.getCache());
+    assertNotSame(parsed.getCache("org.apache.ibatis.builder.CachedAuthorMapper"), cached.getCache());
+    ResultMap resultMap = statement.getResultMaps().get(0);
+    assertSame(loaded.getTypeHandlerRegistry().getTypeHandler(String.class),
+        resultMap.getResultMappings().stream().filter(m -> "username".equals(m.getProperty())).findFirst().get().getTypeHandler());
+
+    for (Configuration configuration : Arrays.asList(parsed, loaded)) {
+      SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+      try (SqlSession session = factory.openSession()) {
+        Author author = session.selectOne("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor", 101);
+        assertEquals("jim", author.getUsername());
+        assertEquals(Section.NEWS, author.getFavouriteSection());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("ids", Arrays.asList(1, 2, 3));
+        params.put("blog_id", 1);
+        List<Post> posts = session.selectList("org.apache.ibatis.domain.blog.mappers.PostMapper.findPost", params);
+        assertEquals(2, posts.size());
+        assertEquals(3, session.<Post>selectList("org.apache.ibatis.domain.blog.mappers.PostMapper.selectPostIn",
+            Arrays.asList(1, 3, 5)).size());
+
+        Blog blog = session.selectOne("org.apache.ibatis.domain.blog.mappers.BlogMapper.selectBlogJoinedWithPostsAndAuthor", 1);
+        assertEquals(2, blog.getPosts().size());
+        assertEquals("jim", blog.getAuthor().getUsername());
+
+        assertEquals(2, session.getMapper(BoundBlogMapper.class).selectBlogsUsingProvider().size());
+        BoundAuthorMapper authorMapper = session.getMapper(BoundAuthorMapper.class);
+        Author inserted = new Author(-1, "cbegin", "******", "cbegin@nowhere.com", "N/A", Section.NEWS);
+        assertEquals(1, authorMapper.insertAuthor(inserted));
+        assertTrue(inserted.getId() != -1);
+        session.rollback();
+      }
+    }
+  }
+
+  @Test
+  void shouldParseMappersWhenSourcesChanged() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    build(file, "1");
+    // 变量不同，快照过期
+    Configuration changed = build(file, "2");
+    assertFalse(changed.getSqlFragments().isEmpty());
+    Configuration loaded = build(file, "2");
+    assertTrue(loaded.getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldParseMappersWhenSnapshotIsCorrupt() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    Files.write(file.toPath(), "not a snapshot".getBytes(StandardCharsets.UTF_8));
+    Configuration configuration = build(file, "1");
+    assertFalse(configuration.getSqlFragments().isEmpty());
+    assertTrue(build(file, "1").getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldParseMappersWhenSnapshotBodyIsChanged() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    build(file, "1");
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file.toPath(), bytes);
+    assertFalse(build(file, "1").getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldNotDeserializeClassesMissingFromTheHeader() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    build(file, "1");
+    // 去掉文件头中的类，内容和其摘要不变
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file));
+        DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(in.readInt());
+      out.writeInt(in.readInt());
+      out.writeUTF(in.readUTF());
+      int classCount = in.readInt();
+      assertTrue(classCount > 0);
+      for (int i = 0; i < classCount; i++) {
+        in.readUTF();
+        in.readUTF();
+      }
+      out.writeInt(0);
+      out.writeUTF(in.readUTF());
+      byte[] body = new byte[in.readInt()];
+      in.readFully(body);
+      out.writeInt(body.length);
+      out.write(body);
+    }
+    Files.write(file.toPath(), bytes.toByteArray());
+    assertFalse(build(file, "1").getSqlFragments().isEmpty());
+  }
+
+  @Test
+  void shouldNotDeserializeClassesOutsideTheAllowedList() throws Exception {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    build(file, "1");
+    // 文件头列出类和其真实的摘要，内容换成这个类的对象并重新计算摘要，仍然不能反序列化
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(body)) {
+      out.writeObject(new Gadget());
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file));
+        DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(in.readInt());
+      out.writeInt(in.readInt());
+      out.writeUTF(in.readUTF());
+      int classCount = in.readInt();
+      out.writeInt(classCount + 1);
+      for (int i = 0; i < classCount; i++) {
+        out.writeUTF(in.readUTF());
+        out.writeUTF(in.readUTF());
+      }
+      out.writeUTF(Gadget.class.getName());
+      try (InputStream classFile = Resources.getResourceAsStream(Gadget.class.getName().replace('.', '/') + ".class")) {
+        out.writeUTF(sha256(readAll(classFile)));
+      }
+      out.writeUTF(sha256(body.toByteArray()));
+      out.writeInt(body.size());
+      body.writeTo(out);
+    }
+    Files.write(file.toPath(), bytes.toByteArray());
+    assertFalse(build(file, "1").getSqlFragments().isEmpty());
+    assertFalse(Gadget.deserialized);
+  }
+
+  @Test
+  void shouldNotWriteCachesWithoutBuilder() {
+    File file = tempDir.resolve("mappers.snapshot").toFile();
+    Configuration configuration = new Configuration();
+    configuration.addCache(new PerpetualCache("custom"));
+    ConfigurationSnapshot snapshot = new ConfigurationSnapshot(configuration, file);
+    snapshot.addSource("custom");
+    assertFalse(snapshot.store());
+    assertFalse(file.exists());
+    assertFalse(new ConfigurationSnapshot(new Configuration(), file).load());
+  }
+
+  private static String sha256(byte[] bytes) throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  private static byte[] readAll(InputStream in) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) > 0) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static Configuration build(File file, String version) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("snapshot", file.getPath());
+    properties.setProperty("version", version);
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/session/SnapshotMapperConfig.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader, properties).getConfiguration();
+    }
+  }
+
+  static class Gadget implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static boolean deserialized;
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      deserialized = true;
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConfigurationTest {
+
+  @Test
+  void shouldHandleNullKeysLikeHashMap() {
+    Map<String, String> map = new Configuration.StrictMap<>("Test collection");
+    map.put("a.b", "value");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> map.get(null));
+    assertEquals("Test collection does not contain value for null", e.getMessage());
+    assertFalse(map.containsKey(null));
+    assertEquals("default", map.getOrDefault(null, "default"));
+    assertNull(map.remove(null));
+    assertFalse(map.remove(null, "value"));
+    assertFalse(map.containsValue(null));
+    assertTrue(map.containsValue("value"));
+    assertFalse(new Configuration().hasStatement(null));
+  }
+
+  @Test
+  void shouldRejectNullValues() {
+    Map<String, String> map = new Configuration.StrictMap<>("Test collection");
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> map.put("a.b", null));
+    assertEquals("Test collection can not contain a null value for a.b", e.getMessage());
+    assertTrue(map.isEmpty());
+  }
+
+}
@@ -33,6 +33,7 @@ import javassist.util.proxy.Proxy;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
@@ -80,6 +81,27 @@ class SqlSessionTest extends BaseDataTest {
     assertEquals(cache, c.getCache(shortName));
   }
 
+  @Test
+  void shouldLookUpStatementsOfSealedConfiguration() throws Exception {
+    Configuration configuration;
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/builder/MapperConfig.xml")) {
+      configuration = new XMLConfigBuilder(reader).parse();
+    }
+    configuration.setSealConfiguration(true);
+    SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+    assertTrue(configuration.isSealed());
+    String statementId = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAuthor";
+    assertTrue(configuration.hasStatement(statementId));
+    assertEquals(statementId, configuration.getMappedStatement("selectAuthor").getId());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> configuration.getMappedStatement("unknown"));
+    Assertions.assertThrows(IllegalStateException.class, () -> configuration.addMapper(AuthorMapperWithRowBounds.class));
+    try (SqlSession session = factory.openSession()) {
+      Author author = session.getMapper(AuthorMapper.class).selectAuthor(101);
+      assertEquals(101, author.getId());
+      assertEquals(author.getUsername(), ((Author) session.selectOne(statementId, 101)).getUsername());
+    }
+  }
+
   @Test
   void shouldFailOverToMostApplicableSimpleName() {
     Configuration c = new Configuration();
@@ -19,6 +19,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
@@ -82,4 +85,24 @@ public class ArrayTypeHandlerTest {
       assertNull(nicknameCount);
     }
   }
+
+  @Test
+  public void shouldBindCollectionsAsArrays() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int id = 1; id <= 3; id++) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        mapper.insert(user);
+      }
+
+      assertEquals(2, mapper.countByIds(Arrays.asList(1L, 3L, 5L)));
+      assertEquals(0, mapper.countByIds(Collections.emptyList()));
+      assertEquals(3, mapper.countByIdArray(new long[] { 1, 2, 3 }));
+      assertEquals(2, mapper.countByNames(new HashSet<>(Arrays.asList("User 1", "User 2", "nobody"))));
+      assertEquals(1, mapper.countByIdsInArray(Arrays.asList(2, 4)));
+      assertEquals(0, mapper.countByIdsInArray(Collections.emptyList()));
+    }
+  }
 }
@@ -15,6 +15,11 @@
  */
 package org.apache.ibatis.submitted.array_type_handler;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
 public interface Mapper {
 
   void insert(User user);
@@ -25,4 +30,12 @@ public interface Mapper {
    * HSQL returns NULL when asked for the cardinality of an array column with NULL value :-(
    */
   Integer getNicknameCount();
+
+  int countByIds(List<Long> ids);
+
+  int countByIdArray(long[] ids);
+
+  int countByNames(@Param("names") Collection<String> names);
+
+  int countByIdsInArray(List<Integer> ids);
 }
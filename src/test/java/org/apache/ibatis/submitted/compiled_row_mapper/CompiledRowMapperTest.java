@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+  }
+
+  @Test
+  void shouldAutoMapEveryRow() {
+    List<Person> persons = select(false, false, Mapper::selectAutoMapped);
+    assertEquals(5, persons.size());
+    assertEquals("Person[1, Jane, 30, JJ]", persons.get(0).toString());
+    assertEquals("Person[2, John, -1, unknown]", persons.get(1).toString());
+    assertEquals("Person[3, null, 41, unknown]", persons.get(2).toString());
+    assertEquals("Person[5, Bob, 52, B]", persons.get(4).toString());
+    assertSameAsUncompiled(false, false, Mapper::selectAutoMapped);
+  }
+
+  @Test
+  void shouldCallSettersOnNullsButNotOnPrimitives() {
+    List<Person> persons = select(true, false, Mapper::selectAutoMapped);
+    assertEquals("Person[2, John, -1, null]", persons.get(1).toString());
+    assertEquals("Person[3, null, 41, null]", persons.get(2).toString());
+    assertSameAsUncompiled(true, false, Mapper::selectAutoMapped);
+  }
+
+  @Test
+  void shouldMapEachDiscriminatedResultMap() {
+    List<Person> persons = select(false, false, Mapper::selectWithDiscriminator);
+    assertEquals("Person[1, Jane, 30, JJ]", persons.get(0).toString());
+    assertEquals("Employee[2, John, -1, unknown]@Sales", persons.get(1).toString());
+    assertEquals("Employee[4, Mary, 25, M]@IT", persons.get(3).toString());
+    assertEquals("Person[5, Bob, 52, B]", persons.get(4).toString());
+    assertSameAsUncompiled(false, false, Mapper::selectWithDiscriminator);
+  }
+
+  @Test
+  void shouldReturnNullForEmptyRows() {
+    List<Person> persons = select(false, false, Mapper::selectNames);
+    assertEquals(5, persons.size());
+    assertNull(persons.get(2));
+    assertEquals("Person[null, Mary, -1, unknown]", persons.get(3).toString());
+    assertSameAsUncompiled(false, false, Mapper::selectNames);
+    assertSameAsUncompiled(false, true, Mapper::selectNames);
+  }
+
+  private void assertSameAsUncompiled(boolean callSettersOnNulls, boolean returnInstanceForEmptyRow,
+      Function<Mapper, List<Person>> query) {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    List<Person> compiled = select(callSettersOnNulls, returnInstanceForEmptyRow, query);
+    configuration.setUseCompiledRowMappers(false);
+    try {
+      List<Person> uncompiled = select(callSettersOnNulls, returnInstanceForEmptyRow, query);
+      assertEquals(String.valueOf(uncompiled), String.valueOf(compiled));
+    } finally {
+      configuration.setUseCompiledRowMappers(true);
+    }
+  }
+
+  private List<Person> select(boolean callSettersOnNulls, boolean returnInstanceForEmptyRow,
+      Function<Mapper, List<Person>> query) {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setCallSettersOnNulls(callSettersOnNulls);
+    configuration.setReturnInstanceForEmptyRow(returnInstanceForEmptyRow);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      return query.apply(sqlSession.getMapper(Mapper.class));
+    } finally {
+      configuration.setCallSettersOnNulls(false);
+      configuration.setReturnInstanceForEmptyRow(false);
+    }
+  }
+
+}
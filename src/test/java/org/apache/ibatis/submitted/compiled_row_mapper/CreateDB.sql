@@ -0,0 +1,32 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table person if exists;
+
+create table person (
+  id int,
+  name varchar(20),
+  age int,
+  kind char(1),
+  nickname varchar(20),
+  department varchar(20)
+);
+
+insert into person (id, name, age, kind, nickname, department) values (1, 'Jane', 30, 'P', 'JJ', null);
+insert into person (id, name, age, kind, nickname, department) values (2, 'John', null, 'E', null, 'Sales');
+insert into person (id, name, age, kind, nickname, department) values (3, null, 41, 'P', null, null);
+insert into person (id, name, age, kind, nickname, department) values (4, 'Mary', 25, 'E', 'M', 'IT');
+insert into person (id, name, age, kind, nickname, department) values (5, 'Bob', 52, 'P', 'B', null);
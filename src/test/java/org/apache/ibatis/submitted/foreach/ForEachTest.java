@@ -139,4 +139,37 @@ class ForEachTest {
     }
   }
 
+  @Test
+  void shouldBindItemsPositionally() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user1 = new User();
+      user1.setId(2);
+      User user2 = new User();
+      user2.setId(3);
+      User user3 = new User();
+      user3.setId(4);
+      // the second user is skipped by index
+      Assertions.assertEquals(2, mapper.countByUserListPositionally(Arrays.asList(user1, user2, null, user3)));
+      List<Integer> ids = new ArrayList<>();
+      for (int i = 0; i < 5000; i++) {
+        ids.add(i);
+      }
+      Assertions.assertEquals(6, mapper.countByIdsPositionally(ids));
+    }
+  }
+
+  @Test
+  void shouldExecuteInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // each chunk is ordered on its own
+      Assertions.assertEquals(Arrays.asList("User1", "User5", "User3", "User6", "User2"),
+          mapper.selectNamesInChunks(Arrays.asList(5, 1, 3, 6, 2)));
+      Assertions.assertEquals(5, mapper.renameInChunks("Renamed", Arrays.asList(1, 2, 3, 4, 5)));
+      Assertions.assertEquals(Arrays.asList("Renamed", "Renamed", "User6"),
+          mapper.selectNamesInChunks(Arrays.asList(1, 5, 6)));
+    }
+  }
+
 }
@@ -29,6 +29,14 @@ public interface Mapper {
 
   String selectWithNullItemCheck(List<User> users);
 
+  int countByUserListPositionally(List<User> users);
+
+  int countByIdsPositionally(List<Integer> ids);
+
+  List<String> selectNamesInChunks(List<Integer> ids);
+
+  int renameInChunks(@Param("name") String name, @Param("ids") List<Integer> ids);
+
   int typoInItemProperty(List<User> users);
 
   int itemVariableConflict(@Param("id") Integer id, @Param("ids") List<Integer> ids, @Param("ids2") List<Integer> ids2);
@@ -22,9 +22,13 @@ import org.mockito.Mock;
 import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -59,6 +63,35 @@ class ArrayTypeHandlerTest extends BaseTypeHandlerTest {
     verify(array).free();
   }
     
+  @Test
+  public void shouldSetPrimitiveArrayParameter() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+
+    Array array = mock(Array.class);
+    when(connection.createArrayOf(eq("BIGINT"), aryEq(new Long[] { 1L, 2L }))).thenReturn(array);
+
+    TYPE_HANDLER.setParameter(ps, 1, new long[] { 1L, 2L }, JdbcType.ARRAY);
+    verify(ps).setArray(1, array);
+    verify(array).free();
+  }
+
+  @Test
+  public void shouldSetCollectionParameter() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+
+    Array array = mock(Array.class);
+    when(connection.createArrayOf(eq("VARCHAR"), aryEq(new Object[] { null, "a" }))).thenReturn(array);
+    Array emptyArray = mock(Array.class);
+    when(connection.createArrayOf(eq("VARCHAR"), aryEq(new Object[0]))).thenReturn(emptyArray);
+
+    TYPE_HANDLER.setParameter(ps, 1, Arrays.asList(null, "a"), JdbcType.ARRAY);
+    verify(ps).setArray(1, array);
+    TYPE_HANDLER.setParameter(ps, 2, Collections.emptySet(), JdbcType.ARRAY);
+    verify(ps).setArray(2, emptyArray);
+  }
+
   @Test
   public void shouldSetNullParameter() throws Exception {
     TYPE_HANDLER.setParameter(ps, 1, null, JdbcType.ARRAY);
@@ -86,6 +86,14 @@ class TypeHandlerRegistryTest {
     assertSame(fakeHandler, typeHandlerRegistry.getTypeHandler(type));
   }
 
+  @Test
+  void shouldBindCollectionInterfacesAsArrays() {
+    assertEquals(ArrayTypeHandler.class, typeHandlerRegistry.getTypeHandler(List.class, JdbcType.ARRAY).getClass());
+    assertEquals(ArrayTypeHandler.class, typeHandlerRegistry.getTypeHandler(java.util.Set.class, JdbcType.ARRAY).getClass());
+    assertEquals(ArrayTypeHandler.class, typeHandlerRegistry.getTypeHandler(long[].class, JdbcType.ARRAY).getClass());
+    assertNull(typeHandlerRegistry.getTypeHandler(List.class));
+  }
+
   @Test
   void shouldAutoRegisterAndRetrieveComplexTypeHandler() {
     TypeHandler<List<URI>> fakeHandler = new BaseTypeHandler<List<URI>>() {